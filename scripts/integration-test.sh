@@ -96,4 +96,16 @@ for jdk_version in "${JDK_VERSIONS[@]}"; do
       -Dttl.agent.extra.d.options='-Drun-ttl-test-under-agent-with-enable-timer-task=true' \
       ${CI_MORE_END_OPTS:-}
   )
+
+  (
+    cd ttl-core
+    cu::head_line_echo "test with TTL3 Agent and Java: $JAVA_HOME"
+
+    cu::blue_echo 'Run unit test under ttl3 agent, and turn on the field injection for thread pool'
+    mvu::mvn_cmd ${CI_MORE_BEGIN_OPTS:-} \
+      surefire:test -Denforcer.skip \
+      -Penable-ttl-agent-for-test \
+      -Dttl.agent.extra.args='ttl.agent.enable.field.injection.for.thread.pool:true' \
+      ${CI_MORE_END_OPTS:-}
+  )
 done
@@ -3,12 +3,12 @@ package com.alibaba.ttl3.agent;
 import com.alibaba.ttl3.agent.logging.Logger;
 import com.alibaba.ttl3.agent.transformlet.TtlTransformlet;
 import com.alibaba.ttl3.agent.transformlet.internal.ForkJoinTtlTransformlet;
+import com.alibaba.ttl3.agent.transformlet.internal.FutureTaskTtlTransformlet;
 import com.alibaba.ttl3.agent.transformlet.internal.JdkExecutorTtlTransformlet;
 import com.alibaba.ttl3.agent.transformlet.internal.PriorityBlockingQueueTtlTransformlet;
 import com.alibaba.ttl3.agent.transformlet.internal.TimerTaskTtlTransformlet;
 import com.alibaba.ttl3.executor.TtlExecutors;
 import edu.umd.cs.findbugs.annotations.NonNull;
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.lang.instrument.ClassFileTransformer;
 import java.lang.instrument.Instrumentation;
@@ -79,6 +79,31 @@ import java.util.Map;
  * <li>{@code -javaagent:/path/to/transmittable-thread-local-2.x.y.jar=ttl.agent.disable.inheritable.for.thread.pool:true}</li>
  * </ol>
  *
+ * <h3>Configuration key: Enable field injection for thread pool</h3>
+ * <p>
+ * Enable the field injection for thread pool, configured by key {@code ttl.agent.enable.field.injection.for.thread.pool}.
+ * When no configuration for this key, default is {@code false}(aka. decorate the tasks to TTL wrapper). Since version {@code 3.0.0}.
+ * <p>
+ * Add the captured field to {@link java.util.concurrent.FutureTask} and replay around its run,
+ * as for {@link java.util.concurrent.ForkJoinTask}. The {@link java.util.concurrent.FutureTask}s,
+ * including all tasks of {@link java.util.concurrent.ScheduledThreadPoolExecutor}
+ * and the tasks of the submit methods of {@link java.util.concurrent.ThreadPoolExecutor},
+ * are transmitted without the TTL wrapper allocation, and without the unwrap in {@code beforeExecute}/{@code afterExecute}.
+ * The other {@link Runnable}s executed by {@link java.util.concurrent.ThreadPoolExecutor#execute(Runnable)},
+ * including the subclasses of {@link java.util.concurrent.FutureTask}, are still decorated to TTL wrapper.
+ * <p>
+ * <b><i>NOTE:</i></b> The {@link java.util.concurrent.FutureTask} captures at its construction instead of at the task submission.
+ * The {@link java.util.concurrent.FutureTask} created by user code and passed to
+ * {@link java.util.concurrent.ThreadPoolExecutor#execute(Runnable)} later transmits the values at its construction,
+ * different from the TTL wrapper which captures at {@code execute}.
+ * <p>
+ * Configuration example:
+ *
+ * <ol>
+ * <li>{@code -Dttl.agent.enable.field.injection.for.thread.pool=true}</li>
+ * <li>{@code -javaagent:/path/to/transmittable-thread-local-2.x.y.jar=ttl.agent.enable.field.injection.for.thread.pool:true}</li>
+ * </ol>
+ *
  * <h3>Configuration key: Enable TimerTask class decoration</h3>
  * <p>
  * Enable TimerTask class decoration is configured by key {@code ttl.agent.enable.timer.task}.
@@ -108,6 +133,23 @@ import java.util.Map;
  * <li>{@code -javaagent:/path/to/transmittable-thread-local-2.x.y.jar=ttl.agent.log.class.transform:true}</li>
  * </ol>
  *
+ * <h3>Configuration key: the delay of the transform statistics</h3>
+ * <p>
+ * The statistics of the transformlets(the count of the classes inspected/parsed/modified/failed, and the time spent)
+ * are always collected, and available by {@link TtlAgentStatus#getTransformletStats()}.
+ * Configured by key {@code ttl.agent.transform.stats.delay.millis}, after the delay milliseconds since the agent premain,
+ * log the summary line of the statistics(at info level, use {@code ttl.agent.logger:STDOUT} to see it)
+ * and register the JMX MXBean {@link TtlAgentMXBean}.
+ * When no configuration for this key, default is do <b>NOT</b> log the summary and register the JMX MXBean.
+ * Since version {@code 3.0.0}.
+ * <p>
+ * Configuration example:
+ *
+ * <ol>
+ * <li>{@code -Dttl.agent.transform.stats.delay.millis=30000}</li>
+ * <li>{@code -javaagent:/path/to/transmittable-thread-local-2.x.y.jar=ttl.agent.transform.stats.delay.millis:30000}</li>
+ * </ol>
+ *
  * <h3>Multi key configuration example</h3>
  * <p>
  * For {@code -D property} config, simply specify multiply {@code -D property}, example:<br>
@@ -171,6 +213,13 @@ public final class TtlAgent implements TtlAgentStatus {
      */
     public static final String TTL_AGENT_DISABLE_INHERITABLE_FOR_THREAD_POOL_KEY = "ttl.agent.disable.inheritable.for.thread.pool";
 
+    /**
+     * the TTL agent configuration key: Enable field injection for thread pool
+     *
+     * @see TtlAgent
+     */
+    public static final String TTL_AGENT_ENABLE_FIELD_INJECTION_FOR_THREAD_POOL_KEY = "ttl.agent.enable.field.injection.for.thread.pool";
+
     /**
      * the TTL agent configuration key: Enable TimerTask class decoration
      *
@@ -185,6 +234,13 @@ public final class TtlAgent implements TtlAgentStatus {
      */
     public static final String TTL_AGENT_LOG_CLASS_TRANSFORM_KEY = "ttl.agent.log.class.transform";
 
+    /**
+     * the TTL agent configuration key: the delay of the transform statistics
+     *
+     * @see TtlAgent
+     */
+    public static final String TTL_AGENT_TRANSFORM_STATS_DELAY_MILLIS_KEY = "ttl.agent.transform.stats.delay.millis";
+
 
     // ======== TTL Agent internal States ========
 
@@ -215,12 +271,17 @@ public final class TtlAgent implements TtlAgentStatus {
 
             transformletList.add(new ForkJoinTtlTransformlet());
 
+            if (isEnableFieldInjectionForThreadPool()) transformletList.add(new FutureTaskTtlTransformlet());
+
             if (isEnableTimerTask()) transformletList.add(new TimerTaskTtlTransformlet());
 
             final ClassFileTransformer transformer = new TtlTransformer(transformletList, isLogClassTransform());
             inst.addTransformer(transformer, true);
             logger.info("[TtlAgent.premain] add Transformer " + transformer.getClass().getName() + " success");
 
+            final long transformStatsDelayMillis = getTransformStatsDelayMillis();
+            if (transformStatsDelayMillis >= 0) TtlTransformletStats.scheduleSummaryAfter(transformStatsDelayMillis);
+
             logger.info("[TtlAgent.premain] end");
 
             ttlAgentLoaded = true;
@@ -236,7 +297,9 @@ public final class TtlAgent implements TtlAgentStatus {
                 + "\n    " + TTL_AGENT_LOGGER_KEY + "=" + getLoggerType()
                 + "\n    " + TTL_AGENT_LOG_CLASS_TRANSFORM_KEY + "=" + isLogClassTransform()
                 + "\n    " + TTL_AGENT_DISABLE_INHERITABLE_FOR_THREAD_POOL_KEY + "=" + isDisableInheritableForThreadPool()
-                + "\n    " + TTL_AGENT_ENABLE_TIMER_TASK_KEY + "=" + isEnableTimerTask();
+                + "\n    " + TTL_AGENT_ENABLE_FIELD_INJECTION_FOR_THREAD_POOL_KEY + "=" + isEnableFieldInjectionForThreadPool()
+                + "\n    " + TTL_AGENT_ENABLE_TIMER_TASK_KEY + "=" + isEnableTimerTask()
+                + "\n    " + TTL_AGENT_TRANSFORM_STATS_DELAY_MILLIS_KEY + "=" + getTransformStatsDelayMillis();
     }
 
     /**
@@ -246,6 +309,17 @@ public final class TtlAgent implements TtlAgentStatus {
         return ttlAgentLoaded;
     }
 
+    /**
+     * The statistics of the transformlets of TTL agent.
+     *
+     * @see TtlAgentMXBean
+     */
+    @NonNull
+    @Override
+    public List<TransformletStats> getTransformletStats() {
+        return TtlTransformletStats.getTransformletStats();
+    }
+
     /**
      * Whether disable inheritable for thread pool is enhanced by ttl agent, check {@link #isTtlAgentLoaded()} first.
      * <p>
@@ -264,6 +338,22 @@ public final class TtlAgent implements TtlAgentStatus {
         return isBooleanOptionSet(TTL_AGENT_DISABLE_INHERITABLE_FOR_THREAD_POOL_KEY);
     }
 
+    /**
+     * Whether the field injection for thread pool is enabled, check {@link #isTtlAgentLoaded()} first.
+     * <p>
+     * Same as {@code isBooleanOptionSet(TTL_AGENT_ENABLE_FIELD_INJECTION_FOR_THREAD_POOL_KEY)}.
+     *
+     * @see java.util.concurrent.FutureTask
+     * @see java.util.concurrent.ThreadPoolExecutor
+     * @see java.util.concurrent.ScheduledThreadPoolExecutor
+     * @see TtlAgent
+     * @see #isBooleanOptionSet(String)
+     * @see #TTL_AGENT_ENABLE_FIELD_INJECTION_FOR_THREAD_POOL_KEY
+     */
+    public static boolean isEnableFieldInjectionForThreadPool() {
+        return isBooleanOptionSet(TTL_AGENT_ENABLE_FIELD_INJECTION_FOR_THREAD_POOL_KEY);
+    }
+
     /**
      * Whether timer task is enhanced by ttl agent, check {@link #isTtlAgentLoaded()} first.
      * <p>
@@ -309,6 +399,25 @@ public final class TtlAgent implements TtlAgentStatus {
         return getStringOptionValue(TTL_AGENT_LOGGER_KEY, Logger.STDERR);
     }
 
+    /**
+     * Get the delay milliseconds of logging the summary of the transform statistics and registering the JMX MXBean.
+     *
+     * @return {@code -1} if no/invalid configuration, aka. do not log the summary and register the JMX MXBean
+     * @see TtlAgent
+     * @see #TTL_AGENT_TRANSFORM_STATS_DELAY_MILLIS_KEY
+     */
+    public static long getTransformStatsDelayMillis() {
+        final String value = getStringOptionValue(TTL_AGENT_TRANSFORM_STATS_DELAY_MILLIS_KEY, "");
+        if (value.isEmpty()) return -1;
+
+        try {
+            final long delayMillis = Long.parseLong(value);
+            return delayMillis >= 0 ? delayMillis : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
     // ======== Generic Option Getters ========
 
     /**
@@ -366,8 +475,9 @@ public final class TtlAgent implements TtlAgentStatus {
     }
 
 
-    @SuppressFBWarnings("CT_CONSTRUCTOR_THROW")
+    /**
+     * only instantiated by {@link TtlAgentStatus#getInstance()}.
+     */
     private TtlAgent() {
-        throw new InstantiationError("Must not instantiate this class");
     }
 }
@@ -0,0 +1,25 @@
+package com.alibaba.ttl3.agent;
+
+import java.util.List;
+
+/**
+ * The JMX MXBean of TTL agent, registered with the object name {@value #OBJECT_NAME}.
+ * <p>
+ * Registered after the delay configured by {@link TtlAgent#TTL_AGENT_TRANSFORM_STATS_DELAY_MILLIS_KEY}.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TtlAgentStatus#getTransformletStats()
+ */
+public interface TtlAgentMXBean {
+    String OBJECT_NAME = "com.alibaba.ttl3.agent:type=TtlAgent";
+
+    /**
+     * @see TtlAgentStatus#getTransformletStats()
+     */
+    List<TransformletStats> getTransformletStats();
+
+    /**
+     * the summary of the statistics of all the transformlets, the same as the summary log line.
+     */
+    String getTransformStatsSummary();
+}
@@ -30,16 +30,14 @@ final class TtlExtensionTransformletManager {
     }
 
     public String extensionTransformletDoTransform(@NonNull final ClassInfo classInfo) throws NotFoundException, CannotCompileException, IOException {
-        final Map<String, TtlTransformlet> transformlets = classLoader2ExtensionTransformletsIncludeParentCL.get(classInfo.getClassLoader());
-        if (transformlets == null) return null;
+        final TtlTransformletIndex transformletIndex = classLoader2ExtensionTransformletIndex.get(classInfo.getClassLoader());
+        if (transformletIndex == null) return null;
 
-        for (Map.Entry<String, TtlTransformlet> entry : transformlets.entrySet()) {
-            final String className = entry.getKey();
-            final TtlTransformlet transformlet = entry.getValue();
-
-            transformlet.doTransform(classInfo);
+        // only the transformlets whose target matches the class
+        for (TtlTransformlet transformlet : transformletIndex.getTransformlets(classInfo)) {
+            TtlTransformletStats.doTransform(transformlet, classInfo);
             if (classInfo.isModified()) {
-                return className;
+                return transformlet.getClass().getName();
             }
         }
 
@@ -57,6 +55,10 @@ final class TtlExtensionTransformletManager {
     private final WeakHashMap<ClassLoader, Map<String, TtlTransformlet>> classLoader2ExtensionTransformletsIncludeParentCL =
             new WeakHashMap<>(512);
 
+    // Map: ExtensionTransformlet ClassLoader -> index of ExtensionTransformlet instances(include from parent classloader)
+    private final WeakHashMap<ClassLoader, TtlTransformletIndex> classLoader2ExtensionTransformletIndex =
+            new WeakHashMap<>(512);
+
     public void collectExtensionTransformlet(@NonNull final ClassInfo classInfo) throws IOException {
         final ClassLoader classLoader = classInfo.getClassLoader();
         // classloader may null be if the bootstrap loader,
@@ -80,6 +82,10 @@ final class TtlExtensionTransformletManager {
 
         updateClassLoader2ExtensionTransformletsIncludeParentCL(
                 classLoader2ExtensionTransformlets, classLoader2ExtensionTransformletsIncludeParentCL);
+
+        for (Map.Entry<ClassLoader, Map<String, TtlTransformlet>> entry : classLoader2ExtensionTransformletsIncludeParentCL.entrySet()) {
+            classLoader2ExtensionTransformletIndex.put(entry.getKey(), new TtlTransformletIndex(entry.getValue().values()));
+        }
     }
 
     // extension transformlet configuration file URL location string -> URL contained extension transformlet class names
@@ -112,7 +118,9 @@ final class TtlExtensionTransformletManager {
                 if (className2Transformlets.containsKey(className)) continue;
 
                 className2Transformlets.put(className, t);
-                logger.info("[TtlExtensionTransformletCollector] add TTL Extension Transformlet " + className + " success");
+                TtlTransformletStats.register(t);
+                logger.info("[TtlExtensionTransformletCollector] add TTL Extension Transformlet " + className
+                        + " success, target " + t.getTarget());
             }
         }
     }
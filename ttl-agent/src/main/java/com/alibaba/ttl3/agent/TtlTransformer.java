@@ -9,7 +9,6 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.lang.instrument.ClassFileTransformer;
 import java.security.ProtectionDomain;
-import java.util.ArrayList;
 import java.util.List;
 
 import static com.alibaba.ttl3.agent.transformlet.helper.TtlTransformletHelper.isClassUnderPackage;
@@ -35,7 +34,7 @@ public class TtlTransformer implements ClassFileTransformer {
     private static final byte[] NO_TRANSFORM = null;
 
     private final TtlExtensionTransformletManager extensionTransformletManager;
-    private final List<TtlTransformlet> transformletList = new ArrayList<>();
+    private final TtlTransformletIndex transformletIndex;
     private final boolean logClassTransform;
 
     TtlTransformer(List<? extends TtlTransformlet> transformletList, boolean logClassTransform) {
@@ -43,9 +42,11 @@ public class TtlTransformer implements ClassFileTransformer {
 
         this.logClassTransform = logClassTransform;
         for (TtlTransformlet ttlTransformlet : transformletList) {
-            this.transformletList.add(ttlTransformlet);
-            logger.info("[TtlTransformer] add Transformlet " + ttlTransformlet.getClass().getName());
+            TtlTransformletStats.register(ttlTransformlet);
+            logger.info("[TtlTransformer] add Transformlet " + ttlTransformlet.getClass().getName()
+                    + ", target " + ttlTransformlet.getTarget());
         }
+        this.transformletIndex = new TtlTransformletIndex(transformletList);
     }
 
     /**
@@ -71,13 +72,14 @@ public class TtlTransformer implements ClassFileTransformer {
 
             extensionTransformletManager.collectExtensionTransformlet(classInfo);
 
-            for (TtlTransformlet transformlet : transformletList) {
-                transformlet.doTransform(classInfo);
+            // only the transformlets whose target matches the class
+            for (TtlTransformlet transformlet : transformletIndex.getTransformlets(classInfo)) {
+                TtlTransformletStats.doTransform(transformlet, classInfo);
                 if (classInfo.isModified()) {
                     logger.info("[TtlTransformer] " + transformlet.getClass().getName() + " transformed " + classInfo.getClassName()
                             + " from classloader " + classInfo.getClassLoader()
                             + " at location " + classInfo.getLocationUrl());
-                    return classInfo.getCtClass().toBytecode();
+                    return TtlTransformletStats.toBytecode(transformlet.getClass().getName(), classInfo);
                 }
             }
 
@@ -86,7 +88,7 @@ public class TtlTransformer implements ClassFileTransformer {
                 logger.info("[TtlTransformer] " + transformlet + " transformed " + classInfo.getClassName()
                         + " from classloader " + classInfo.getClassLoader()
                         + " at location " + classInfo.getLocationUrl());
-                return classInfo.getCtClass().toBytecode();
+                return TtlTransformletStats.toBytecode(transformlet, classInfo);
             }
         } catch (Throwable t) {
             String msg = "[TtlTransformer] fail to transform class " + classFile + ", cause: " + t.toString();
@@ -0,0 +1,101 @@
+package com.alibaba.ttl3.agent;
+
+import com.alibaba.ttl3.agent.transformlet.ClassInfo;
+import com.alibaba.ttl3.agent.transformlet.TransformletTarget;
+import com.alibaba.ttl3.agent.transformlet.TtlTransformlet;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * The index of the {@link TtlTransformlet}s by the {@link TtlTransformlet#getTarget() targets},
+ * find the transformlets matching the class by hash lookups instead of invoking all the transformlets.
+ * <p>
+ * The found transformlets keep the order of the input transformlets.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TransformletTarget
+ */
+final class TtlTransformletIndex {
+    private final List<TtlTransformlet> transformlets;
+
+    // the bits of the transformlet indexes
+    private final Map<String, BitSet> className2Transformlets = new HashMap<>();
+    private final Map<String, BitSet> package2Transformlets = new HashMap<>();
+    private final Map<String, BitSet> superType2Transformlets = new HashMap<>();
+    private final BitSet anyClassTransformletBits = new BitSet();
+
+    private final List<TtlTransformlet> anyClassTransformlets;
+
+    TtlTransformletIndex(@NonNull Collection<? extends TtlTransformlet> transformlets) {
+        this.transformlets = new ArrayList<>(transformlets);
+
+        final List<TtlTransformlet> anyClass = new ArrayList<>();
+        for (int i = 0; i < this.transformlets.size(); i++) {
+            final TtlTransformlet transformlet = this.transformlets.get(i);
+            final TransformletTarget target = transformlet.getTarget();
+
+            if (target.isAnyClass()) {
+                anyClassTransformletBits.set(i);
+                anyClass.add(transformlet);
+                continue;
+            }
+            addToIndex(className2Transformlets, target.getClassNames(), i);
+            addToIndex(package2Transformlets, target.getPackagePrefixes(), i);
+            addToIndex(superType2Transformlets, target.getSuperTypes(), i);
+        }
+        this.anyClassTransformlets = Collections.unmodifiableList(anyClass);
+    }
+
+    private static void addToIndex(Map<String, BitSet> index, Set<String> keys, int transformletIndex) {
+        for (String key : keys) {
+            index.computeIfAbsent(key, k -> new BitSet()).set(transformletIndex);
+        }
+    }
+
+    /**
+     * @return the transformlets matching the class, in the order of the input transformlets
+     */
+    @NonNull
+    List<TtlTransformlet> getTransformlets(@NonNull ClassInfo classInfo) {
+        final String className = classInfo.getClassName();
+
+        BitSet matched = or(null, className2Transformlets.get(className));
+
+        if (!package2Transformlets.isEmpty()) {
+            // the package and the parent packages, e.g. a.b.c, a.b, a
+            for (int idx = className.lastIndexOf('.'); idx > 0; idx = className.lastIndexOf('.', idx - 1)) {
+                matched = or(matched, package2Transformlets.get(className.substring(0, idx)));
+            }
+        }
+
+        // read from the class file without Javassist parsing,
+        // the class file which can not be read can not be parsed and transformed by Javassist either.
+        if (!superType2Transformlets.isEmpty()) {
+            final String superClassName = classInfo.getSuperClassName();
+            if (superClassName != null) matched = or(matched, superType2Transformlets.get(superClassName));
+            for (String interfaceName : classInfo.getInterfaceNames()) {
+                matched = or(matched, superType2Transformlets.get(interfaceName));
+            }
+        }
+
+        if (matched == null) return anyClassTransformlets;
+
+        matched.or(anyClassTransformletBits);
+        final List<TtlTransformlet> ret = new ArrayList<>(matched.cardinality());
+        for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+            ret.add(transformlets.get(i));
+        }
+        return ret;
+    }
+
+    @Nullable
+    private static BitSet or(@Nullable BitSet matched, @Nullable BitSet bits) {
+        if (bits == null) return matched;
+        if (matched == null) return (BitSet) bits.clone();
+
+        matched.or(bits);
+        return matched;
+    }
+}
@@ -0,0 +1,175 @@
+package com.alibaba.ttl3.agent;
+
+import com.alibaba.ttl3.agent.logging.Logger;
+import com.alibaba.ttl3.agent.transformlet.ClassInfo;
+import com.alibaba.ttl3.agent.transformlet.TtlTransformlet;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import javassist.CannotCompileException;
+import javassist.NotFoundException;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The statistics of the transformlets, the counters of the classes and the time spent.
+ * <p>
+ * The transformlets are counted by the class name, the extension transformlets of the same class
+ * from different class loaders share the counter.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TransformletStats
+ * @see TtlAgentMXBean
+ */
+final class TtlTransformletStats {
+    private static final ConcurrentMap<String, Counter> name2Counter = new ConcurrentHashMap<>();
+    // in the order of the transformlets added
+    private static final List<Counter> counters = new CopyOnWriteArrayList<>();
+
+    @NonNull
+    private static Counter getCounter(@NonNull String transformletName) {
+        final Counter counter = name2Counter.get(transformletName);
+        if (counter != null) return counter;
+
+        return name2Counter.computeIfAbsent(transformletName, name -> {
+            final Counter c = new Counter(name);
+            counters.add(c);
+            return c;
+        });
+    }
+
+    static void register(@NonNull TtlTransformlet transformlet) {
+        getCounter(transformlet.getClass().getName());
+    }
+
+    /**
+     * invoke {@link TtlTransformlet#doTransform(ClassInfo)}, and count the class and the time spent.
+     */
+    static void doTransform(@NonNull TtlTransformlet transformlet, @NonNull ClassInfo classInfo)
+            throws IOException, NotFoundException, CannotCompileException {
+        final Counter counter = getCounter(transformlet.getClass().getName());
+        final boolean parsedBefore = classInfo.isParsed();
+
+        final long start = System.nanoTime();
+        try {
+            transformlet.doTransform(classInfo);
+            if (classInfo.isModified()) counter.modified.increment();
+        } catch (Throwable t) {
+            counter.failed.increment();
+            throw t;
+        } finally {
+            counter.spentNanos.add(System.nanoTime() - start);
+            counter.inspected.increment();
+            if (!parsedBefore && classInfo.isParsed()) counter.parsed.increment();
+        }
+    }
+
+    /**
+     * generate the bytecode of the modified class, and count the time spent to the transformlet.
+     */
+    @NonNull
+    static byte[] toBytecode(@NonNull String transformletName, @NonNull ClassInfo classInfo)
+            throws IOException, CannotCompileException {
+        final long start = System.nanoTime();
+        try {
+            return classInfo.getCtClass().toBytecode();
+        } finally {
+            getCounter(transformletName).spentNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    @NonNull
+    static List<TransformletStats> getTransformletStats() {
+        final List<TransformletStats> ret = new ArrayList<>(counters.size());
+        for (Counter counter : counters) {
+            ret.add(counter.toStats());
+        }
+        return ret;
+    }
+
+    @NonNull
+    static String getSummary() {
+        long inspected = 0, parsed = 0, modified = 0, failed = 0, spentNanos = 0;
+        final StringBuilder details = new StringBuilder();
+        for (TransformletStats stats : getTransformletStats()) {
+            inspected += stats.getInspectedClassCount();
+            parsed += stats.getParsedClassCount();
+            modified += stats.getModifiedClassCount();
+            failed += stats.getFailedClassCount();
+            spentNanos += stats.getSpentNanos();
+            details.append("\n    ").append(stats);
+        }
+
+        return "TTL Agent transform statistics: inspected=" + inspected + ", parsed=" + parsed
+                + ", modified=" + modified + ", failed=" + failed
+                + ", spent=" + TimeUnit.NANOSECONDS.toMillis(spentNanos) + "ms" + details;
+    }
+
+    /**
+     * log the summary and register the {@link TtlAgentMXBean} after the delay, in a daemon thread.
+     * <p>
+     * Not at the agent premain: the JMX initialization at premain may break the application
+     * which configures the platform logging or JMX later(e.g. {@code java.util.logging.manager}).
+     */
+    static void scheduleSummaryAfter(long delayMillis) {
+        final Thread thread = new Thread(() -> {
+            final Logger logger = Logger.getLogger(TtlTransformletStats.class);
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            logger.info(getSummary());
+            try {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(new MXBeanImpl(), new ObjectName(TtlAgentMXBean.OBJECT_NAME));
+                logger.info("register JMX MXBean " + TtlAgentMXBean.OBJECT_NAME + " success");
+            } catch (Exception e) {
+                logger.warn("fail to register JMX MXBean " + TtlAgentMXBean.OBJECT_NAME + ", cause: " + e, e);
+            }
+        }, "ttl-agent-transform-stats");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private static final class Counter {
+        final String transformletName;
+        final LongAdder inspected = new LongAdder();
+        final LongAdder parsed = new LongAdder();
+        final LongAdder modified = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder spentNanos = new LongAdder();
+
+        Counter(String transformletName) {
+            this.transformletName = transformletName;
+        }
+
+        TransformletStats toStats() {
+            return new TransformletStats(transformletName, inspected.sum(), parsed.sum(),
+                    modified.sum(), failed.sum(), spentNanos.sum());
+        }
+    }
+
+    private static final class MXBeanImpl implements TtlAgentMXBean {
+        @Override
+        public List<TransformletStats> getTransformletStats() {
+            return TtlTransformletStats.getTransformletStats();
+        }
+
+        @Override
+        public String getTransformStatsSummary() {
+            return getSummary();
+        }
+    }
+
+    private TtlTransformletStats() {
+        throw new InstantiationError("Must not instantiate this class");
+    }
+}
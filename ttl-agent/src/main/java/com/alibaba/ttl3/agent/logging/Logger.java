@@ -54,6 +54,11 @@ public abstract class Logger {
         this.logClass = logClass;
     }
 
+    /**
+     * Whether the info message is logged, check it before building the costly info message.
+     */
+    public abstract boolean isInfoEnabled();
+
     public void info(String msg) {
         log(Level.INFO, msg, null);
     }
@@ -81,6 +86,11 @@ public abstract class Logger {
             super(clazz);
         }
 
+        @Override
+        public boolean isInfoEnabled() {
+            return false;
+        }
+
         @Override
         public void log(Level level, String msg, Throwable thrown) {
             if (level == Level.SEVERE) {
@@ -96,6 +106,11 @@ public abstract class Logger {
             super(clazz);
         }
 
+        @Override
+        public boolean isInfoEnabled() {
+            return true;
+        }
+
         @Override
         public void log(Level level, String msg, Throwable thrown) {
             final String time = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date());
@@ -0,0 +1,230 @@
+package com.alibaba.ttl3.agent.transformlet;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * The header of the class file read straight from the class file bytes, without Javassist parsing:
+ * the constant pool, the access flags, the super class and the interfaces.
+ * <p>
+ * Only the offsets of the constant pool entries are recorded, the strings are decoded on demand.
+ * <p>
+ * More info about the class file format see
+ * <a href="https://docs.oracle.com/javase/specs/jvms/se21/html/jvms-4.html">The class File Format</a>.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see ClassInfo
+ */
+final class ClassFileHeader {
+    private static final int MAGIC = 0xCAFEBABE;
+
+    private static final int CONSTANT_Utf8 = 1;
+    private static final int CONSTANT_Integer = 3;
+    private static final int CONSTANT_Float = 4;
+    private static final int CONSTANT_Long = 5;
+    private static final int CONSTANT_Double = 6;
+    private static final int CONSTANT_Class = 7;
+    private static final int CONSTANT_String = 8;
+    private static final int CONSTANT_Fieldref = 9;
+    private static final int CONSTANT_Methodref = 10;
+    private static final int CONSTANT_InterfaceMethodref = 11;
+    private static final int CONSTANT_NameAndType = 12;
+    private static final int CONSTANT_MethodHandle = 15;
+    private static final int CONSTANT_MethodType = 16;
+    private static final int CONSTANT_Dynamic = 17;
+    private static final int CONSTANT_InvokeDynamic = 18;
+    private static final int CONSTANT_Module = 19;
+    private static final int CONSTANT_Package = 20;
+
+    static final int ACC_INTERFACE = 0x0200;
+    static final int ACC_ANNOTATION = 0x2000;
+
+    private final byte[] bytes;
+    // the offset of the tag byte of the constant pool entry, index 0 and the second slot of Long/Double are 0
+    private final int[] cpOffsets;
+    private final int accessFlags;
+    private final int superClassIndex;
+    private final int[] interfaceIndexes;
+
+    private ClassFileHeader(byte[] bytes, int[] cpOffsets, int accessFlags, int superClassIndex, int[] interfaceIndexes) {
+        this.bytes = bytes;
+        this.cpOffsets = cpOffsets;
+        this.accessFlags = accessFlags;
+        this.superClassIndex = superClassIndex;
+        this.interfaceIndexes = interfaceIndexes;
+    }
+
+    /**
+     * read the header of the class file.
+     *
+     * @return {@code null} if the class file is malformed or has an unknown constant pool entry
+     */
+    @Nullable
+    static ClassFileHeader read(@NonNull byte[] bytes) {
+        try {
+            if (readInt(bytes, 0) != MAGIC) return null;
+
+            final int cpCount = readUnsignedShort(bytes, 8);
+            final int[] cpOffsets = new int[cpCount];
+            int offset = 10;
+            for (int i = 1; i < cpCount; i++) {
+                cpOffsets[i] = offset;
+                final int tag = bytes[offset];
+                switch (tag) {
+                    case CONSTANT_Utf8:
+                        offset += 3 + readUnsignedShort(bytes, offset + 1);
+                        break;
+                    case CONSTANT_Class:
+                    case CONSTANT_String:
+                    case CONSTANT_MethodType:
+                    case CONSTANT_Module:
+                    case CONSTANT_Package:
+                        offset += 3;
+                        break;
+                    case CONSTANT_MethodHandle:
+                        offset += 4;
+                        break;
+                    case CONSTANT_Integer:
+                    case CONSTANT_Float:
+                    case CONSTANT_Fieldref:
+                    case CONSTANT_Methodref:
+                    case CONSTANT_InterfaceMethodref:
+                    case CONSTANT_NameAndType:
+                    case CONSTANT_Dynamic:
+                    case CONSTANT_InvokeDynamic:
+                        offset += 5;
+                        break;
+                    case CONSTANT_Long:
+                    case CONSTANT_Double:
+                        offset += 9;
+                        // the 8-byte constant takes two entries
+                        i++;
+                        break;
+                    default:
+                        return null;
+                }
+            }
+
+            final int accessFlags = readUnsignedShort(bytes, offset);
+            final int superClassIndex = readUnsignedShort(bytes, offset + 4);
+            final int interfacesCount = readUnsignedShort(bytes, offset + 6);
+            final int[] interfaceIndexes = new int[interfacesCount];
+            for (int i = 0; i < interfacesCount; i++) {
+                interfaceIndexes[i] = readUnsignedShort(bytes, offset + 8 + 2 * i);
+            }
+
+            return new ClassFileHeader(bytes, cpOffsets, accessFlags, superClassIndex, interfaceIndexes);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    int getAccessFlags() {
+        return accessFlags;
+    }
+
+    /**
+     * @return the super class name, e.g. {@code java.lang.Object}; {@code null} if no super class(e.g. {@code java.lang.Object} itself)
+     */
+    @Nullable
+    String getSuperClassName() {
+        if (superClassIndex == 0) return null;
+        return getClassName(superClassIndex);
+    }
+
+    @NonNull
+    String[] getInterfaceNames() {
+        final String[] names = new String[interfaceIndexes.length];
+        for (int i = 0; i < interfaceIndexes.length; i++) {
+            names[i] = getClassName(interfaceIndexes[i]);
+        }
+        return names;
+    }
+
+    /**
+     * whether the constant pool contains the class, e.g. the super class, a referenced class.
+     *
+     * @param className the ascii class name, e.g. {@code java.util.concurrent.ThreadPoolExecutor}
+     */
+    boolean containsClass(@NonNull String className) {
+        final String internalName = className.replace('.', '/');
+        for (int i = 1; i < cpOffsets.length; i++) {
+            final int offset = cpOffsets[i];
+            if (offset == 0 || bytes[offset] != CONSTANT_Class) continue;
+
+            if (utf8Equals(readUnsignedShort(bytes, offset + 1), internalName)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * whether the constant pool contains the {@code CONSTANT_Utf8} string,
+     * e.g. the name or descriptor of a declared/referenced method.
+     *
+     * @param ascii the ascii string, e.g. {@code beforeExecute}
+     */
+    boolean containsUtf8(@NonNull String ascii) {
+        for (int i = 1; i < cpOffsets.length; i++) {
+            if (utf8Equals(i, ascii)) return true;
+        }
+        return false;
+    }
+
+    private boolean utf8Equals(int cpIndex, @NonNull String ascii) {
+        final int offset = cpOffsets[cpIndex];
+        if (offset == 0 || bytes[offset] != CONSTANT_Utf8) return false;
+
+        final int length = readUnsignedShort(bytes, offset + 1);
+        if (length != ascii.length()) return false;
+
+        final int start = offset + 3;
+        for (int i = 0; i < length; i++) {
+            if (bytes[start + i] != (byte) ascii.charAt(i)) return false;
+        }
+        return true;
+    }
+
+    @NonNull
+    private String getClassName(int classIndex) {
+        final int nameIndex = readUnsignedShort(bytes, cpOffsets[classIndex] + 1);
+        return readUtf8(cpOffsets[nameIndex]).replace('/', '.');
+    }
+
+    @NonNull
+    private String readUtf8(int offset) {
+        final int length = readUnsignedShort(bytes, offset + 1);
+        final int start = offset + 3;
+
+        final char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            final byte b = bytes[start + i];
+            // non-ascii, decode the modified UTF-8
+            if (b < 0) return readModifiedUtf8(offset);
+            chars[i] = (char) b;
+        }
+        return new String(chars);
+    }
+
+    @NonNull
+    private String readModifiedUtf8(int offset) {
+        try {
+            // the u2 length and the bytes, same as the format of DataInput#readUTF
+            return new DataInputStream(new ByteArrayInputStream(bytes, offset + 1, bytes.length - offset - 1)).readUTF();
+        } catch (IOException e) {
+            throw new IllegalStateException("malformed CONSTANT_Utf8 at offset " + offset, e);
+        }
+    }
+
+    private static int readUnsignedShort(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 8) | (bytes[offset + 1] & 0xFF);
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+}
@@ -5,7 +5,6 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import javassist.ClassPool;
 import javassist.CtClass;
-import javassist.LoaderClassPath;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
@@ -45,6 +44,100 @@ public class ClassInfo {
         return className;
     }
 
+    // ======== class file header, read without Javassist parsing ========
+
+    private ClassFileHeader classFileHeader;
+    private boolean classFileHeaderRead = false;
+
+    @Nullable
+    private ClassFileHeader getClassFileHeader() {
+        if (!classFileHeaderRead) {
+            classFileHeader = ClassFileHeader.read(classFileBuffer);
+            classFileHeaderRead = true;
+        }
+        return classFileHeader;
+    }
+
+    /**
+     * The super class name read from the class file, without Javassist parsing.
+     * Use it to skip the class which can not match before {@link #getCtClass()}.
+     *
+     * @return the super class name, e.g. {@code java.lang.Object};
+     * {@code null} if no super class(e.g. {@code java.lang.Object} itself) or the class file can not be read
+     */
+    @Nullable
+    public String getSuperClassName() {
+        final ClassFileHeader header = getClassFileHeader();
+        return header == null ? null : header.getSuperClassName();
+    }
+
+    /**
+     * The interface names read from the class file, without Javassist parsing.
+     *
+     * @return the direct super interface names; empty if the class file can not be read
+     */
+    @NonNull
+    public String[] getInterfaceNames() {
+        final ClassFileHeader header = getClassFileHeader();
+        return header == null ? new String[0] : header.getInterfaceNames();
+    }
+
+    /**
+     * Whether the class is an interface or annotation, read from the class file without Javassist parsing.
+     *
+     * @return {@code false} if the class file can not be read
+     */
+    public boolean isInterfaceOrAnnotation() {
+        final ClassFileHeader header = getClassFileHeader();
+        return header != null && (header.getAccessFlags() & (ClassFileHeader.ACC_INTERFACE | ClassFileHeader.ACC_ANNOTATION)) != 0;
+    }
+
+    /**
+     * Whether the class may be a direct subclass of the class or extends another class than {@code java.lang.Object},
+     * read from the class file without Javassist parsing.
+     * <p>
+     * A class extending {@code java.lang.Object} directly, or an interface, can not be a subclass of the class.
+     *
+     * @param className the super class name, e.g. {@code java.util.concurrent.ThreadPoolExecutor}
+     * @return {@code true} if the class file can not be read
+     */
+    public boolean maybeSubclassOf(@NonNull String className) {
+        final ClassFileHeader header = getClassFileHeader();
+        if (header == null) return true;
+        if ((header.getAccessFlags() & (ClassFileHeader.ACC_INTERFACE | ClassFileHeader.ACC_ANNOTATION)) != 0) return false;
+
+        final String superClassName = header.getSuperClassName();
+        return superClassName != null && (superClassName.equals(className) || !"java.lang.Object".equals(superClassName));
+    }
+
+    /**
+     * Whether the constant pool of the class file contains the class, without Javassist parsing.
+     * e.g. the super class, the super interfaces, the classes referenced by the code.
+     *
+     * @param className the ascii class name, e.g. {@code java.util.concurrent.ThreadPoolExecutor}
+     * @return {@code true} if the class file can not be read
+     */
+    public boolean isClassInConstantPool(@NonNull String className) {
+        final ClassFileHeader header = getClassFileHeader();
+        return header == null || header.containsClass(className);
+    }
+
+    /**
+     * Whether the constant pool of the class file contains the string, without Javassist parsing.
+     * e.g. the names and descriptors of the declared/referenced methods and fields.
+     * <p>
+     * A class declaring the method {@code beforeExecute} always contains the name {@code beforeExecute}.
+     *
+     * @param ascii the ascii string, e.g. {@code beforeExecute}
+     * @return {@code true} if the class file can not be read
+     */
+    public boolean isNameInConstantPool(@NonNull String ascii) {
+        final ClassFileHeader header = getClassFileHeader();
+        return header == null || header.containsUtf8(ascii);
+    }
+
+    // ======== Javassist ========
+
     private CtClass ctClass;
 
     public URL getLocationUrl() throws IOException {
@@ -59,13 +152,9 @@ public class ClassInfo {
     public CtClass getCtClass() throws IOException {
         if (ctClass != null) return ctClass;
 
-        final ClassPool classPool = new ClassPool(true);
-        if (loader == null) {
-            classPool.appendClassPath(new LoaderClassPath(ClassLoader.getSystemClassLoader()));
-        } else {
-            classPool.appendClassPath(new LoaderClassPath(loader));
-        }
-
+        // the transforming class is cached in the child ClassPool, which is discarded with this ClassInfo;
+        // the super classes are resolved and cached by the shared ClassPool of the class loader.
+        final ClassPool classPool = ClassPoolCache.newChildClassPool(loader);
         final CtClass clazz = classPool.makeClass(new ByteArrayInputStream(classFileBuffer), false);
         clazz.defrost();
 
@@ -73,6 +162,13 @@ public class ClassInfo {
         return clazz;
     }
 
+    /**
+     * Whether the class file is parsed by Javassist, aka. {@link #getCtClass()} is invoked.
+     */
+    public boolean isParsed() {
+        return ctClass != null;
+    }
+
     private boolean modified = false;
 
     public boolean isModified() {
@@ -0,0 +1,114 @@
+package com.alibaba.ttl3.agent.transformlet;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.LoaderClassPath;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The cache of the shared {@link ClassPool} per {@link ClassLoader}, used by {@link ClassInfo#getCtClass()}.
+ * <p>
+ * The super classes(e.g. {@code ThreadPoolExecutor}, {@code AbstractExecutorService}) resolved by
+ * {@link CtClass#subclassOf(CtClass)} are parsed once per class loader, instead of once per transforming class.
+ * <p>
+ * The transforming class is made in a child {@link ClassPool} of the shared {@link ClassPool},
+ * so the shared {@link ClassPool} only caches the unmodified classes read from the class loader.
+ * <p>
+ * Avoid leaking the class loaders and the memory:
+ * <ul>
+ * <li>the class loader is weakly referenced as the key,
+ *     the shared {@link ClassPool} reads class files by {@link LoaderClassPath}
+ *     which references the class loader weakly too.</li>
+ * <li>the shared {@link ClassPool} retains at most {@link #MAX_CACHED_CLASS_COUNT} {@link CtClass}es,
+ *     the least recently cached {@link CtClass} is detached when exceeding.</li>
+ * </ul>
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see ClassInfo#getCtClass()
+ */
+final class ClassPoolCache {
+    static final int MAX_CACHED_CLASS_COUNT = 1024;
+
+    private static final Map<ClassLoader, ClassPool> loader2ClassPool = new WeakHashMap<>();
+
+    // the bootstrap class loader is null, read the class files from the system class loader
+    private static volatile ClassPool bootstrapClassPool;
+
+    /**
+     * create a child {@link ClassPool} of the shared {@link ClassPool} of the class loader,
+     * to make the transforming class.
+     */
+    @NonNull
+    static ClassPool newChildClassPool(@Nullable ClassLoader loader) {
+        return new ClassPool(getSharedClassPool(loader));
+    }
+
+    @NonNull
+    static ClassPool getSharedClassPool(@Nullable ClassLoader loader) {
+        if (loader == null) {
+            ClassPool classPool = bootstrapClassPool;
+            if (classPool != null) return classPool;
+
+            synchronized (ClassPoolCache.class) {
+                if (bootstrapClassPool == null) {
+                    bootstrapClassPool = new BoundedClassPool(ClassLoader.getSystemClassLoader());
+                }
+                return bootstrapClassPool;
+            }
+        }
+
+        synchronized (loader2ClassPool) {
+            ClassPool classPool = loader2ClassPool.get(loader);
+            if (classPool == null) {
+                classPool = new BoundedClassPool(loader);
+                loader2ClassPool.put(loader, classPool);
+            }
+            return classPool;
+        }
+    }
+
+    /**
+     * {@link ClassPool} retaining at most {@link #MAX_CACHED_CLASS_COUNT} {@link CtClass}es, the least recently cached first out.
+     * <p>
+     * {@code cacheCtClass}/{@code removeCached} are invoked by {@code ClassPool.get0} with the lock of the {@link ClassPool},
+     * and by {@link CtClass#detach()}.
+     */
+    private static final class BoundedClassPool extends ClassPool {
+        // the value is unused, the insertion order of the class names
+        private final LinkedHashMap<String, Boolean> cachedClassNames = new LinkedHashMap<>();
+
+        BoundedClassPool(@NonNull ClassLoader loader) {
+            super(true);
+            appendClassPath(new LoaderClassPath(loader));
+        }
+
+        @Override
+        protected synchronized void cacheCtClass(String classname, CtClass c, boolean dynamic) {
+            super.cacheCtClass(classname, c, dynamic);
+            cachedClassNames.put(classname, Boolean.TRUE);
+
+            if (cachedClassNames.size() <= MAX_CACHED_CLASS_COUNT) return;
+            final Iterator<String> iterator = cachedClassNames.keySet().iterator();
+            final String eldest = iterator.next();
+            iterator.remove();
+            // detach, the same as CtClass#detach()
+            super.removeCached(eldest);
+        }
+
+        @Override
+        protected synchronized CtClass removeCached(String classname) {
+            cachedClassNames.remove(classname);
+            return super.removeCached(classname);
+        }
+    }
+
+    private ClassPoolCache() {
+        throw new InstantiationError("Must not instantiate this class");
+    }
+}
@@ -0,0 +1,156 @@
+package com.alibaba.ttl3.agent.transformlet;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The target classes of {@link TtlTransformlet}, declared by {@link TtlTransformlet#getTarget()}.
+ * <p>
+ * The TTL agent indexes the targets of the transformlets, and invokes {@link TtlTransformlet#doTransform(ClassInfo)}
+ * only for the matched classes; so the class not matched by any transformlet costs
+ * a hash lookup of the class name(and its packages), regardless of the count of the transformlets.
+ * <p>
+ * A class is matched if any of the conditions is satisfied:
+ * <ul>
+ * <li>the class name is one of {@link #classNames(String...)}</li>
+ * <li>the class is under one of {@link #packagePrefixes(String...)}, include the sub packages</li>
+ * <li>the <b>direct</b> super class or the <b>direct</b> super interfaces is one of {@link #superTypes(String...)},
+ *     read from the class file without Javassist parsing.
+ *     The indirect subtypes are not matched, use {@link #anyClass()} and check by {@link ClassInfo} instead.</li>
+ * </ul>
+ * Example:
+ * <pre>{@code
+ * public TransformletTarget getTarget() {
+ *     return TransformletTarget.classNames("io.vertx.core.impl.future.FutureImpl")
+ *             .andPackagePrefixes("io.netty.util.concurrent");
+ * }
+ * }</pre>
+ * The {@link TtlTransformlet#doTransform(ClassInfo)} still checks the class,
+ * the target is only used to skip the classes early.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TtlTransformlet#getTarget()
+ */
+public final class TransformletTarget {
+    private static final TransformletTarget ANY_CLASS = new TransformletTarget(
+            true, Collections.emptySet(), Collections.emptySet(), Collections.emptySet());
+
+    private final boolean anyClass;
+    private final Set<String> classNames;
+    private final Set<String> packagePrefixes;
+    private final Set<String> superTypes;
+
+    private TransformletTarget(boolean anyClass, Set<String> classNames, Set<String> packagePrefixes, Set<String> superTypes) {
+        this.anyClass = anyClass;
+        this.classNames = Collections.unmodifiableSet(classNames);
+        this.packagePrefixes = Collections.unmodifiableSet(packagePrefixes);
+        this.superTypes = Collections.unmodifiableSet(superTypes);
+    }
+
+    /**
+     * all classes, the transformlet is invoked for every class.
+     * This is the default target of {@link TtlTransformlet}.
+     */
+    @NonNull
+    public static TransformletTarget anyClass() {
+        return ANY_CLASS;
+    }
+
+    /**
+     * @param classNames the class names, e.g. {@code java.util.concurrent.ThreadPoolExecutor}
+     */
+    @NonNull
+    public static TransformletTarget classNames(@NonNull String... classNames) {
+        return ofNone().andClassNames(classNames);
+    }
+
+    /**
+     * @param packagePrefixes the packages, e.g. {@code io.netty.util.concurrent}
+     */
+    @NonNull
+    public static TransformletTarget packagePrefixes(@NonNull String... packagePrefixes) {
+        return ofNone().andPackagePrefixes(packagePrefixes);
+    }
+
+    /**
+     * @param superTypes the direct super class or super interface names, e.g. {@code java.util.TimerTask}
+     */
+    @NonNull
+    public static TransformletTarget superTypes(@NonNull String... superTypes) {
+        return ofNone().andSuperTypes(superTypes);
+    }
+
+    /**
+     * add the class names to match.
+     *
+     * @return a new {@link TransformletTarget}
+     */
+    @NonNull
+    public TransformletTarget andClassNames(@NonNull String... classNames) {
+        if (anyClass) return this;
+        return new TransformletTarget(false, merge(this.classNames, classNames), packagePrefixes, superTypes);
+    }
+
+    /**
+     * add the packages to match.
+     *
+     * @return a new {@link TransformletTarget}
+     */
+    @NonNull
+    public TransformletTarget andPackagePrefixes(@NonNull String... packagePrefixes) {
+        if (anyClass) return this;
+        return new TransformletTarget(false, classNames, merge(this.packagePrefixes, packagePrefixes), superTypes);
+    }
+
+    /**
+     * add the direct super types to match.
+     *
+     * @return a new {@link TransformletTarget}
+     */
+    @NonNull
+    public TransformletTarget andSuperTypes(@NonNull String... superTypes) {
+        if (anyClass) return this;
+        return new TransformletTarget(false, classNames, packagePrefixes, merge(this.superTypes, superTypes));
+    }
+
+    public boolean isAnyClass() {
+        return anyClass;
+    }
+
+    @NonNull
+    public Set<String> getClassNames() {
+        return classNames;
+    }
+
+    @NonNull
+    public Set<String> getPackagePrefixes() {
+        return packagePrefixes;
+    }
+
+    @NonNull
+    public Set<String> getSuperTypes() {
+        return superTypes;
+    }
+
+    @Override
+    public String toString() {
+        if (anyClass) return "TransformletTarget{anyClass}";
+        return "TransformletTarget{classNames=" + classNames +
+                ", packagePrefixes=" + packagePrefixes +
+                ", superTypes=" + superTypes + "}";
+    }
+
+    private static TransformletTarget ofNone() {
+        return new TransformletTarget(false, Collections.emptySet(), Collections.emptySet(), Collections.emptySet());
+    }
+
+    private static Set<String> merge(Set<String> set, String[] added) {
+        final Set<String> merged = new LinkedHashSet<>(set);
+        merged.addAll(Arrays.asList(added));
+        return merged;
+    }
+}
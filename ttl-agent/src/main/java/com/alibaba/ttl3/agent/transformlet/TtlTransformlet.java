@@ -22,4 +22,17 @@ public interface TtlTransformlet {
      * @see java.lang.instrument.ClassFileTransformer#transform
      */
     void doTransform(@NonNull ClassInfo classInfo) throws CannotCompileException, NotFoundException, IOException;
+
+    /**
+     * The target classes of this transformlet, {@link #doTransform(ClassInfo)} is invoked only for the matched classes.
+     * <p>
+     * Invoked once when the transformlet is added to TTL agent.
+     * Default is {@link TransformletTarget#anyClass()}, aka. invoked for every class.
+     *
+     * @see TransformletTarget
+     */
+    @NonNull
+    default TransformletTarget getTarget() {
+        return TransformletTarget.anyClass();
+    }
 }
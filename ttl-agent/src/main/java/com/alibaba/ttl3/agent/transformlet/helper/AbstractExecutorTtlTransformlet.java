@@ -6,6 +6,7 @@ import com.alibaba.ttl3.agent.transformlet.TtlTransformlet;
 import com.alibaba.ttl3.agent.transformlet.internal.PriorityBlockingQueueTtlTransformlet;
 import com.alibaba.ttl3.spi.TtlAttachmentsDelegate;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import javassist.*;
 
@@ -67,8 +68,8 @@ public abstract class AbstractExecutorTtlTransformlet implements TtlTransformlet
         //      https://github.com/alibaba/transmittable-thread-local/issues/234
         if (isClassAtPackageJavaUtil(classInfo.getClassName())) return;
 
-        final CtClass clazz = classInfo.getCtClass();
         if (executorClassNames.contains(classInfo.getClassName())) {
+            final CtClass clazz = classInfo.getCtClass();
             for (CtMethod method : clazz.getDeclaredMethods()) {
                 updateSubmitMethodsOfExecutorClass_decorateToTtlWrapperAndSetAutoWrapperAttachment(method);
             }
@@ -77,6 +78,13 @@ public abstract class AbstractExecutorTtlTransformlet implements TtlTransformlet
 
             classInfo.setModified();
         } else {
+            // pre-filter by the class file, without Javassist parsing:
+            // only the subclass overriding beforeExecute/afterExecute is modified,
+            // the method names of the declared methods are always in the constant pool.
+            if (!classInfo.isNameInConstantPool("beforeExecute") && !classInfo.isNameInConstantPool("afterExecute")) return;
+            if (!classInfo.maybeSubclassOf(THREAD_POOL_EXECUTOR_CLASS_NAME)) return;
+
+            final CtClass clazz = classInfo.getCtClass();
             if (clazz.isPrimitive() || clazz.isArray() || clazz.isInterface() || clazz.isAnnotation()) {
                 return;
             }
@@ -103,21 +111,44 @@ public abstract class AbstractExecutorTtlTransformlet implements TtlTransformlet
         for (int i = 0; i < parameterTypes.length; i++) {
             final String paramTypeName = parameterTypes[i].getName();
             if (paramTypeNameToDecorateMethodClass.containsKey(paramTypeName)) {
-                String code = String.format(
-                        // auto decorate to TTL wrapper
-                        "$%d = helper.transformlet.com.alibaba.ttl3.agent.TtlTransformletHelper.doAutoWrap($%<d);",
-                        i + 1);
-                logger.info("insert code before method " + signatureOfMethod(method) + " of class " + method.getDeclaringClass().getName() + ":\n" + code);
+                String code = decorateTaskParameterCode(method, i + 1, paramTypeName);
+                if (code == null) continue;
                 insertCode.append(code);
             }
         }
         if (insertCode.length() > 0) {
-            logger.info("insert code before method " + signatureOfMethod(method) + " of class " +
-                    method.getDeclaringClass().getName() + ":\n" + insertCode);
+            if (logger.isInfoEnabled())
+                logger.info("insert code before method " + signatureOfMethod(method) + " of class " +
+                        method.getDeclaringClass().getName() + ":\n" + insertCode);
             method.insertBefore(insertCode.toString());
         }
     }
 
+    /**
+     * The code to decorate the {@link Runnable}/{@link Callable} task parameter of the submit method,
+     * default auto decorate to TTL wrapper.
+     *
+     * @param method        the public method of the executor class
+     * @param paramPosition the position of the parameter, starts from {@code 1}(aka. {@code $1})
+     * @param paramTypeName the type name of the parameter, {@code java.lang.Runnable} or {@code java.util.concurrent.Callable}
+     * @return the code to insert before the method, {@code null} to keep the task parameter as is
+     * @see TtlTransformletHelper#doAutoWrap(Runnable)
+     * @see TtlTransformletHelper#doAutoWrap(Callable)
+     */
+    @Nullable
+    protected String decorateTaskParameterCode(@NonNull CtMethod method, int paramPosition, @NonNull String paramTypeName) {
+        return decorateCode(paramPosition, "doAutoWrap");
+    }
+
+    /**
+     * The code to assign the parameter with the return value of the static helper method
+     * of {@link TtlTransformletHelper}, e.g. {@code $1 = TtlTransformletHelper.doAutoWrap($1);}.
+     */
+    @NonNull
+    protected static String decorateCode(int paramPosition, @NonNull String helperMethodName) {
+        return String.format("$%1$d = %2$s.%3$s($%1$d);", paramPosition, TtlTransformletHelper.class.getName(), helperMethodName);
+    }
+
     /**
      * @see com.alibaba.ttl3.executor.TtlExecutors#getDisableInheritableThreadFactory(java.util.concurrent.ThreadFactory)
      */
@@ -133,8 +164,9 @@ public abstract class AbstractExecutorTtlTransformlet implements TtlTransformlet
                 }
             }
             if (insertCode.length() > 0) {
-                logger.info("insert code before constructor " + signatureOfMethod(constructor) + " of class " +
-                        constructor.getDeclaringClass().getName() + ": " + insertCode);
+                if (logger.isInfoEnabled())
+                    logger.info("insert code before constructor " + signatureOfMethod(constructor) + " of class " +
+                            constructor.getDeclaringClass().getName() + ": " + insertCode);
                 constructor.insertBefore(insertCode.toString());
             }
         }
@@ -153,8 +185,9 @@ public abstract class AbstractExecutorTtlTransformlet implements TtlTransformlet
             final CtMethod beforeExecute = clazz.getDeclaredMethod("beforeExecute", new CtClass[]{threadClass, runnableClass});
             // unwrap runnable if IsAutoWrapper
             String code = "$2 = com.alibaba.ttl3.spi.TtlAttachmentsDelegate.unwrapIfIsAutoWrapper($2);";
-            logger.info("insert code before method " + signatureOfMethod(beforeExecute) + " of class " +
-                    beforeExecute.getDeclaringClass().getName() + ": " + code);
+            if (logger.isInfoEnabled())
+                logger.info("insert code before method " + signatureOfMethod(beforeExecute) + " of class " +
+                        beforeExecute.getDeclaringClass().getName() + ": " + code);
             beforeExecute.insertBefore(code);
             modified = true;
         } catch (NotFoundException e) {
@@ -165,8 +198,9 @@ public abstract class AbstractExecutorTtlTransformlet implements TtlTransformlet
             final CtMethod afterExecute = clazz.getDeclaredMethod("afterExecute", new CtClass[]{runnableClass, throwableClass});
             // unwrap runnable if IsAutoWrapper
             String code = "$1 = com.alibaba.ttl3.spi.TtlAttachmentsDelegate.unwrapIfIsAutoWrapper($1);";
-            logger.info("insert code before method " + signatureOfMethod(afterExecute) + " of class " +
-                    afterExecute.getDeclaringClass().getName() + ": " + code);
+            if (logger.isInfoEnabled())
+                logger.info("insert code before method " + signatureOfMethod(afterExecute) + " of class " +
+                        afterExecute.getDeclaringClass().getName() + ": " + code);
             afterExecute.insertBefore(code);
             modified = true;
         } catch (NotFoundException e) {
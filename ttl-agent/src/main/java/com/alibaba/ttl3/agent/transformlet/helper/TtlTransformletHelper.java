@@ -4,6 +4,7 @@ import com.alibaba.ttl3.TtlCallable;
 import com.alibaba.ttl3.TtlRunnable;
 import com.alibaba.ttl3.agent.logging.Logger;
 import com.alibaba.ttl3.agent.transformlet.TtlTransformlet;
+import com.alibaba.ttl3.agent.transformlet.internal.FutureTaskTtlTransformlet;
 import com.alibaba.ttl3.spi.TtlEnhanced;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -15,6 +16,7 @@ import java.net.URL;
 import java.security.CodeSource;
 import java.security.ProtectionDomain;
 import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
 
 import static com.alibaba.ttl3.spi.TtlAttachmentsDelegate.setAutoWrapperAttachment;
 import static com.alibaba.ttl3.transmitter.Transmitter.capture;
@@ -184,6 +186,76 @@ public final class TtlTransformletHelper {
         return ret;
     }
 
+    /**
+     * auto decorate to TTL wrapper, except the {@link FutureTask} carrying the capture
+     * by the field injection for thread pool.
+     * <p>
+     * Only the task of the exact class {@link FutureTask} is not decorated,
+     * e.g. created by {@code newTaskFor} of {@link java.util.concurrent.AbstractExecutorService} in the submit methods.
+     * The subclass of {@link FutureTask} may override {@code run} without invoking {@code super.run()},
+     * so is still decorated to TTL wrapper.
+     * <p>
+     * <b><i>NOTE:</i></b> the {@link FutureTask} carries the capture of its construction,
+     * so a {@link FutureTask} created by user code and passed to {@code execute} later
+     * transmits the values at its construction, instead of the values at {@code execute}.
+     *
+     * @see com.alibaba.ttl3.agent.transformlet.internal.FutureTaskTtlTransformlet
+     */
+    @Nullable
+    public static Runnable doAutoWrapIfNotCapturedFutureTask(@Nullable final Runnable runnable) {
+        if (runnable != null && runnable.getClass() == FutureTask.class && isFutureTaskFieldInjected()) return runnable;
+        return doAutoWrap(runnable);
+    }
+
+    /**
+     * auto decorate to TTL wrapper, except the {@link FutureTask} is field injected;
+     * for the executor which wraps all tasks to {@link FutureTask}, e.g. {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+     *
+     * @see com.alibaba.ttl3.agent.transformlet.internal.FutureTaskTtlTransformlet
+     */
+    @Nullable
+    public static Runnable doAutoWrapIfFutureTaskNotFieldInjected(@Nullable final Runnable runnable) {
+        if (isFutureTaskFieldInjected()) return runnable;
+        return doAutoWrap(runnable);
+    }
+
+    /**
+     * auto decorate to TTL wrapper, except the {@link FutureTask} is field injected;
+     * for the executor which wraps all tasks to {@link FutureTask}, e.g. {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+     *
+     * @see com.alibaba.ttl3.agent.transformlet.internal.FutureTaskTtlTransformlet
+     */
+    @Nullable
+    public static <T> Callable<T> doAutoWrapIfFutureTaskNotFieldInjected(@Nullable final Callable<T> callable) {
+        if (isFutureTaskFieldInjected()) return callable;
+        return doAutoWrap(callable);
+    }
+
+    /**
+     * Whether {@link FutureTask} carries the capture by the field injection for thread pool.
+     * <p>
+     * {@code false} if the {@link FutureTask} class is loaded before the TTL agent, the loaded class is not transformed.
+     *
+     * @see com.alibaba.ttl3.agent.transformlet.internal.FutureTaskTtlTransformlet
+     */
+    public static boolean isFutureTaskFieldInjected() {
+        return FutureTaskFieldInjection.INJECTED;
+    }
+
+    private static final class FutureTaskFieldInjection {
+        static final boolean INJECTED = hasCapturedField();
+
+        private static boolean hasCapturedField() {
+            try {
+                FutureTask.class.getDeclaredField(FutureTaskTtlTransformlet.CAPTURED_FIELD_NAME);
+                return true;
+            } catch (NoSuchFieldException e) {
+                logger.warn("FutureTask is not field injected(loaded before TTL agent?), fallback to the TTL wrapper");
+                return false;
+            }
+        }
+    }
+
     // ======== class/package info Helper ========
 
     @NonNull
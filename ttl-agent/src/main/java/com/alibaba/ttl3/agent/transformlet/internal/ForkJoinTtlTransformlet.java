@@ -3,6 +3,7 @@ package com.alibaba.ttl3.agent.transformlet.internal;
 import com.alibaba.ttl3.agent.TtlAgent;
 import com.alibaba.ttl3.agent.logging.Logger;
 import com.alibaba.ttl3.agent.transformlet.ClassInfo;
+import com.alibaba.ttl3.agent.transformlet.TransformletTarget;
 import com.alibaba.ttl3.agent.transformlet.TtlTransformlet;
 import com.alibaba.ttl3.agent.transformlet.helper.TtlTransformletHelper;
 import com.alibaba.ttl3.spi.TtlEnhanced;
@@ -34,6 +35,12 @@ public final class ForkJoinTtlTransformlet implements TtlTransformlet {
         this.disableInheritableForThreadPool = TtlAgent.isDisableInheritableForThreadPool();
     }
 
+    @NonNull
+    @Override
+    public TransformletTarget getTarget() {
+        return TransformletTarget.classNames(FORK_JOIN_TASK_CLASS_NAME, FORK_JOIN_POOL_CLASS_NAME);
+    }
+
     @Override
     public void doTransform(@NonNull final ClassInfo classInfo) throws IOException, NotFoundException, CannotCompileException {
         if (FORK_JOIN_TASK_CLASS_NAME.equals(classInfo.getClassName())) {
@@ -65,7 +72,7 @@ public final class ForkJoinTtlTransformlet implements TtlTransformlet {
                 "}\n" +
                 "Object backup = com.alibaba.ttl3.transmitter.Transmitter.replay(" + capturedFieldName + ");";
 
-        final String finallyCode = "com.alibaba.ttl3.transmitter.Transmitter.restore(backup);";
+        final String finallyCode = "com.alibaba.ttl3.transmitter.Transmitter.restoreAndRelease(backup);";
 
         final String code = addTryFinallyToMethod(doExecMethod, doExec_renamed_method_name, beforeCode, finallyCode);
         logger.info("insert code around method " + signatureOfMethod(doExecMethod) + " of class " + clazz.getName() + ": " + code);
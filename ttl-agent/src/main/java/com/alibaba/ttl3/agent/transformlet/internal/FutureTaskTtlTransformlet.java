@@ -0,0 +1,95 @@
+package com.alibaba.ttl3.agent.transformlet.internal;
+
+import com.alibaba.ttl3.agent.TtlAgent;
+import com.alibaba.ttl3.agent.logging.Logger;
+import com.alibaba.ttl3.agent.transformlet.ClassInfo;
+import com.alibaba.ttl3.agent.transformlet.TransformletTarget;
+import com.alibaba.ttl3.agent.transformlet.TtlTransformlet;
+import com.alibaba.ttl3.agent.transformlet.helper.TtlTransformletHelper;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import javassist.*;
+
+import java.io.IOException;
+
+import static com.alibaba.ttl3.agent.transformlet.helper.TtlTransformletHelper.*;
+
+/**
+ * {@link TtlTransformlet} for {@link java.util.concurrent.FutureTask}, the field injection for thread pool.
+ * <p>
+ * Add the captured field to {@link java.util.concurrent.FutureTask}, and replay around the task invocation
+ * ({@code run}/{@code runAndReset}), same as {@link ForkJoinTtlTransformlet} for {@link java.util.concurrent.ForkJoinTask}.
+ * The tasks of {@code submit}/{@code invokeAll}/{@code invokeAny} of {@link java.util.concurrent.ThreadPoolExecutor}
+ * and all the tasks of {@link java.util.concurrent.ScheduledThreadPoolExecutor}
+ * are {@link java.util.concurrent.FutureTask}s, so are transmitted without the TTL wrapper.
+ * <p>
+ * The capture is taken at the construction of {@link java.util.concurrent.FutureTask}, not at the task submission;
+ * for the task submitted by the executor methods, the construction is in the same submission call.
+ * <p>
+ * Enabled by {@link TtlAgent#isEnableFieldInjectionForThreadPool()}.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see java.util.concurrent.FutureTask
+ * @see java.util.concurrent.ThreadPoolExecutor
+ * @see java.util.concurrent.ScheduledThreadPoolExecutor
+ * @see JdkExecutorTtlTransformlet
+ */
+public final class FutureTaskTtlTransformlet implements TtlTransformlet {
+    private static final Logger logger = Logger.getLogger(FutureTaskTtlTransformlet.class);
+
+    private static final String FUTURE_TASK_CLASS_NAME = "java.util.concurrent.FutureTask";
+
+    /**
+     * the name of the captured field added to {@link java.util.concurrent.FutureTask}.
+     *
+     * @see TtlTransformletHelper#isFutureTaskFieldInjected()
+     */
+    public static final String CAPTURED_FIELD_NAME = "captured$field$added$by$ttl";
+
+    @NonNull
+    @Override
+    public TransformletTarget getTarget() {
+        return TransformletTarget.classNames(FUTURE_TASK_CLASS_NAME);
+    }
+
+    @Override
+    public void doTransform(@NonNull final ClassInfo classInfo) throws IOException, NotFoundException, CannotCompileException {
+        if (!FUTURE_TASK_CLASS_NAME.equals(classInfo.getClassName())) return;
+
+        updateFutureTaskClass(classInfo.getCtClass());
+        classInfo.setModified();
+    }
+
+    /**
+     * @see TtlTransformletHelper#doCaptureIfNotTtlEnhanced(Object)
+     */
+    private void updateFutureTaskClass(@NonNull final CtClass clazz) throws CannotCompileException, NotFoundException {
+        final String className = clazz.getName();
+
+        // add new field
+        final CtField capturedField = CtField.make("private final Object " + CAPTURED_FIELD_NAME + ";", clazz);
+        clazz.addField(capturedField, "com.alibaba.ttl3.agent.transformlet.helper.TtlTransformletHelper.doCaptureIfNotTtlEnhanced(this);");
+        logger.info("add new field " + CAPTURED_FIELD_NAME + " to class " + className);
+
+        // run() for the one-shot task, runAndReset() for the periodic task of ScheduledThreadPoolExecutor
+        updateRunMethod(clazz, "run");
+        updateRunMethod(clazz, "runAndReset");
+    }
+
+    private void updateRunMethod(@NonNull final CtClass clazz, @NonNull final String methodName) throws CannotCompileException, NotFoundException {
+        final CtMethod runMethod = clazz.getDeclaredMethod(methodName, new CtClass[0]);
+        final String run_renamed_method_name = renamedMethodNameByTtl(runMethod);
+
+        final boolean isVoid = runMethod.getReturnType() == CtClass.voidType;
+        // if the class is already TTL enhanced, the captured field is null
+        final String beforeCode = "if (" + CAPTURED_FIELD_NAME + " == null) {\n" +
+                (isVoid ? "    " + run_renamed_method_name + "($$);\n    return;\n"
+                        : "    return " + run_renamed_method_name + "($$);\n") +          // return directly/do nothing
+                "}\n" +
+                "Object backup = com.alibaba.ttl3.transmitter.Transmitter.replay((com.alibaba.crr.composite.Capture) " + CAPTURED_FIELD_NAME + ");";
+
+        final String finallyCode = "com.alibaba.ttl3.transmitter.Transmitter.restoreAndRelease((com.alibaba.crr.composite.Backup) backup);";
+
+        final String code = addTryFinallyToMethod(runMethod, run_renamed_method_name, beforeCode, finallyCode);
+        logger.info("insert code around method " + signatureOfMethod(runMethod) + " of class " + clazz.getName() + ": " + code);
+    }
+}
@@ -3,6 +3,10 @@ package com.alibaba.ttl3.agent.transformlet.internal;
 import com.alibaba.ttl3.agent.TtlAgent;
 import com.alibaba.ttl3.agent.transformlet.TtlTransformlet;
 import com.alibaba.ttl3.agent.transformlet.helper.AbstractExecutorTtlTransformlet;
+import com.alibaba.ttl3.agent.transformlet.helper.TtlTransformletHelper;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import javassist.CtMethod;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -10,24 +14,54 @@ import java.util.Set;
 /**
  * {@link TtlTransformlet} for {@link java.util.concurrent.ThreadPoolExecutor}
  * and {@link java.util.concurrent.ScheduledThreadPoolExecutor}.
+ * <p>
+ * If the field injection for thread pool is enabled, the {@link java.util.concurrent.FutureTask}s carry the capture
+ * (see {@link FutureTaskTtlTransformlet}), only the other {@link Runnable}s executed by
+ * {@link java.util.concurrent.ThreadPoolExecutor#execute(Runnable)} are decorated to TTL wrapper.
  *
  * @author Jerry Lee (oldratlee at gmail dot com)
  * @author wuwen5 (wuwen.55 at aliyun dot com)
  * @see java.util.concurrent.ThreadPoolExecutor
  * @see java.util.concurrent.ScheduledThreadPoolExecutor
+ * @see FutureTaskTtlTransformlet
  */
 public final class JdkExecutorTtlTransformlet extends AbstractExecutorTtlTransformlet implements TtlTransformlet {
+    private static final String SCHEDULED_THREAD_POOL_EXECUTOR_CLASS_NAME = "java.util.concurrent.ScheduledThreadPoolExecutor";
 
     private static Set<String> getExecutorClassNames() {
         Set<String> executorClassNames = new HashSet<>();
 
         executorClassNames.add(THREAD_POOL_EXECUTOR_CLASS_NAME);
-        executorClassNames.add("java.util.concurrent.ScheduledThreadPoolExecutor");
+        executorClassNames.add(SCHEDULED_THREAD_POOL_EXECUTOR_CLASS_NAME);
 
         return executorClassNames;
     }
 
+    private final boolean enableFieldInjectionForThreadPool;
+
     public JdkExecutorTtlTransformlet() {
         super(getExecutorClassNames(), TtlAgent.isDisableInheritableForThreadPool());
+        this.enableFieldInjectionForThreadPool = TtlAgent.isEnableFieldInjectionForThreadPool();
+    }
+
+    /**
+     * @see TtlTransformletHelper#doAutoWrapIfNotCapturedFutureTask(Runnable)
+     * @see TtlTransformletHelper#doAutoWrapIfFutureTaskNotFieldInjected(Runnable)
+     * @see TtlTransformletHelper#doAutoWrapIfFutureTaskNotFieldInjected(java.util.concurrent.Callable)
+     */
+    @Nullable
+    @Override
+    protected String decorateTaskParameterCode(@NonNull CtMethod method, int paramPosition, @NonNull String paramTypeName) {
+        if (!enableFieldInjectionForThreadPool) return super.decorateTaskParameterCode(method, paramPosition, paramTypeName);
+
+        // all tasks of ScheduledThreadPoolExecutor are ScheduledFutureTask
+        if (SCHEDULED_THREAD_POOL_EXECUTOR_CLASS_NAME.equals(method.getDeclaringClass().getName())) {
+            return decorateCode(paramPosition, "doAutoWrapIfFutureTaskNotFieldInjected");
+        }
+        // the task of ThreadPoolExecutor may be FutureTask(e.g. the submit methods of AbstractExecutorService) or plain Runnable
+        if (RUNNABLE_CLASS_NAME.equals(paramTypeName)) {
+            return decorateCode(paramPosition, "doAutoWrapIfNotCapturedFutureTask");
+        }
+        return super.decorateTaskParameterCode(method, paramPosition, paramTypeName);
     }
 }
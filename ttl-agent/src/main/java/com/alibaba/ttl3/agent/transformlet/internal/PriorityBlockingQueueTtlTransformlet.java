@@ -2,6 +2,7 @@ package com.alibaba.ttl3.agent.transformlet.internal;
 
 import com.alibaba.ttl3.agent.logging.Logger;
 import com.alibaba.ttl3.agent.transformlet.ClassInfo;
+import com.alibaba.ttl3.agent.transformlet.TransformletTarget;
 import com.alibaba.ttl3.agent.transformlet.TtlTransformlet;
 import com.alibaba.ttl3.executor.TtlExecutors;
 import edu.umd.cs.findbugs.annotations.NonNull;
@@ -44,6 +45,12 @@ public class PriorityBlockingQueueTtlTransformlet implements TtlTransformlet {
     private static final String PRIORITY_QUEUE_CLASS_NAME = "java.util.PriorityQueue";
     private static final String COMPARATOR_FIELD_NAME = "comparator";
 
+    @NonNull
+    @Override
+    public TransformletTarget getTarget() {
+        return TransformletTarget.classNames(PRIORITY_BLOCKING_QUEUE_CLASS_NAME, PRIORITY_QUEUE_CLASS_NAME);
+    }
+
     @Override
     public void doTransform(@NonNull ClassInfo classInfo) throws IOException, CannotCompileException, NotFoundException {
         final String className = classInfo.getClassName();
@@ -34,6 +34,11 @@ public final class TimerTaskTtlTransformlet implements TtlTransformlet {
         //
         // if (TIMER_TASK_CLASS_NAME.equals(classInfo.getClassName())) return; // No need transform TimerTask class
 
+        // pre-filter by the class file, without Javassist parsing:
+        // the class declaring method `void run()` contains the name and the descriptor in the constant pool.
+        if (!classInfo.isNameInConstantPool(RUN_METHOD_NAME) || !classInfo.isNameInConstantPool("()V")) return;
+        if (!classInfo.maybeSubclassOf(TIMER_TASK_CLASS_NAME)) return;
+
         final CtClass clazz = classInfo.getCtClass();
 
         if (clazz.isPrimitive() || clazz.isArray() || clazz.isInterface() || clazz.isAnnotation()) {
@@ -69,7 +74,7 @@ public final class TimerTaskTtlTransformlet implements TtlTransformlet {
         final CtMethod runMethod = clazz.getDeclaredMethod(RUN_METHOD_NAME, new CtClass[0]);
 
         final String beforeCode = "Object backup = com.alibaba.ttl3.transmitter.Transmitter.replay(" + capturedFieldName + ");";
-        final String finallyCode = "com.alibaba.ttl3.transmitter.Transmitter.restore(backup);";
+        final String finallyCode = "com.alibaba.ttl3.transmitter.Transmitter.restoreAndRelease(backup);";
 
         final String code = addTryFinallyToMethod(runMethod, beforeCode, finallyCode);
         logger.info("insert code around method " + signatureOfMethod(runMethod) + " of class " + clazz.getName() + ": " + code);
@@ -61,4 +61,18 @@ public interface CrrTransmit<C, B> {
      * @see #clear()
      */
     void restore(@NonNull B backup);
+
+    /**
+     * Release the backup after restore.
+     * <p>
+     * The released backup is never used again by the caller,
+     * so the implementation may recycle the backup object for the later replay/clear of the same thread.
+     * <p>
+     * The default implementation does nothing.
+     *
+     * @param backup the restored backup data of transmittance, the return value of methods {@link #replay(Object)} or {@link #clear()}
+     * @see #restore(Object)
+     */
+    default void release(@NonNull B backup) {
+    }
 }
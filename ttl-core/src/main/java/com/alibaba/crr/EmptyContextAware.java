@@ -0,0 +1,25 @@
+package com.alibaba.crr;
+
+/**
+ * The {@link CrrTransmit} that can tell whether the context of the current thread is empty.
+ * <p>
+ * The capture/replay/restore of the empty context can be skipped only if
+ * <b>all</b> the {@link CrrTransmit}s are {@link EmptyContextAware} and report the empty context;
+ * a {@link CrrTransmit} that is not {@link EmptyContextAware} is always regarded as non-empty,
+ * and is never asked, so the call sequence of its {@code CRR} operations is unchanged.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see CrrTransmit
+ */
+public interface EmptyContextAware {
+    /**
+     * Whether the context of the current thread is empty,
+     * aka. there is nothing to capture, and nothing to clear.
+     * <p>
+     * <B><I>NOTE:</I></B><br>
+     * do NOT throw any exceptions, just ignored.
+     *
+     * @return {@code true} if the context of the current thread is empty
+     */
+    boolean isEmptyContext();
+}
@@ -1,16 +1,15 @@
 package com.alibaba.crr.composite;
 
 import com.alibaba.crr.CrrTransmit;
+import com.alibaba.crr.EmptyContextAware;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.Arrays;
+import java.util.function.Predicate;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import static com.alibaba.ttl3.internal.util.Utils.newHashMap;
 import static com.alibaba.ttl3.internal.util.Utils.propagateIfFatal;
 
 /**
@@ -23,16 +22,44 @@ import static com.alibaba.ttl3.internal.util.Utils.propagateIfFatal;
  * <B><I>CAUTION:</I></B><br>
  * This implementation just ignore all exception thrown by
  * {@code CRR} operations of registered {@link CrrTransmit}.
+ * <p>
+ * The registered {@link CrrTransmit}s are kept in an immutable array(copy-on-write on registration),
+ * and the capture/backup is a flat array aligned to the registered array at the capture/replay time.
+ * <p>
+ * The first two registered {@link CrrTransmit}s(the builtin transmittees in general, e.g. of {@code TransmittableThreadLocal})
+ * have the dedicated call sites of their {@code CRR} operations, guarded by the identity;
+ * so these call sites see only one {@link CrrTransmit} class and keep monomorphic,
+ * even when users register their own {@link CrrTransmit}s, or the capture is of a selection.
+ * The other {@link CrrTransmit}s share the generic call sites.
  *
  * @author Jerry Lee (oldratlee at gmail dot com)
  */
 public final class CompositeCrrTransmit implements CrrTransmit<Capture, Backup> {
     private static final Logger logger = Logger.getLogger(CompositeCrrTransmit.class.getName());
 
-    private final Set<CrrTransmit<Object, Object>> registeredCrrTransmitSet = new CopyOnWriteArraySet<>();
+    private static final CrrTransmit<Object, Object>[] EMPTY_CRR_TRANSMITS = newCrrTransmits(0);
+
+    // the shared capture/backup of the empty context, aka. all CrrTransmits are empty context
+    private static final Snapshot EMPTY = new Snapshot(EMPTY_CRR_TRANSMITS, new Object[0], null);
+
+    // the mark of the failed capture/replay/clear of a CrrTransmit, skip the CrrTransmit in later operations
+    private static final Object FAILED_MARK = new Object();
+
+    // the registered CrrTransmits, copy-on-write under the lock; the array is never modified after published
+    private volatile CrrTransmit<Object, Object>[] registeredCrrTransmits = EMPTY_CRR_TRANSMITS;
+
+    // the first two registered CrrTransmits, which have the dedicated call sites;
+    // updated before publishing the registered array; a stale read is still correct, the call sites are guarded by the identity
+    private CrrTransmit<Object, Object> dedicated0;
+    private CrrTransmit<Object, Object> dedicated1;
+
+    private final Object registeredCrrTransmitsUpdateLock = new Object();
 
     private final CompositeCrrTransmitCallback callback;
 
+    // the released backup of the current thread, recycled by the later replay/clear of the thread
+    private final ThreadLocal<RecycledBackup> recycledBackup = ThreadLocal.withInitial(RecycledBackup::new);
+
     public CompositeCrrTransmit(CompositeCrrTransmitCallback callback) {
         this.callback = callback;
     }
@@ -44,19 +71,137 @@ public final class CompositeCrrTransmit implements CrrTransmit<Capture, Backup>
      */
     @NonNull
     public Capture capture() {
-        final HashMap<CrrTransmit<Object, Object>, Object> crrTransmit2Value = newHashMap(registeredCrrTransmitSet.size());
-        for (CrrTransmit<Object, Object> crrTransmit : registeredCrrTransmitSet) {
-            try {
-                crrTransmit2Value.put(crrTransmit, crrTransmit.capture());
-            } catch (Throwable t) {
-                propagateIfFatal(t);
-                if (logger.isLoggable(Level.WARNING)) {
-                    logger.log(Level.WARNING, "exception when capture for crrTransmit " + crrTransmit +
-                            "(class " + crrTransmit.getClass().getName() + "), just ignored; cause: " + t, t);
-                }
+        final CrrTransmit<Object, Object>[] crrTransmits = registeredCrrTransmits;
+        if (isEmptyContext(crrTransmits)) return EMPTY;
+
+        return capture(crrTransmits);
+    }
+
+    @NonNull
+    private Capture capture(CrrTransmit<Object, Object>[] crrTransmits) {
+        final CrrTransmit<Object, Object> dedicated0 = this.dedicated0;
+        final CrrTransmit<Object, Object> dedicated1 = this.dedicated1;
+        final int length = crrTransmits.length;
+        final Object[] values = new Object[length];
+
+        for (int i = 0; i < length; i++) {
+            final CrrTransmit<Object, Object> crrTransmit = crrTransmits[i];
+            if (crrTransmit == dedicated0) values[i] = capture0(crrTransmit);
+            else if (crrTransmit == dedicated1) values[i] = capture1(crrTransmit);
+            else values[i] = capture(crrTransmit);
+        }
+        return new Snapshot(crrTransmits, values, null);
+    }
+
+    /**
+     * Create the capture of the given {@link CrrTransmit} only, from its captured value.
+     * <p>
+     * The replay/restore of the created capture only involves the given {@link CrrTransmit},
+     * the values of other {@link CrrTransmit}s in the replaying thread are untouched.
+     *
+     * @param crrTransmit the registered {@link CrrTransmit}
+     * @param captured    the captured value of the {@link CrrTransmit}
+     * @return the capture of the given {@link CrrTransmit} only
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public <C> Capture captureOnly(@NonNull CrrTransmit<C, ?> crrTransmit, @NonNull C captured) {
+        final CrrTransmit<Object, Object>[] crrTransmits = newCrrTransmits(1);
+        crrTransmits[0] = (CrrTransmit<Object, Object>) crrTransmit;
+        return new Snapshot(crrTransmits, new Object[]{captured}, null);
+    }
+
+    /**
+     * Get the captured value of the given {@link CrrTransmit} in the capture.
+     *
+     * @param captured    the capture from {@link #capture()}/{@link #captureOnly(CrrTransmit, Object)}/{@link Selection#capture()}
+     * @param crrTransmit the registered {@link CrrTransmit}
+     * @return the captured value, {@code null} if the {@link CrrTransmit} is not captured or its capture failed
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <C> C capturedOf(@NonNull Capture captured, @NonNull CrrTransmit<C, ?> crrTransmit) {
+        final Snapshot snapshot = (Snapshot) captured;
+        final CrrTransmit<Object, Object>[] crrTransmits = snapshot.crrTransmits;
+        for (int i = 0; i < crrTransmits.length; i++) {
+            if (crrTransmits[i] != crrTransmit) continue;
+
+            final Object value = snapshot.values[i];
+            return value == FAILED_MARK ? null : (C) value;
+        }
+        return null;
+    }
+
+    /**
+     * Create the selection of the registered {@link CrrTransmit}s accepted by the filter.
+     * <p>
+     * The accepted {@link CrrTransmit}s are computed once, and recomputed only when
+     * the registered {@link CrrTransmit}s are changed(register/unregister).
+     *
+     * @param filter the filter of the registered {@link CrrTransmit}s
+     * @return the selection
+     * @see Selection#capture()
+     */
+    @NonNull
+    public Selection select(@NonNull Predicate<? super CrrTransmit<?, ?>> filter) {
+        if (filter == null) throw new NullPointerException("filter is null");
+        return new Selection(filter);
+    }
+
+    /**
+     * The selection of the registered {@link CrrTransmit}s, created by {@link #select(Predicate)}.
+     * <p>
+     * The replay/restore of the capture of a selection only involves the selected {@link CrrTransmit}s,
+     * the values of other {@link CrrTransmit}s in the replaying thread are untouched.
+     */
+    public final class Selection {
+        private final Predicate<? super CrrTransmit<?, ?>> filter;
+        // recomputed after the registered CrrTransmits are changed
+        private volatile Selected selected = new Selected(null, EMPTY_CRR_TRANSMITS);
+
+        private Selection(Predicate<? super CrrTransmit<?, ?>> filter) {
+            this.filter = filter;
+        }
+
+        /**
+         * Capture the selected {@link CrrTransmit}s.
+         *
+         * @return the captured values
+         */
+        @NonNull
+        public Capture capture() {
+            final CrrTransmit<Object, Object>[] registered = registeredCrrTransmits;
+            Selected current = selected;
+            if (current.registered != registered) {
+                current = new Selected(registered, select(registered));
+                selected = current;
+            }
+
+            // all are selected, the same as the capture of all, including the empty context fast path
+            if (current.crrTransmits == registered) return CompositeCrrTransmit.this.capture();
+            return CompositeCrrTransmit.this.capture(current.crrTransmits);
+        }
+
+        private CrrTransmit<Object, Object>[] select(CrrTransmit<Object, Object>[] registered) {
+            final CrrTransmit<Object, Object>[] crrTransmits = newCrrTransmits(registered.length);
+            int length = 0;
+            for (CrrTransmit<Object, Object> crrTransmit : registered) {
+                if (filter.test(crrTransmit)) crrTransmits[length++] = crrTransmit;
             }
+            return length == registered.length ? registered : Arrays.copyOf(crrTransmits, length);
+        }
+    }
+
+    private static final class Selected {
+        // the registered CrrTransmits at the selection time
+        final CrrTransmit<Object, Object>[] registered;
+        // the selected CrrTransmits, the same array as registered if all are selected
+        final CrrTransmit<Object, Object>[] crrTransmits;
+
+        Selected(CrrTransmit<Object, Object>[] registered, CrrTransmit<Object, Object>[] crrTransmits) {
+            this.registered = registered;
+            this.crrTransmits = crrTransmits;
         }
-        return new Snapshot(crrTransmit2Value, null);
     }
 
     /**
@@ -69,26 +214,29 @@ public final class CompositeCrrTransmit implements CrrTransmit<Capture, Backup>
      */
     @NonNull
     public Backup replay(@NonNull Capture captured) {
+        if (captured == EMPTY) return clear();
+
         final Object data = callback.beforeReplay();
 
         final Snapshot capturedSnapshot = (Snapshot) captured;
-        final HashMap<CrrTransmit<Object, Object>, Object> crrTransmit2Value = newHashMap(capturedSnapshot.crrTransmit2Value.size());
-        for (Map.Entry<CrrTransmit<Object, Object>, Object> entry : capturedSnapshot.crrTransmit2Value.entrySet()) {
-            CrrTransmit<Object, Object> crrTransmit = entry.getKey();
-            try {
-                Object transmitCaptured = entry.getValue();
-                crrTransmit2Value.put(crrTransmit, crrTransmit.replay(transmitCaptured));
-            } catch (Throwable t) {
-                propagateIfFatal(t);
-                if (logger.isLoggable(Level.WARNING)) {
-                    logger.log(Level.WARNING, "exception when replay for crrTransmit " + crrTransmit +
-                            "(class " + crrTransmit.getClass().getName() + "), just ignored; cause: " + t, t);
-                }
-            }
+        // replay the CrrTransmits at the capture time, aligned to the captured values
+        final CrrTransmit<Object, Object>[] crrTransmits = capturedSnapshot.crrTransmits;
+        final Object[] capturedValues = capturedSnapshot.values;
+        final int length = crrTransmits.length;
+        final Snapshot backup = newBackup(crrTransmits);
+        final Object[] values = backup.values;
+        final CrrTransmit<Object, Object> dedicated0 = this.dedicated0;
+        final CrrTransmit<Object, Object> dedicated1 = this.dedicated1;
+
+        for (int i = 0; i < length; i++) {
+            final CrrTransmit<Object, Object> crrTransmit = crrTransmits[i];
+            if (crrTransmit == dedicated0) values[i] = replay0(crrTransmit, capturedValues[i]);
+            else if (crrTransmit == dedicated1) values[i] = replay1(crrTransmit, capturedValues[i]);
+            else values[i] = replay(crrTransmit, capturedValues[i]);
         }
 
-        final Object afterData = callback.afterReplay(data);
-        return new Snapshot(crrTransmit2Value, afterData);
+        backup.data = callback.afterReplay(data);
+        return backup;
     }
 
     /**
@@ -108,23 +256,22 @@ public final class CompositeCrrTransmit implements CrrTransmit<Capture, Backup>
      */
     @NonNull
     public Backup clear() {
+        final CrrTransmit<Object, Object>[] crrTransmits = registeredCrrTransmits;
+        // both the context of current thread and the context to restore are empty, nothing to do
+        if (callback.isEmpty() && isEmptyContext(crrTransmits)) return EMPTY;
+
         final Object data = callback.beforeReplay();
 
-        final HashMap<CrrTransmit<Object, Object>, Object> crrTransmit2Value = newHashMap(registeredCrrTransmitSet.size());
-        for (CrrTransmit<Object, Object> crrTransmit : registeredCrrTransmitSet) {
-            try {
-                crrTransmit2Value.put(crrTransmit, crrTransmit.clear());
-            } catch (Throwable t) {
-                propagateIfFatal(t);
-                if (logger.isLoggable(Level.WARNING)) {
-                    logger.log(Level.WARNING, "exception when clear for crrTransmit " + crrTransmit +
-                            "(class " + crrTransmit.getClass().getName() + "), just ignored; cause: " + t, t);
-                }
-            }
+        final int length = crrTransmits.length;
+        final Snapshot backup = newBackup(crrTransmits);
+        final Object[] values = backup.values;
+
+        for (int i = 0; i < length; i++) {
+            values[i] = clear(crrTransmits[i]);
         }
 
-        final Object afterData = callback.afterReplay(data);
-        return new Snapshot(crrTransmit2Value, afterData);
+        backup.data = callback.afterReplay(data);
+        return backup;
     }
 
     /**
@@ -135,36 +282,255 @@ public final class CompositeCrrTransmit implements CrrTransmit<Capture, Backup>
      * @see #clear()
      */
     public void restore(@NonNull Backup backup) {
+        if (backup == EMPTY) {
+            restoreEmpty();
+            return;
+        }
+
         final Snapshot snapshot = (Snapshot) backup;
         final Object data = callback.beforeRestore(snapshot.data);
 
-        for (Map.Entry<CrrTransmit<Object, Object>, Object> entry : snapshot.crrTransmit2Value.entrySet()) {
-            CrrTransmit<Object, Object> crrTransmit = entry.getKey();
-            try {
-                Object transmitBackup = entry.getValue();
-                crrTransmit.restore(transmitBackup);
-            } catch (Throwable t) {
-                propagateIfFatal(t);
-                if (logger.isLoggable(Level.WARNING)) {
-                    logger.log(Level.WARNING, "exception when restore for crrTransmit " + crrTransmit +
-                            "(class " + crrTransmit.getClass().getName() + "), just ignored; cause: " + t, t);
-                }
-            }
+        final CrrTransmit<Object, Object>[] crrTransmits = snapshot.crrTransmits;
+        final Object[] backupValues = snapshot.values;
+        final int length = crrTransmits.length;
+        final CrrTransmit<Object, Object> dedicated0 = this.dedicated0;
+        final CrrTransmit<Object, Object> dedicated1 = this.dedicated1;
+
+        for (int i = 0; i < length; i++) {
+            final CrrTransmit<Object, Object> crrTransmit = crrTransmits[i];
+            if (crrTransmit == dedicated0) restore0(crrTransmit, backupValues[i]);
+            else if (crrTransmit == dedicated1) restore1(crrTransmit, backupValues[i]);
+            else restore(crrTransmit, backupValues[i]);
         }
 
         callback.afterRestore(data);
     }
 
+    /**
+     * Restore the backup values from {@link #replay(Capture)}/{@link #clear()}, then release the backup.
+     * <p>
+     * The released backup is recycled by the later replay/clear of the current thread,
+     * so the replay/restore cycle does not allocate the backup objects in the steady state.
+     * <p>
+     * <B><I>CAUTION:</I></B><br>
+     * The backup must NOT be used after this method, e.g. restore again.
+     *
+     * @param backup the backup values from {@link #replay(Capture)}/{@link #clear()}
+     * @see #restore(Backup)
+     * @see CrrTransmit#release(Object)
+     */
+    public void restoreAndRelease(@NonNull Backup backup) {
+        restore(backup);
+        if (backup == EMPTY) return;
+
+        final Snapshot snapshot = (Snapshot) backup;
+        final CrrTransmit<Object, Object>[] crrTransmits = snapshot.crrTransmits;
+        final Object[] values = snapshot.values;
+        final CrrTransmit<Object, Object> dedicated0 = this.dedicated0;
+        final CrrTransmit<Object, Object> dedicated1 = this.dedicated1;
+        for (int i = 0; i < crrTransmits.length; i++) {
+            final CrrTransmit<Object, Object> crrTransmit = crrTransmits[i];
+            if (crrTransmit == dedicated0) release0(crrTransmit, values[i]);
+            else if (crrTransmit == dedicated1) release1(crrTransmit, values[i]);
+            else release(crrTransmit, values[i]);
+            values[i] = null;
+        }
+        snapshot.crrTransmits = null;
+        snapshot.data = null;
+
+        recycledBackup.get().snapshot = snapshot;
+    }
+
+    /**
+     * Restore to the empty context.
+     */
+    private void restoreEmpty() {
+        // the context is still empty after replay, nothing to do
+        if (isEmptyContext(registeredCrrTransmits)) return;
+
+        // the context is changed after replay(e.g. set by the task), clear it
+        for (CrrTransmit<Object, Object> crrTransmit : registeredCrrTransmits) {
+            release(crrTransmit, clear(crrTransmit));
+        }
+    }
+
+    @NonNull
+    private Snapshot newBackup(CrrTransmit<Object, Object>[] crrTransmits) {
+        final RecycledBackup recycled = recycledBackup.get();
+        final Snapshot snapshot = recycled.snapshot;
+        if (snapshot != null && snapshot.values.length == crrTransmits.length) {
+            recycled.snapshot = null;
+            snapshot.crrTransmits = crrTransmits;
+            return snapshot;
+        }
+        return new Snapshot(crrTransmits, new Object[crrTransmits.length], null);
+    }
+
+    private static final class RecycledBackup {
+        Snapshot snapshot;
+    }
+
     private static class Snapshot implements Capture, Backup {
-        final HashMap<CrrTransmit<Object, Object>, Object> crrTransmit2Value;
-        final Object data;
+        // the registered CrrTransmits at the capture/replay time
+        CrrTransmit<Object, Object>[] crrTransmits;
+        // the values aligned to crrTransmits
+        final Object[] values;
+        Object data;
 
-        Snapshot(HashMap<CrrTransmit<Object, Object>, Object> crrTransmit2Value, Object data) {
-            this.crrTransmit2Value = crrTransmit2Value;
+        Snapshot(CrrTransmit<Object, Object>[] crrTransmits, Object[] values, Object data) {
+            this.crrTransmits = crrTransmits;
+            this.values = values;
             this.data = data;
         }
     }
 
+    ////////////////////////////////////////////////////////////////////////////////
+    // the dedicated call sites of the first two registered CrrTransmits
+    //
+    // the same as the generic CRR operations below, except the call sites;
+    // the clear is not dedicated, it is not on the hot path of the CRR cycle.
+    ////////////////////////////////////////////////////////////////////////////////
+
+    private static Object capture0(CrrTransmit<Object, Object> crrTransmit) {
+        try {
+            return crrTransmit.capture();
+        } catch (Throwable t) {
+            return failed("capture", crrTransmit, t);
+        }
+    }
+
+    private static Object capture1(CrrTransmit<Object, Object> crrTransmit) {
+        try {
+            return crrTransmit.capture();
+        } catch (Throwable t) {
+            return failed("capture", crrTransmit, t);
+        }
+    }
+
+    private static Object replay0(CrrTransmit<Object, Object> crrTransmit, Object captured) {
+        if (captured == FAILED_MARK) return FAILED_MARK;
+        try {
+            return crrTransmit.replay(captured);
+        } catch (Throwable t) {
+            return failed("replay", crrTransmit, t);
+        }
+    }
+
+    private static Object replay1(CrrTransmit<Object, Object> crrTransmit, Object captured) {
+        if (captured == FAILED_MARK) return FAILED_MARK;
+        try {
+            return crrTransmit.replay(captured);
+        } catch (Throwable t) {
+            return failed("replay", crrTransmit, t);
+        }
+    }
+
+    private static void restore0(CrrTransmit<Object, Object> crrTransmit, Object backup) {
+        if (backup == FAILED_MARK) return;
+        try {
+            crrTransmit.restore(backup);
+        } catch (Throwable t) {
+            failed("restore", crrTransmit, t);
+        }
+    }
+
+    private static void restore1(CrrTransmit<Object, Object> crrTransmit, Object backup) {
+        if (backup == FAILED_MARK) return;
+        try {
+            crrTransmit.restore(backup);
+        } catch (Throwable t) {
+            failed("restore", crrTransmit, t);
+        }
+    }
+
+    private static void release0(CrrTransmit<Object, Object> crrTransmit, Object backup) {
+        if (backup == FAILED_MARK) return;
+        try {
+            crrTransmit.release(backup);
+        } catch (Throwable t) {
+            failed("release", crrTransmit, t);
+        }
+    }
+
+    private static void release1(CrrTransmit<Object, Object> crrTransmit, Object backup) {
+        if (backup == FAILED_MARK) return;
+        try {
+            crrTransmit.release(backup);
+        } catch (Throwable t) {
+            failed("release", crrTransmit, t);
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////
+    // the CRR operations of one CrrTransmit, the exceptions are logged and ignored
+    ////////////////////////////////////////////////////////////////////////////////
+
+    private static Object capture(CrrTransmit<Object, Object> crrTransmit) {
+        try {
+            return crrTransmit.capture();
+        } catch (Throwable t) {
+            return failed("capture", crrTransmit, t);
+        }
+    }
+
+    private static Object replay(CrrTransmit<Object, Object> crrTransmit, Object captured) {
+        if (captured == FAILED_MARK) return FAILED_MARK;
+        try {
+            return crrTransmit.replay(captured);
+        } catch (Throwable t) {
+            return failed("replay", crrTransmit, t);
+        }
+    }
+
+    private static Object clear(CrrTransmit<Object, Object> crrTransmit) {
+        try {
+            return crrTransmit.clear();
+        } catch (Throwable t) {
+            return failed("clear", crrTransmit, t);
+        }
+    }
+
+    private static void restore(CrrTransmit<Object, Object> crrTransmit, Object backup) {
+        if (backup == FAILED_MARK) return;
+        try {
+            crrTransmit.restore(backup);
+        } catch (Throwable t) {
+            failed("restore", crrTransmit, t);
+        }
+    }
+
+    private static void release(CrrTransmit<Object, Object> crrTransmit, Object backup) {
+        if (backup == FAILED_MARK) return;
+        try {
+            crrTransmit.release(backup);
+        } catch (Throwable t) {
+            failed("release", crrTransmit, t);
+        }
+    }
+
+    private static boolean isEmptyContext(CrrTransmit<Object, Object>[] crrTransmits) {
+        for (CrrTransmit<Object, Object> crrTransmit : crrTransmits) {
+            // never ask the CrrTransmit that is not aware of the empty context
+            if (!(crrTransmit instanceof EmptyContextAware)) return false;
+            try {
+                if (!((EmptyContextAware) crrTransmit).isEmptyContext()) return false;
+            } catch (Throwable t) {
+                failed("isEmptyContext", crrTransmit, t);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object failed(String operation, CrrTransmit<Object, Object> crrTransmit, Throwable t) {
+        propagateIfFatal(t);
+        if (logger.isLoggable(Level.WARNING)) {
+            logger.log(Level.WARNING, "exception when " + operation + " for crrTransmit " + crrTransmit +
+                    "(class " + crrTransmit.getClass().getName() + "), just ignored; cause: " + t, t);
+        }
+        return FAILED_MARK;
+    }
+
 
     /**
      * Register the CrrTransmit.
@@ -176,7 +542,15 @@ public final class CompositeCrrTransmit implements CrrTransmit<Capture, Backup>
      */
     @SuppressWarnings("unchecked")
     public <C, B> boolean registerCrrTransmit(@NonNull CrrTransmit<C, B> crrTransmit) {
-        return registeredCrrTransmitSet.add((CrrTransmit<Object, Object>) crrTransmit);
+        synchronized (registeredCrrTransmitsUpdateLock) {
+            final CrrTransmit<Object, Object>[] crrTransmits = registeredCrrTransmits;
+            if (indexOf(crrTransmits, crrTransmit) >= 0) return false;
+
+            final CrrTransmit<Object, Object>[] newCrrTransmits = Arrays.copyOf(crrTransmits, crrTransmits.length + 1);
+            newCrrTransmits[crrTransmits.length] = (CrrTransmit<Object, Object>) crrTransmit;
+            publish(newCrrTransmits);
+            return true;
+        }
     }
 
     /**
@@ -189,6 +563,35 @@ public final class CompositeCrrTransmit implements CrrTransmit<Capture, Backup>
      */
     @SuppressWarnings("unchecked")
     public <C, B> boolean unregisterCrrTransmit(@NonNull CrrTransmit<C, B> crrTransmit) {
-        return registeredCrrTransmitSet.remove((CrrTransmit<Object, Object>) crrTransmit);
+        synchronized (registeredCrrTransmitsUpdateLock) {
+            final CrrTransmit<Object, Object>[] crrTransmits = registeredCrrTransmits;
+            final int index = indexOf(crrTransmits, crrTransmit);
+            if (index < 0) return false;
+
+            // keep the order of other CrrTransmits
+            final CrrTransmit<Object, Object>[] newCrrTransmits = newCrrTransmits(crrTransmits.length - 1);
+            System.arraycopy(crrTransmits, 0, newCrrTransmits, 0, index);
+            System.arraycopy(crrTransmits, index + 1, newCrrTransmits, index, crrTransmits.length - index - 1);
+            publish(newCrrTransmits);
+            return true;
+        }
+    }
+
+    private void publish(CrrTransmit<Object, Object>[] crrTransmits) {
+        dedicated0 = crrTransmits.length > 0 ? crrTransmits[0] : null;
+        dedicated1 = crrTransmits.length > 1 ? crrTransmits[1] : null;
+        registeredCrrTransmits = crrTransmits;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CrrTransmit<Object, Object>[] newCrrTransmits(int length) {
+        return (CrrTransmit<Object, Object>[]) new CrrTransmit<?, ?>[length];
+    }
+
+    private static int indexOf(CrrTransmit<Object, Object>[] crrTransmits, CrrTransmit<?, ?> crrTransmit) {
+        for (int i = 0; i < crrTransmits.length; i++) {
+            if (crrTransmits[i].equals(crrTransmit)) return i;
+        }
+        return -1;
     }
 }
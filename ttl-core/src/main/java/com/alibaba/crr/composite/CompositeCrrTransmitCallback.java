@@ -3,9 +3,7 @@ package com.alibaba.crr.composite;
 import com.alibaba.crr.CrrTransmitCallback;
 import edu.umd.cs.findbugs.annotations.NonNull;
 
-import java.util.HashSet;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -20,10 +18,22 @@ import static com.alibaba.ttl3.internal.util.Utils.propagateIfFatal;
 public final class CompositeCrrTransmitCallback {
     private static final Logger logger = Logger.getLogger(CompositeCrrTransmitCallback.class.getName());
 
-    private final Set<CrrTransmitCallback> registeredCrrTransmitCallbackSet = new CopyOnWriteArraySet<>();
+    private static final CrrTransmitCallback[] EMPTY_CALLBACKS = new CrrTransmitCallback[0];
+
+    // the registered callbacks, copy-on-write under the lock; the array is never modified after published,
+    // so the array self is the immutable snapshot of callbacks for a replay/restore cycle.
+    private volatile CrrTransmitCallback[] registeredCrrTransmitCallbacks = EMPTY_CALLBACKS;
+
+    private final Object registeredCrrTransmitCallbacksUpdateLock = new Object();
+
+    boolean isEmpty() {
+        return registeredCrrTransmitCallbacks.length == 0;
+    }
 
     Object beforeReplay() {
-        Set<CrrTransmitCallback> callbacks = new HashSet<>(registeredCrrTransmitCallbackSet);
+        final CrrTransmitCallback[] callbacks = registeredCrrTransmitCallbacks;
+        if (callbacks.length == 0) return callbacks;
+
         for (CrrTransmitCallback cb : callbacks) {
             try {
                 cb.beforeReplay();
@@ -39,8 +49,9 @@ public final class CompositeCrrTransmitCallback {
     }
 
     Object afterReplay(Object data) {
-        @SuppressWarnings("unchecked")
-        Set<CrrTransmitCallback> callbacks = (Set<CrrTransmitCallback>) data;
+        final CrrTransmitCallback[] callbacks = (CrrTransmitCallback[]) data;
+        if (callbacks.length == 0) return data;
+
         for (CrrTransmitCallback cb : callbacks) {
             try {
                 cb.afterReplay();
@@ -56,8 +67,9 @@ public final class CompositeCrrTransmitCallback {
     }
 
     Object beforeRestore(Object data) {
-        @SuppressWarnings("unchecked")
-        Set<CrrTransmitCallback> callbacks = (Set<CrrTransmitCallback>) data;
+        final CrrTransmitCallback[] callbacks = (CrrTransmitCallback[]) data;
+        if (callbacks.length == 0) return data;
+
         for (CrrTransmitCallback cb : callbacks) {
             try {
                 cb.beforeRestore();
@@ -73,8 +85,9 @@ public final class CompositeCrrTransmitCallback {
     }
 
     void afterRestore(Object data) {
-        @SuppressWarnings("unchecked")
-        Set<CrrTransmitCallback> callbacks = (Set<CrrTransmitCallback>) data;
+        final CrrTransmitCallback[] callbacks = (CrrTransmitCallback[]) data;
+        if (callbacks.length == 0) return;
+
         for (CrrTransmitCallback cb : callbacks) {
             try {
                 cb.afterRestore();
@@ -96,7 +109,15 @@ public final class CompositeCrrTransmitCallback {
      * @see #unregisterCallback(CrrTransmitCallback)
      */
     public boolean registerCallback(@NonNull CrrTransmitCallback callback) {
-        return registeredCrrTransmitCallbackSet.add(callback);
+        synchronized (registeredCrrTransmitCallbacksUpdateLock) {
+            final CrrTransmitCallback[] callbacks = registeredCrrTransmitCallbacks;
+            if (indexOf(callbacks, callback) >= 0) return false;
+
+            final CrrTransmitCallback[] newCallbacks = Arrays.copyOf(callbacks, callbacks.length + 1);
+            newCallbacks[callbacks.length] = callback;
+            registeredCrrTransmitCallbacks = newCallbacks;
+            return true;
+        }
     }
 
     /**
@@ -106,6 +127,23 @@ public final class CompositeCrrTransmitCallback {
      * @see #registerCallback(CrrTransmitCallback)
      */
     public boolean unregisterCallback(@NonNull CrrTransmitCallback callback) {
-        return registeredCrrTransmitCallbackSet.remove(callback);
+        synchronized (registeredCrrTransmitCallbacksUpdateLock) {
+            final CrrTransmitCallback[] callbacks = registeredCrrTransmitCallbacks;
+            final int index = indexOf(callbacks, callback);
+            if (index < 0) return false;
+
+            final CrrTransmitCallback[] newCallbacks = new CrrTransmitCallback[callbacks.length - 1];
+            System.arraycopy(callbacks, 0, newCallbacks, 0, index);
+            System.arraycopy(callbacks, index + 1, newCallbacks, index, callbacks.length - index - 1);
+            registeredCrrTransmitCallbacks = newCallbacks;
+            return true;
+        }
+    }
+
+    private static int indexOf(CrrTransmitCallback[] callbacks, CrrTransmitCallback callback) {
+        for (int i = 0; i < callbacks.length; i++) {
+            if (callbacks[i].equals(callback)) return i;
+        }
+        return -1;
     }
 }
@@ -0,0 +1,62 @@
+package com.alibaba.ttl3;
+
+import com.alibaba.ttl3.spi.TtlAttachments;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * The {@link TtlAttachments} implementation of the TTL wrappers({@link TtlRunnable}, {@link TtlCallable}).
+ * <p>
+ * The layout is compact, since a wrapper is created for every submitted task and may stay long in the task queue:
+ * the auto wrapper mark({@link Boolean#TRUE} of {@link #KEY_IS_AUTO_WRAPPER}, almost the only attachment ever set)
+ * is a field, and the map of other attachments is created lazily on the first set.
+ * Otherwise, the same as {@link com.alibaba.ttl3.spi.TtlAttachmentsDelegate TtlAttachmentsDelegate},
+ * e.g. the attachment never set is {@code null}.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see com.alibaba.ttl3.spi.TtlAttachmentsDelegate
+ */
+abstract class CompactTtlAttachments implements TtlAttachments {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<CompactTtlAttachments, ConcurrentMap> attachmentsUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(CompactTtlAttachments.class, ConcurrentMap.class, "attachments");
+
+    // the attachment KEY_IS_AUTO_WRAPPER is Boolean.TRUE
+    private volatile boolean autoWrapper;
+    // other attachments, created lazily on the first set
+    @Nullable
+    private volatile ConcurrentMap<String, Object> attachments;
+
+    @Override
+    public void setTtlAttachment(@NonNull String key, Object value) {
+        if (KEY_IS_AUTO_WRAPPER.equals(key)) {
+            autoWrapper = Boolean.TRUE.equals(value);
+            // other values of the key are kept in the map as is
+            if (autoWrapper || value == null) {
+                final ConcurrentMap<String, Object> map = attachments;
+                if (map != null) map.remove(key);
+                return;
+            }
+        }
+
+        ConcurrentMap<String, Object> map = attachments;
+        if (map == null) {
+            attachmentsUpdater.compareAndSet(this, null, new ConcurrentHashMap<>());
+            map = attachments;
+        }
+        map.put(key, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getTtlAttachment(@NonNull String key) {
+        if (autoWrapper && KEY_IS_AUTO_WRAPPER.equals(key)) return (T) Boolean.TRUE;
+
+        final ConcurrentMap<String, Object> map = attachments;
+        return map == null ? null : (T) map.get(key);
+    }
+}
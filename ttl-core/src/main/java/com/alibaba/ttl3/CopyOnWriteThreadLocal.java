@@ -0,0 +1,100 @@
+package com.alibaba.ttl3;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * The {@link TransmittableThreadLocal} of the copy-on-write store,
+ * the common implementation of {@link TransmittableMap} and {@link TransmittableList}.
+ * <p>
+ * The store is transmitted(captured and inherited) <b>without copy</b>, and marked as shared;
+ * the thread modifying a shared store forks a private copy first, and sets the copy as its value.
+ * So the store is copied at most once per thread after transmission, only when the thread modifies it,
+ * instead of the deep copy of the mutable value by {@link #transmitteeValue(Object)} on every capture.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TransmittableMap
+ * @see TransmittableList
+ */
+abstract class CopyOnWriteThreadLocal<S extends CopyOnWriteThreadLocal.Store<S>> extends TransmittableThreadLocal<S> {
+    /**
+     * The store of the copy-on-write value.
+     * <p>
+     * A shared store is never modified again, by any thread.
+     */
+    abstract static class Store<S extends Store<S>> {
+        // once set, never reset; the store is transmitted to other threads by the happens-before handoff
+        // (the task submission, the thread start), so a plain field is enough.
+        boolean shared;
+
+        /**
+         * Copy this store to a private(not shared) store.
+         */
+        @NonNull
+        abstract S copy();
+    }
+
+    /**
+     * Create an empty private store.
+     */
+    @NonNull
+    abstract S newStore();
+
+    /**
+     * Get the store for read, or {@code null} if this thread has no value.
+     * <p>
+     * <b><i>NOTE:</i></b> the read does not create the store,
+     * so the threads that only read an empty value have nothing to transmit.
+     */
+    @Nullable
+    final S storeForRead() {
+        return get();
+    }
+
+    /**
+     * Get the private store for write, fork a private copy if the store is shared.
+     */
+    @NonNull
+    final S storeForWrite() {
+        S store = get();
+        if (store == null) store = newStore();
+        else if (store.shared) store = store.copy();
+        else return store;
+
+        set(store);
+        return store;
+    }
+
+    /**
+     * Mark the store as shared, the later modifications fork a private copy.
+     */
+    @Nullable
+    final S share() {
+        return share(get());
+    }
+
+    @Override
+    protected final S childValue(S parentValue) {
+        return share(parentValue);
+    }
+
+    @Override
+    protected final S transmitteeValue(S parentValue) {
+        return share(parentValue);
+    }
+
+    // the parent value is null if the thread read before any write(the initial value)
+    private static <S extends Store<S>> S share(@Nullable S store) {
+        if (store != null) store.shared = true;
+        return store;
+    }
+
+    /**
+     * The transmittee value is the source thread store self(NOT a copy),
+     * so the captured snapshot can be cached and shared by the captures.
+     */
+    @Override
+    final boolean isIdentityTransmitteeValue() {
+        return true;
+    }
+}
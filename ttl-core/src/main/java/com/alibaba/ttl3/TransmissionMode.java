@@ -0,0 +1,64 @@
+package com.alibaba.ttl3;
+
+/**
+ * The transmission mode of {@link TransmittableThreadLocal},
+ * selects the paths that the value of {@link TransmittableThreadLocal} is transmitted by:
+ * <ul>
+ *     <li>the <b>inheritance</b>: the value is inherited by the child thread at the thread creation,
+ *         like {@link InheritableThreadLocal}.</li>
+ *     <li>the <b>transmission</b>: the value is captured and replayed by the
+ *         {@link com.alibaba.ttl3.transmitter.Transmitter Transmitter}, e.g. the tasks submitted to thread pools
+ *         via {@link TtlRunnable}/{@link TtlCallable}.</li>
+ * </ul>
+ * The {@link TransmittableThreadLocal} excluded from a path is skipped by this path entirely:
+ * NOT inherited(the child thread gets the initial value), or NOT captured(the task gets the initial value).
+ * <p>
+ * <b><i>NOTE:</i></b><br>
+ * If the inheritance is excluded, the child thread does not hold the parent value,
+ * unless the method {@link TransmittableThreadLocal#childValue(Object)} is overridden to determine the child value.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TransmittableThreadLocal#TransmittableThreadLocal(TransmissionMode)
+ * @see TransmittableThreadLocal#withInitial(java.util.function.Supplier, TransmissionMode)
+ */
+public enum TransmissionMode {
+    /**
+     * Both inherited by the child thread, and transmitted by the {@code Transmitter}; the default mode.
+     */
+    INHERIT_AND_TRANSMIT(true, true),
+    /**
+     * Only inherited by the child thread, like {@link InheritableThreadLocal}.
+     */
+    INHERIT_ONLY(true, false),
+    /**
+     * Only transmitted by the {@code Transmitter}, NOT inherited by the child thread.
+     */
+    TRANSMIT_ONLY(false, true),
+    /**
+     * Neither inherited nor transmitted, like {@link ThreadLocal},
+     * e.g. the large cache that only makes sense in the thread self.
+     */
+    NONE(false, false);
+
+    private final boolean inheritable;
+    private final boolean transmittable;
+
+    TransmissionMode(boolean inheritable, boolean transmittable) {
+        this.inheritable = inheritable;
+        this.transmittable = transmittable;
+    }
+
+    /**
+     * Whether the value is inherited by the child thread.
+     */
+    public boolean isInheritable() {
+        return inheritable;
+    }
+
+    /**
+     * Whether the value is captured and replayed by the {@code Transmitter}.
+     */
+    public boolean isTransmittable() {
+        return transmittable;
+    }
+}
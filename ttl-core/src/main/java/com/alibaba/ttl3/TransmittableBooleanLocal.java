@@ -0,0 +1,67 @@
+package com.alibaba.ttl3;
+
+/**
+ * The {@code boolean} specialized transmittable local, e.g. the sampling flag of the request.
+ * <p>
+ * Like {@link TransmittableThreadLocal}, the value is inherited by the child thread,
+ * and transmitted by the {@link com.alibaba.ttl3.transmitter.Transmitter Transmitter}
+ * (e.g. {@link TtlRunnable}, {@link TtlCallable}, {@link com.alibaba.ttl3.executor.TtlExecutors TtlExecutors});
+ * but the value is stored as the primitive {@code boolean}, the get/set and the capture/replay/restore never box.
+ * <p>
+ * <B><I>CAUTION:</I></B><br>
+ * Every instance occupies a slot of the thread holder, and the slot is never recycled;
+ * use it as a {@code static final} field, do NOT create instances dynamically.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TransmittableThreadLocal
+ * @see TransmittableLongLocal
+ * @see TransmittableIntLocal
+ */
+public final class TransmittableBooleanLocal {
+    private final int slot = TtlPrimitiveHolder.allocateSlot();
+    private final boolean initialValue;
+
+    /**
+     * Creates a boolean transmittable local, the initial value is {@code false}.
+     */
+    public TransmittableBooleanLocal() {
+        this(false);
+    }
+
+    /**
+     * Creates a boolean transmittable local with the initial value.
+     *
+     * @param initialValue the value returned by {@link #get()} if the value is not set in the current thread
+     */
+    public TransmittableBooleanLocal(boolean initialValue) {
+        this.initialValue = initialValue;
+    }
+
+    /**
+     * Returns the value in the current thread, or the initial value if the value is not set.
+     */
+    public boolean get() {
+        return TtlPrimitiveHolder.current().get(slot, initialValue ? 1 : 0) != 0;
+    }
+
+    /**
+     * Sets the value in the current thread.
+     */
+    public void set(boolean value) {
+        TtlPrimitiveHolder.current().set(slot, value ? 1 : 0);
+    }
+
+    /**
+     * Removes the value in the current thread, the later {@link #get()} returns the initial value.
+     */
+    public void remove() {
+        TtlPrimitiveHolder.current().remove(slot);
+    }
+
+    /**
+     * Whether the value is set in the current thread.
+     */
+    public boolean isSet() {
+        return TtlPrimitiveHolder.current().contains(slot);
+    }
+}
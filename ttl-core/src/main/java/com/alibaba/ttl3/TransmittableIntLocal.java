@@ -0,0 +1,67 @@
+package com.alibaba.ttl3;
+
+/**
+ * The {@code int} specialized transmittable local, e.g. the tenant id of the request.
+ * <p>
+ * Like {@link TransmittableThreadLocal}, the value is inherited by the child thread,
+ * and transmitted by the {@link com.alibaba.ttl3.transmitter.Transmitter Transmitter}
+ * (e.g. {@link TtlRunnable}, {@link TtlCallable}, {@link com.alibaba.ttl3.executor.TtlExecutors TtlExecutors});
+ * but the value is stored as the primitive {@code int}, the get/set and the capture/replay/restore never box.
+ * <p>
+ * <B><I>CAUTION:</I></B><br>
+ * Every instance occupies a slot of the thread holder, and the slot is never recycled;
+ * use it as a {@code static final} field, do NOT create instances dynamically.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TransmittableThreadLocal
+ * @see TransmittableLongLocal
+ * @see TransmittableBooleanLocal
+ */
+public final class TransmittableIntLocal {
+    private final int slot = TtlPrimitiveHolder.allocateSlot();
+    private final int initialValue;
+
+    /**
+     * Creates an int transmittable local, the initial value is {@code 0}.
+     */
+    public TransmittableIntLocal() {
+        this(0);
+    }
+
+    /**
+     * Creates an int transmittable local with the initial value.
+     *
+     * @param initialValue the value returned by {@link #get()} if the value is not set in the current thread
+     */
+    public TransmittableIntLocal(int initialValue) {
+        this.initialValue = initialValue;
+    }
+
+    /**
+     * Returns the value in the current thread, or the initial value if the value is not set.
+     */
+    public int get() {
+        return (int) TtlPrimitiveHolder.current().get(slot, initialValue);
+    }
+
+    /**
+     * Sets the value in the current thread.
+     */
+    public void set(int value) {
+        TtlPrimitiveHolder.current().set(slot, value);
+    }
+
+    /**
+     * Removes the value in the current thread, the later {@link #get()} returns the initial value.
+     */
+    public void remove() {
+        TtlPrimitiveHolder.current().remove(slot);
+    }
+
+    /**
+     * Whether the value is set in the current thread.
+     */
+    public boolean isSet() {
+        return TtlPrimitiveHolder.current().contains(slot);
+    }
+}
@@ -0,0 +1,139 @@
+package com.alibaba.ttl3;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A transmittable thread local {@link List}, e.g. the breadcrumbs of the request,
+ * with the <b>copy-on-write</b> transmission.
+ * <p>
+ * The list of the thread is transmitted like the value of {@link TransmittableThreadLocal},
+ * but <b>without copy</b>: the capturing thread and the replayed tasks(and the child threads) share the same backing list,
+ * and a thread forks a private copy of the backing list only on its first modification after the share.
+ * So the modifications of a task never corrupt the list of the submitting thread, and vice versa,
+ * without the deep copy of the list by {@link TransmittableThreadLocal#transmitteeValue(Object)} on every capture.
+ * <p>
+ * <b><i>NOTE:</i></b><br>
+ * The elements are shared between threads, NOT copied; use immutable elements.
+ * <p>
+ * {@code null} elements are not supported.
+ *
+ * @param <E> the type of elements
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TransmittableMap
+ * @see TransmittableThreadLocal
+ */
+public final class TransmittableList<E> {
+    private final CopyOnWriteThreadLocal<ListStore<E>> threadLocal = new CopyOnWriteThreadLocal<ListStore<E>>() {
+        @NonNull
+        @Override
+        ListStore<E> newStore() {
+            return new ListStore<>(new ArrayList<>());
+        }
+    };
+
+    /**
+     * Returns the element at the index in the list of current thread.
+     *
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public E get(int index) {
+        final ListStore<E> store = threadLocal.storeForRead();
+        if (store == null) throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
+        return store.list.get(index);
+    }
+
+    public int size() {
+        final ListStore<E> store = threadLocal.storeForRead();
+        return store == null ? 0 : store.list.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Appends the element to the end of the list of current thread.
+     */
+    public void add(@NonNull E element) {
+        if (element == null) throw new NullPointerException("element is null");
+
+        threadLocal.storeForWrite().list.add(element);
+    }
+
+    /**
+     * Replaces the element at the index in the list of current thread.
+     *
+     * @return the previous element at the index
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public E set(int index, @NonNull E element) {
+        if (element == null) throw new NullPointerException("element is null");
+        checkIndex(index);
+
+        return threadLocal.storeForWrite().list.set(index, element);
+    }
+
+    /**
+     * Removes the element at the index in the list of current thread.
+     *
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public E remove(int index) {
+        checkIndex(index);
+
+        final List<E> list = threadLocal.storeForWrite().list;
+        final E element = list.remove(index);
+        if (list.isEmpty()) threadLocal.remove();
+        return element;
+    }
+
+    /**
+     * Removes all the elements of the list of current thread; the shared list is never modified.
+     */
+    public void clear() {
+        threadLocal.remove();
+    }
+
+    /**
+     * Returns an unmodifiable snapshot of the list of current thread.
+     * <p>
+     * The snapshot is the backing list self(NOT a copy), and is shared like the transmission;
+     * the later modifications of current thread fork a private copy, and are NOT visible to the snapshot.
+     */
+    @NonNull
+    public List<E> asList() {
+        final ListStore<E> store = threadLocal.share();
+        return store == null ? Collections.emptyList() : Collections.unmodifiableList(store.list);
+    }
+
+    @Override
+    public String toString() {
+        final ListStore<E> store = threadLocal.storeForRead();
+        return store == null ? "[]" : store.list.toString();
+    }
+
+    // check before write, the out of range index should not fork the shared list
+    private void checkIndex(int index) {
+        final int size = size();
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+
+    private static final class ListStore<E> extends CopyOnWriteThreadLocal.Store<ListStore<E>> {
+        final ArrayList<E> list;
+
+        ListStore(ArrayList<E> list) {
+            this.list = list;
+        }
+
+        @NonNull
+        @Override
+        ListStore<E> copy() {
+            return new ListStore<>(new ArrayList<>(list));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.alibaba.ttl3;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A transmittable thread local {@link Map}, e.g. the request attributes,
+ * with the <b>copy-on-write</b> transmission.
+ * <p>
+ * The map of the thread is transmitted like the value of {@link TransmittableThreadLocal},
+ * but <b>without copy</b>: the capturing thread and the replayed tasks(and the child threads) share the same backing map,
+ * and a thread forks a private copy of the backing map only on its first modification after the share.
+ * So the modifications of a task never corrupt the map of the submitting thread, and vice versa,
+ * without the deep copy of the map by {@link TransmittableThreadLocal#transmitteeValue(Object)} on every capture.
+ * <pre>{@code
+ * TransmittableMap<String, String> attributes = new TransmittableMap<>();
+ * attributes.put("user", "alice");
+ *
+ * executorService.submit(TtlRunnable.get(() -> {
+ *     attributes.get("user");        // "alice", read the shared map, no copy
+ *     attributes.put("step", "1");   // fork a private copy on the first modification
+ * }));
+ * }</pre>
+ * <p>
+ * <b><i>NOTE:</i></b><br>
+ * The keys and values are shared between threads, NOT copied; use immutable keys and values.
+ * <p>
+ * {@code null} keys and values are not supported.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TransmittableList
+ * @see TransmittableThreadLocal
+ */
+public final class TransmittableMap<K, V> {
+    private final CopyOnWriteThreadLocal<MapStore<K, V>> threadLocal = new CopyOnWriteThreadLocal<MapStore<K, V>>() {
+        @NonNull
+        @Override
+        MapStore<K, V> newStore() {
+            return new MapStore<>(new HashMap<>());
+        }
+    };
+
+    /**
+     * Returns the value of the key in the map of current thread, or {@code null} if the map contains no such key.
+     */
+    @Nullable
+    public V get(@NonNull Object key) {
+        final MapStore<K, V> store = threadLocal.storeForRead();
+        return store == null ? null : store.map.get(key);
+    }
+
+    public boolean containsKey(@NonNull Object key) {
+        final MapStore<K, V> store = threadLocal.storeForRead();
+        return store != null && store.map.containsKey(key);
+    }
+
+    public int size() {
+        final MapStore<K, V> store = threadLocal.storeForRead();
+        return store == null ? 0 : store.map.size();
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Associates the value with the key in the map of current thread.
+     *
+     * @return the previous value of the key, or {@code null} if the map contains no such key
+     */
+    @Nullable
+    public V put(@NonNull K key, @NonNull V value) {
+        if (key == null) throw new NullPointerException("key is null");
+        if (value == null) throw new NullPointerException("value is null");
+
+        return threadLocal.storeForWrite().map.put(key, value);
+    }
+
+    public void putAll(@NonNull Map<? extends K, ? extends V> map) {
+        if (map.isEmpty()) return;
+        if (map.containsKey(null) || map.containsValue(null)) throw new NullPointerException("null key or value");
+
+        threadLocal.storeForWrite().map.putAll(map);
+    }
+
+    /**
+     * Removes the key from the map of current thread.
+     *
+     * @return the previous value of the key, or {@code null} if the map contains no such key
+     */
+    @Nullable
+    public V remove(@NonNull Object key) {
+        // not contains the key, no need to fork the shared map
+        if (!containsKey(key)) return null;
+
+        final Map<K, V> map = threadLocal.storeForWrite().map;
+        final V value = map.remove(key);
+        if (map.isEmpty()) threadLocal.remove();
+        return value;
+    }
+
+    /**
+     * Removes all the entries of the map of current thread; the shared map is never modified.
+     */
+    public void clear() {
+        threadLocal.remove();
+    }
+
+    /**
+     * Returns an unmodifiable snapshot of the map of current thread.
+     * <p>
+     * The snapshot is the backing map self(NOT a copy), and is shared like the transmission;
+     * the later modifications of current thread fork a private copy, and are NOT visible to the snapshot.
+     */
+    @NonNull
+    public Map<K, V> asMap() {
+        final MapStore<K, V> store = threadLocal.share();
+        return store == null ? Collections.emptyMap() : Collections.unmodifiableMap(store.map);
+    }
+
+    @Override
+    public String toString() {
+        final MapStore<K, V> store = threadLocal.storeForRead();
+        return store == null ? "{}" : store.map.toString();
+    }
+
+    private static final class MapStore<K, V> extends CopyOnWriteThreadLocal.Store<MapStore<K, V>> {
+        final HashMap<K, V> map;
+
+        MapStore(HashMap<K, V> map) {
+            this.map = map;
+        }
+
+        @NonNull
+        @Override
+        MapStore<K, V> copy() {
+            return new MapStore<>(new HashMap<>(map));
+        }
+    }
+}
@@ -0,0 +1,493 @@
+package com.alibaba.ttl3;
+
+import com.alibaba.crr.EmptyContextAware;
+import com.alibaba.ttl3.internal.util.TransmitScope;
+import com.alibaba.ttl3.internal.util.TransmittableLocalTransmittee;
+import com.alibaba.ttl3.transmitter.Transmittee;
+import com.alibaba.ttl3.transmitter.TransmitteeRegistry;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A transmittable scoped value, the {@code TTL} counterpart of {@code java.lang.ScopedValue}(JDK 25+).
+ * <p>
+ * The value is bound for the bounded execution of an operation({@link #runWhere(Object, Runnable)},
+ * {@link #callWhere(Object, Callable)}), like {@code ScopedValue};
+ * and the bound value is captured and replayed by the {@link com.alibaba.ttl3.transmitter.Transmitter Transmitter},
+ * like {@link TransmittableThreadLocal}, e.g. the tasks submitted to thread pools via {@link TtlRunnable}/{@link TtlCallable}.
+ * <pre>{@code
+ * private static final TransmittableScopedValue<String> USER = TransmittableScopedValue.newInstance();
+ *
+ * USER.runWhere("alice", () -> {
+ *     executorService.submit(TtlRunnable.get(() -> {
+ *         USER.get(); // "alice"
+ *     }));
+ * });
+ * }</pre>
+ * <p>
+ * On the JVM that {@code java.lang.ScopedValue} is final(JDK 25+), the binding is a {@code ScopedValue} binding,
+ * and the read of the value only reads {@code ScopedValue}s, never probes the {@code ThreadLocalMap};
+ * the binding does not create the {@code ThreadLocalMap} of the thread(e.g. the virtual threads).
+ * The transmitted values are bound by a {@code ScopedValue} carrier({@code ScopedValue.where(...).run(...)})
+ * for the scope of {@link TtlRunnable#run()}/{@link TtlCallable#call()}(including the tasks of the executors
+ * wrapped by {@link com.alibaba.ttl3.executor.TtlExecutors TtlExecutors}) and
+ * {@link com.alibaba.ttl3.transmitter.Transmitter#runSupplierWithCaptured Transmitter#runXxxWithCaptured}/{@code runXxxWithClear};
+ * a new scope is bound only if the capture has the values of {@link TransmittableScopedValue}s
+ * and the current thread is not in such a scope already.
+ * The bare {@link com.alibaba.ttl3.transmitter.Transmitter#replay Transmitter#replay}/{@code restore} can not bind
+ * a {@code ScopedValue}, so they transmit the values of {@link TransmittableScopedValue}s only in such a scope,
+ * e.g. the replay in {@link com.alibaba.ttl3.executor.TtlThreadPoolExecutor TtlThreadPoolExecutor} or by the TTL agent
+ * does not transmit them, wrap the tasks by {@link TtlRunnable}/{@link TtlCallable} instead.
+ * <p>
+ * Otherwise(e.g. Java 8), the binding falls back to a {@link ThreadLocal}, and every replay transmits the values.
+ * On JDK 21-24, {@code ScopedValue} is a preview API, so it is not used even if the preview is enabled.
+ * <p>
+ * <B><I>NOTE:</I></B><br>
+ * ttl-core targets Java 8 and is not a multi-release jar, so {@code ScopedValue} is accessed by method handles,
+ * only the API of the final {@code ScopedValue}(JDK 25) is used.
+ * <p>
+ * The value bound by {@link #runWhere(Object, Runnable)}/{@link #callWhere(Object, Callable)} in the current thread
+ * takes precedence over the value transmitted to the current thread: like {@code ScopedValue},
+ * the value is unchanged during the bounded execution of an operation.
+ * <p>
+ * The instances are held weakly by the transmittee of all {@link TransmittableScopedValue}s;
+ * generally use it as a {@code static final} field, like {@code ScopedValue}.
+ * <p>
+ * {@code null} value is not supported.
+ *
+ * @param <T> the type of the value
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TransmittableThreadLocal
+ */
+public final class TransmittableScopedValue<T> {
+    private static final Logger logger = Logger.getLogger(TransmittableScopedValue.class.getName());
+
+    // the value of the not bound scoped value, as the fallback of ScopedValue#orElse
+    private static final Object NOT_BOUND = new Object();
+    private static final Object[] EMPTY_VALUES = new Object[0];
+
+    private static final Object lock = new Object();
+    // all instances, held weakly; copy-on-write under the lock, the collected ones are pruned on the instance creation
+    private static volatile WeakReference<TransmittableScopedValue<?>>[] instances = newReferences(0);
+
+    // the ScopedValue instance, null if ScopedValue is not available
+    @Nullable
+    private final Object scopedValue;
+    // the bound value of the current thread if ScopedValue is not available, null value means not bound
+    @Nullable
+    private final ThreadLocal<Object> bound;
+
+    private TransmittableScopedValue() {
+        scopedValue = ScopedValueSupport.newScopedValue();
+        bound = scopedValue == null ? new ThreadLocal<>() : null;
+        synchronized (lock) {
+            final WeakReference<TransmittableScopedValue<?>>[] current = instances;
+            int size = 0;
+            final WeakReference<TransmittableScopedValue<?>>[] updated = newReferences(current.length + 1);
+            for (WeakReference<TransmittableScopedValue<?>> ref : current) {
+                if (ref.get() != null) updated[size++] = ref;
+            }
+            updated[size++] = new WeakReference<>(this);
+            instances = size == updated.length ? updated : Arrays.copyOf(updated, size);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static WeakReference<TransmittableScopedValue<?>>[] newReferences(int length) {
+        return (WeakReference<TransmittableScopedValue<?>>[]) new WeakReference<?>[length];
+    }
+
+    /**
+     * Creates a transmittable scoped value.
+     */
+    @NonNull
+    public static <T> TransmittableScopedValue<T> newInstance() {
+        return new TransmittableScopedValue<>();
+    }
+
+    /**
+     * Returns the value of the current thread.
+     *
+     * @throws NoSuchElementException if the value is not bound
+     */
+    @NonNull
+    public T get() {
+        final Object value = getOrNotBound();
+        if (value == NOT_BOUND) throw new NoSuchElementException("TransmittableScopedValue not bound");
+        return cast(value);
+    }
+
+    /**
+     * Returns the value of the current thread if bound, otherwise {@code other}.
+     */
+    @Nullable
+    public T orElse(@Nullable T other) {
+        final Object value = getOrNotBound();
+        return value == NOT_BOUND ? other : cast(value);
+    }
+
+    /**
+     * Whether the value is bound in the current thread.
+     */
+    public boolean isBound() {
+        return getOrNotBound() != NOT_BOUND;
+    }
+
+    /**
+     * Runs the operation with the value bound in the current thread.
+     */
+    public void runWhere(@NonNull T value, @NonNull Runnable op) {
+        if (value == null) throw new NullPointerException("value is null");
+
+        if (scopedValue != null) {
+            ScopedValueSupport.runWhere(scopedValue, value, op);
+            return;
+        }
+
+        final ThreadLocal<Object> bound = this.bound;
+        final Object previous = bound.get();
+        bound.set(value);
+        try {
+            op.run();
+        } finally {
+            if (previous == null) bound.remove();
+            else bound.set(previous);
+        }
+    }
+
+    /**
+     * Calls the operation with the value bound in the current thread.
+     *
+     * @return the result of the operation
+     * @throws Exception the exception threw by the operation
+     */
+    @SuppressFBWarnings("THROWS_METHOD_THROWS_CLAUSE_BASIC_EXCEPTION")
+    public <R> R callWhere(@NonNull T value, @NonNull Callable<R> op) throws Exception {
+        final Object[] result = new Object[1];
+        final Exception[] exception = new Exception[1];
+        runWhere(value, () -> {
+            try {
+                result[0] = op.call();
+            } catch (Exception e) {
+                exception[0] = e;
+            }
+        });
+        if (exception[0] != null) throw exception[0];
+        return cast(result[0]);
+    }
+
+    private Object getOrNotBound() {
+        final Object bound = boundOrNotBound();
+        if (bound != NOT_BOUND) return bound;
+
+        final Frame frame = Frame.current();
+        return frame == null ? NOT_BOUND : frame.transmitted(this);
+    }
+
+    /**
+     * @param frame the frame of the current thread, {@code null} if there is no frame
+     */
+    private Object getOrNotBound(@Nullable Frame frame) {
+        final Object bound = boundOrNotBound();
+        if (bound != NOT_BOUND) return bound;
+
+        return frame == null ? NOT_BOUND : frame.transmitted(this);
+    }
+
+    // the value bound in the current thread, which takes precedence over the transmitted value
+    private Object boundOrNotBound() {
+        if (scopedValue != null) return ScopedValueSupport.orElse(scopedValue, NOT_BOUND);
+
+        final Object bound = this.bound.get();
+        return bound == null ? NOT_BOUND : bound;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T cast(Object value) {
+        return (T) value;
+    }
+
+    @Override
+    public String toString() {
+        return "TransmittableScopedValue@" + Integer.toHexString(hashCode());
+    }
+
+    /**
+     * The per-thread values transmitted by the {@code Transmitter}.
+     * <p>
+     * If {@code ScopedValue} is available, the frame is bound by {@code ScopedValue} for the scope of
+     * the bounded transmit operations(see {@link TransmitScope}), and there is no frame out of the scopes.
+     * Otherwise, held by a {@link ThreadLocal} which is created on the first transmitted value of the thread;
+     * the threads that never replay transmitted values do not create the frame.
+     */
+    private static final class Frame {
+        // the ScopedValue binding the frame, null if ScopedValue is not available
+        @Nullable
+        private static final Object scopedFrame = ScopedValueSupport.newScopedValue();
+
+        // the frame of the current thread if ScopedValue is not available
+        private static final ThreadLocal<Frame> threadLocalFrame = new ThreadLocal<>();
+        // whether any thread-local frame is created; the ThreadLocal#get creates the ThreadLocalMap of the thread,
+        // so the lookup of the ThreadLocal is skipped until then. Only used if ScopedValue is not available.
+        private static volatile boolean threadLocalFrameCreated = false;
+
+        // the thread binding the frame by ScopedValue, null for the thread-local frame
+        @Nullable
+        private final Thread owner;
+        // the transmitted values, pairs of the instance and its value; never modified, replaced by replay/restore
+        Object[] transmitted = EMPTY_VALUES;
+
+        private Frame(@Nullable Thread owner) {
+            this.owner = owner;
+        }
+
+        /**
+         * The frame to read the transmitted values.
+         */
+        @Nullable
+        static Frame current() {
+            if (scopedFrame != null) {
+                final Object frame = ScopedValueSupport.orElse(scopedFrame, NOT_BOUND);
+                return frame == NOT_BOUND ? null : (Frame) frame;
+            }
+            return threadLocalFrameCreated ? threadLocalFrame.get() : null;
+        }
+
+        /**
+         * The frame to replay/restore the transmitted values.
+         * <p>
+         * The {@code ScopedValue} binding is inherited by the child threads(e.g. {@code StructuredTaskScope}),
+         * the frame is only modified by the binding thread.
+         */
+        @Nullable
+        static Frame owned() {
+            final Frame frame = current();
+            if (frame == null || frame.owner != null && frame.owner != Thread.currentThread()) return null;
+            return frame;
+        }
+
+        /**
+         * @return {@code null} if {@code ScopedValue} is available and the current thread is out of the scopes
+         */
+        @Nullable
+        static Frame ownedOrCreate() {
+            Frame frame = owned();
+            if (frame != null || scopedFrame != null) return frame;
+
+            frame = new Frame(null);
+            threadLocalFrameCreated = true;
+            threadLocalFrame.set(frame);
+            return frame;
+        }
+
+        Object transmitted(TransmittableScopedValue<?> instance) {
+            final Object[] transmitted = this.transmitted;
+            for (int i = 0; i < transmitted.length; i += 2) {
+                if (transmitted[i] == instance) return transmitted[i + 1];
+            }
+            return NOT_BOUND;
+        }
+    }
+
+    /**
+     * Binds a new frame by {@code ScopedValue} for the scope of the bounded transmit operations,
+     * only used if {@code ScopedValue} is available.
+     */
+    private static final class ScopedFrameBinder implements TransmitScope.Binder<Object[]> {
+        @Override
+        public boolean needsScope(@NonNull Object[] captured) {
+            // nothing to bind, or replay into the frame of the current scope
+            return captured.length != 0 && Frame.owned() == null;
+        }
+
+        @Override
+        public boolean needsScopeForClear() {
+            // the transmitted values inherited from the parent thread, hide them by a new frame
+            final Frame frame = Frame.current();
+            return frame != null && frame.transmitted.length != 0 && frame.owner != Thread.currentThread();
+        }
+
+        @Override
+        public void runInScope(@NonNull Runnable op) {
+            // the new frame starts with the transmitted values of the current frame
+            final Frame current = Frame.current();
+            final Frame frame = new Frame(Thread.currentThread());
+            if (current != null) frame.transmitted = current.transmitted;
+            ScopedValueSupport.runWhere(Frame.scopedFrame, frame, op);
+        }
+    }
+
+    private static class ScopedValueTransmittee implements Transmittee<Object[], Object[]>, EmptyContextAware, TransmittableLocalTransmittee {
+        @NonNull
+        @Override
+        public Object[] capture() {
+            final Frame frame = Frame.current();
+            Object[] captured = EMPTY_VALUES;
+            int size = 0;
+            for (WeakReference<TransmittableScopedValue<?>> ref : instances) {
+                final TransmittableScopedValue<?> instance = ref.get();
+                if (instance == null) continue;
+
+                final Object value = instance.getOrNotBound(frame);
+                if (value == NOT_BOUND) continue;
+
+                if (size == captured.length) captured = Arrays.copyOf(captured, Math.max(4, size << 1));
+                captured[size++] = instance;
+                captured[size++] = value;
+            }
+            return size == captured.length ? captured : Arrays.copyOf(captured, size);
+        }
+
+        @NonNull
+        @Override
+        public Object[] replay(@NonNull Object[] captured) {
+            final Frame frame = captured.length == 0 ? Frame.owned() : Frame.ownedOrCreate();
+            // out of the scopes, can not bind the ScopedValue
+            if (frame == null) return EMPTY_VALUES;
+
+            final Object[] backup = frame.transmitted;
+            frame.transmitted = captured;
+            return backup;
+        }
+
+        @NonNull
+        @Override
+        public Object[] clear() {
+            return replay(EMPTY_VALUES);
+        }
+
+        @Override
+        public void restore(@NonNull Object[] backup) {
+            final Frame frame = backup.length == 0 ? Frame.owned() : Frame.ownedOrCreate();
+            if (frame == null) return;
+
+            frame.transmitted = backup;
+        }
+
+        @Override
+        public boolean isEmptyContext() {
+            final Frame frame = Frame.current();
+            // the transmitted instances are alive, and captured either by the bound or the transmitted value
+            if (frame != null && frame.transmitted.length != 0) return false;
+
+            for (WeakReference<TransmittableScopedValue<?>> ref : instances) {
+                final TransmittableScopedValue<?> instance = ref.get();
+                if (instance != null && instance.boundOrNotBound() != NOT_BOUND) return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * The access of {@code java.lang.ScopedValue} via method handles, since ttl-core targets Java 8.
+     * <p>
+     * Only used on JDK 25+, the {@code ScopedValue} of JDK 21-24 is a preview API.
+     * The used API: {@code ScopedValue.newInstance()}, {@code ScopedValue.where(ScopedValue, Object)},
+     * {@code ScopedValue.Carrier#run(Runnable)} and {@code ScopedValue#orElse(Object)}(with a non-null argument).
+     */
+    private static final class ScopedValueSupport {
+        @Nullable
+        private static final MethodHandle NEW_INSTANCE;
+        private static final MethodHandle WHERE;
+        private static final MethodHandle RUN;
+        private static final MethodHandle OR_ELSE;
+
+        static {
+            MethodHandle newInstance = null, where = null, run = null, orElse = null;
+            if (javaFeatureVersion() >= 25) try {
+                final Class<?> scopedValueClass = Class.forName("java.lang.ScopedValue");
+                final Class<?> carrierClass = Class.forName("java.lang.ScopedValue$Carrier");
+                final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+                where = lookup.findStatic(scopedValueClass, "where", MethodType.methodType(carrierClass, scopedValueClass, Object.class))
+                        .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+                run = lookup.findVirtual(carrierClass, "run", MethodType.methodType(void.class, Runnable.class))
+                        .asType(MethodType.methodType(void.class, Object.class, Runnable.class));
+                orElse = lookup.findVirtual(scopedValueClass, "orElse", MethodType.methodType(Object.class, Object.class))
+                        .asType(MethodType.methodType(Object.class, Object.class, Object.class));
+                newInstance = lookup.findStatic(scopedValueClass, "newInstance", MethodType.methodType(scopedValueClass))
+                        .asType(MethodType.methodType(Object.class));
+
+                // check the availability, e.g. the preview API may be disabled
+                final Object probe = newInstance.invokeExact();
+                final Object carrier = where.invokeExact(probe, (Object) Boolean.TRUE);
+                run.invokeExact(carrier, (Runnable) () -> {
+                });
+            } catch (Throwable t) {
+                if (!(t instanceof ClassNotFoundException)) {
+                    logger.log(Level.INFO, "java.lang.ScopedValue is not usable, fall back to ThreadLocal; cause: " + t, t);
+                }
+                newInstance = null;
+            }
+            NEW_INSTANCE = newInstance;
+            WHERE = where;
+            RUN = run;
+            OR_ELSE = orElse;
+        }
+
+        private static int javaFeatureVersion() {
+            // "1.8" for Java 8, "25" for JDK 25
+            final String version = System.getProperty("java.specification.version", "");
+            try {
+                return Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+
+        @Nullable
+        static Object newScopedValue() {
+            if (NEW_INSTANCE == null) return null;
+            try {
+                return NEW_INSTANCE.invokeExact();
+            } catch (Throwable t) {
+                throw new IllegalStateException("fail to create ScopedValue", t);
+            }
+        }
+
+        static void runWhere(Object scopedValue, Object value, Runnable op) {
+            final Object carrier;
+            try {
+                carrier = WHERE.invokeExact(scopedValue, value);
+            } catch (Throwable t) {
+                throw new IllegalStateException("fail to bind ScopedValue", t);
+            }
+            try {
+                RUN.invokeExact(carrier, op);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                // Runnable throws no checked exception
+                throw new IllegalStateException(t);
+            }
+        }
+
+        static Object orElse(Object scopedValue, Object other) {
+            try {
+                return OR_ELSE.invokeExact(scopedValue, other);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        }
+    }
+
+    private static final ScopedValueTransmittee scopedValueTransmittee = new ScopedValueTransmittee();
+
+    static {
+        TransmitteeRegistry.registerTransmittee(scopedValueTransmittee);
+        if (Frame.scopedFrame != null) TransmitScope.setBinder(scopedValueTransmittee, new ScopedFrameBinder());
+    }
+}
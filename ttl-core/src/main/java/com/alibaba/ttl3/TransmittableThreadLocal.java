@@ -1,20 +1,20 @@
 package com.alibaba.ttl3;
 
+import com.alibaba.crr.EmptyContextAware;
+import com.alibaba.crr.composite.Capture;
 import com.alibaba.ttl3.executor.TtlExecutors;
+import com.alibaba.ttl3.internal.util.TransmittableLocalTransmittee;
 import com.alibaba.ttl3.transmitter.Transmittee;
 import com.alibaba.ttl3.transmitter.TransmitteeRegistry;
+import com.alibaba.ttl3.transmitter.Transmitter;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
 import javax.annotation.ParametersAreNonnullByDefault;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.Arrays;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
-import static com.alibaba.ttl3.internal.util.Utils.newHashMap;
-
 /**
  * {@link TransmittableThreadLocal}({@code TTL}) can transmit the value from the thread of submitting task
  * to the thread of executing task even using thread pooling components.
@@ -68,6 +68,16 @@ import static com.alibaba.ttl3.internal.util.Utils.newHashMap;
 public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> {
     private final boolean disableIgnoreNullValueSemantics;
 
+    private final TransmissionMode transmissionMode;
+
+    // the generator of the lazy transmittee value, null if the transmittee value is generated eagerly at capture
+    @Nullable
+    private final UnaryOperator<Object> lazyTransmitteeValueGenerator;
+
+    // the slot and its stamp allocated by TtlSlotTable, the key of this TTL instance in TtlHolder
+    final int slot;
+    private final int stamp;
+
     /**
      * Default constructor. Create a {@link TransmittableThreadLocal} instance with "Ignore-Null-Value Semantics".
      * <p>
@@ -108,7 +118,63 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> {
      * @see #TransmittableThreadLocal()
      */
     public TransmittableThreadLocal(boolean disableIgnoreNullValueSemantics) {
+        this(disableIgnoreNullValueSemantics, TransmissionMode.INHERIT_AND_TRANSMIT);
+    }
+
+    /**
+     * Constructor, create a {@link TransmittableThreadLocal} instance with "Ignore-Null-Value Semantics",
+     * and parameter {@code transmissionMode} to select the inheritance and the transmission.
+     *
+     * @param transmissionMode the transmission mode
+     * @see TransmissionMode
+     * @see #TransmittableThreadLocal()
+     */
+    public TransmittableThreadLocal(@NonNull TransmissionMode transmissionMode) {
+        this(false, transmissionMode);
+    }
+
+    /**
+     * Constructor, create a {@link TransmittableThreadLocal} instance
+     * with parameter {@code disableIgnoreNullValueSemantics} to control "Ignore-Null-Value Semantics",
+     * and parameter {@code transmissionMode} to select the inheritance and the transmission.
+     *
+     * @param disableIgnoreNullValueSemantics disable "Ignore-Null-Value Semantics"
+     * @param transmissionMode                the transmission mode
+     * @see TransmissionMode
+     * @see #TransmittableThreadLocal(boolean)
+     */
+    public TransmittableThreadLocal(boolean disableIgnoreNullValueSemantics, @NonNull TransmissionMode transmissionMode) {
+        this(disableIgnoreNullValueSemantics, transmissionMode, null);
+    }
+
+    /**
+     * Constructor, create a {@link TransmittableThreadLocal} instance with "Ignore-Null-Value Semantics",
+     * and include it to the transmission group.
+     * <pre>{@code
+     * static final TransmittableThreadLocal<String> traceId = new TransmittableThreadLocal<>(TRACE_GROUP);
+     * }</pre>
+     *
+     * @param group the transmission group
+     * @see TtlGroup
+     * @see #TransmittableThreadLocal()
+     */
+    public TransmittableThreadLocal(@NonNull TtlGroup group) {
+        this(false, TransmissionMode.INHERIT_AND_TRANSMIT, null);
+        if (group == null) throw new NullPointerException("group is null");
+        group.include(this);
+    }
+
+    @SuppressWarnings({"unchecked", "ConstantConditions"})
+    private TransmittableThreadLocal(boolean disableIgnoreNullValueSemantics, TransmissionMode transmissionMode,
+                                     @Nullable UnaryOperator<? super T> lazyTransmitteeValueGenerator) {
+        if (transmissionMode == null) throw new NullPointerException("transmission mode is null");
         this.disableIgnoreNullValueSemantics = disableIgnoreNullValueSemantics;
+        this.transmissionMode = transmissionMode;
+        this.lazyTransmitteeValueGenerator = (UnaryOperator<Object>) lazyTransmitteeValueGenerator;
+
+        final TtlSlotTable.SlotReference slotReference = TtlSlotTable.allocate(this, !transmissionMode.isInheritable());
+        this.slot = slotReference.slot;
+        this.stamp = slotReference.stamp;
     }
 
     /**
@@ -125,9 +191,29 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> {
     @NonNull
     @SuppressWarnings("ConstantConditions")
     public static <S> TransmittableThreadLocal<S> withInitial(@NonNull Supplier<? extends S> supplier) {
+        return withInitial(supplier, TransmissionMode.INHERIT_AND_TRANSMIT);
+    }
+
+    /**
+     * Creates a transmittable thread local variable with the transmission mode.
+     * The initial value({@link #initialValue()}) of the variable is
+     * determined by invoking the {@link #get()} method on the {@code Supplier}.
+     *
+     * @param <S>              the type of the thread local's value
+     * @param supplier         the supplier to be used to determine the initial value
+     * @param transmissionMode the transmission mode
+     * @return a new transmittable thread local variable
+     * @throws NullPointerException if the specified supplier or transmission mode is null
+     * @see #withInitial(Supplier)
+     * @see TransmissionMode
+     */
+    @NonNull
+    @ParametersAreNonnullByDefault
+    @SuppressWarnings("ConstantConditions")
+    public static <S> TransmittableThreadLocal<S> withInitial(Supplier<? extends S> supplier, TransmissionMode transmissionMode) {
         if (supplier == null) throw new NullPointerException("supplier is null");
 
-        return new SuppliedTransmittableThreadLocal<>(supplier, null, null);
+        return new SuppliedTransmittableThreadLocal<>(supplier, null, null, transmissionMode);
     }
 
     /**
@@ -148,10 +234,33 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> {
     @ParametersAreNonnullByDefault
     @SuppressWarnings("ConstantConditions")
     public static <S> TransmittableThreadLocal<S> withInitialAndGenerator(Supplier<? extends S> supplier, UnaryOperator<S> generatorForChildValueAndTransmitteeValue) {
+        return withInitialAndGenerator(supplier, generatorForChildValueAndTransmitteeValue, TransmissionMode.INHERIT_AND_TRANSMIT);
+    }
+
+    /**
+     * Creates a transmittable thread local variable with the transmission mode.
+     * The initial value({@link #initialValue()}) of the variable is
+     * determined by invoking the {@link #get()} method on the {@code Supplier};
+     * and the child value({@link #childValue(Object)}) and the transmittee value({@link #transmitteeValue(Object)}) of the variable is
+     * determined by invoking the {@link UnaryOperator#apply(Object)} method on the {@code UnaryOperator}.
+     *
+     * @param <S>                                       the type of the thread local's value
+     * @param supplier                                  the supplier to be used to determine the initial value
+     * @param generatorForChildValueAndTransmitteeValue the value generator to be used to determine the child value and the transmittee value
+     * @param transmissionMode                          the transmission mode
+     * @return a new transmittable thread local variable
+     * @throws NullPointerException if the specified supplier, value generator or transmission mode is null
+     * @see #withInitialAndGenerator(Supplier, UnaryOperator)
+     * @see TransmissionMode
+     */
+    @NonNull
+    @ParametersAreNonnullByDefault
+    @SuppressWarnings("ConstantConditions")
+    public static <S> TransmittableThreadLocal<S> withInitialAndGenerator(Supplier<? extends S> supplier, UnaryOperator<S> generatorForChildValueAndTransmitteeValue, TransmissionMode transmissionMode) {
         if (supplier == null) throw new NullPointerException("supplier is null");
         if (generatorForChildValueAndTransmitteeValue == null) throw new NullPointerException("value generator is null");
 
-        return new SuppliedTransmittableThreadLocal<>(supplier, generatorForChildValueAndTransmitteeValue, generatorForChildValueAndTransmitteeValue);
+        return new SuppliedTransmittableThreadLocal<>(supplier, generatorForChildValueAndTransmitteeValue, generatorForChildValueAndTransmitteeValue, transmissionMode);
     }
 
     /**
@@ -179,11 +288,89 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> {
     @ParametersAreNonnullByDefault
     @SuppressWarnings("ConstantConditions")
     public static <S> TransmittableThreadLocal<S> withInitialAndGenerator(Supplier<? extends S> supplier, UnaryOperator<S> generatorForChildValue, UnaryOperator<S> generatorForTransmitteeValue) {
+        return withInitialAndGenerator(supplier, generatorForChildValue, generatorForTransmitteeValue, TransmissionMode.INHERIT_AND_TRANSMIT);
+    }
+
+    /**
+     * Creates a transmittable thread local variable with the transmission mode.
+     * The initial value({@link #initialValue()}) of the variable is
+     * determined by invoking the {@link #get()} method on the {@code Supplier};
+     * and the child value({@link #childValue(Object)})}) and the transmittee value({@link #transmitteeValue(Object)}) of the variable is
+     * determined by invoking the {@link UnaryOperator#apply(Object)} method on the {@code UnaryOperator}.
+     *
+     * @param <S>                          the type of the thread local's value
+     * @param supplier                     the supplier to be used to determine the initial value
+     * @param generatorForChildValue       the value generator to be used to determine the child value
+     * @param generatorForTransmitteeValue the value generator to be used to determine the transmittee value
+     * @param transmissionMode             the transmission mode
+     * @return a new transmittable thread local variable
+     * @throws NullPointerException if the specified supplier, value generator or transmission mode is null
+     * @see #withInitialAndGenerator(Supplier, UnaryOperator, UnaryOperator)
+     * @see TransmissionMode
+     */
+    @NonNull
+    @ParametersAreNonnullByDefault
+    @SuppressWarnings("ConstantConditions")
+    public static <S> TransmittableThreadLocal<S> withInitialAndGenerator(Supplier<? extends S> supplier, UnaryOperator<S> generatorForChildValue, UnaryOperator<S> generatorForTransmitteeValue, TransmissionMode transmissionMode) {
         if (supplier == null) throw new NullPointerException("supplier is null");
         if (generatorForChildValue == null) throw new NullPointerException("value generator for child value is null");
         if (generatorForTransmitteeValue == null) throw new NullPointerException("value generator for transmittee value is null");
 
-        return new SuppliedTransmittableThreadLocal<>(supplier, generatorForChildValue, generatorForTransmitteeValue);
+        return new SuppliedTransmittableThreadLocal<>(supplier, generatorForChildValue, generatorForTransmitteeValue, transmissionMode);
+    }
+
+    /**
+     * Creates a transmittable thread local variable with the <b>lazy</b> transmittee value.
+     * The initial value({@link #initialValue()}) of the variable is
+     * determined by invoking the {@link #get()} method on the {@code Supplier};
+     * and the child value({@link #childValue(Object)}) and the transmittee value({@link #transmitteeValue(Object)}) of the variable is
+     * determined by invoking the {@link UnaryOperator#apply(Object)} method on the {@code UnaryOperator}.
+     * <p>
+     * Unlike {@link #withInitialAndGenerator(Supplier, UnaryOperator)}, the capture does NOT invoke the value generator,
+     * but just captures the reference of the source thread value;
+     * the transmittee value is generated on the first {@link #get()} in the replayed task,
+     * or never if the task never reads the value.
+     * This is useful for the expensive value generator(e.g. deep copy) that most tasks never read.
+     * <p>
+     * <B><I>CAUTION:</I></B><br>
+     * Since the value generator is invoked lazily, the modification of the source thread value
+     * after capture is visible to the generated transmittee value.
+     * Do NOT modify the value in place after capture, set a new value instead.
+     *
+     * @param <S>       the type of the thread local's value
+     * @param supplier  the supplier to be used to determine the initial value
+     * @param generator the value generator to be used to determine the child value and the lazy transmittee value
+     * @return a new transmittable thread local variable
+     * @throws NullPointerException if the specified supplier or value generator is null
+     * @see #withInitialAndGenerator(Supplier, UnaryOperator)
+     */
+    @NonNull
+    @ParametersAreNonnullByDefault
+    @SuppressWarnings("ConstantConditions")
+    public static <S> TransmittableThreadLocal<S> withInitialAndLazyGenerator(Supplier<? extends S> supplier, UnaryOperator<S> generator) {
+        return withInitialAndLazyGenerator(supplier, generator, TransmissionMode.INHERIT_AND_TRANSMIT);
+    }
+
+    /**
+     * Creates a transmittable thread local variable with the <b>lazy</b> transmittee value and the transmission mode.
+     *
+     * @param <S>              the type of the thread local's value
+     * @param supplier         the supplier to be used to determine the initial value
+     * @param generator        the value generator to be used to determine the child value and the lazy transmittee value
+     * @param transmissionMode the transmission mode
+     * @return a new transmittable thread local variable
+     * @throws NullPointerException if the specified supplier, value generator or transmission mode is null
+     * @see #withInitialAndLazyGenerator(Supplier, UnaryOperator)
+     * @see TransmissionMode
+     */
+    @NonNull
+    @ParametersAreNonnullByDefault
+    @SuppressWarnings("ConstantConditions")
+    public static <S> TransmittableThreadLocal<S> withInitialAndLazyGenerator(Supplier<? extends S> supplier, UnaryOperator<S> generator, TransmissionMode transmissionMode) {
+        if (supplier == null) throw new NullPointerException("supplier is null");
+        if (generator == null) throw new NullPointerException("value generator is null");
+
+        return new SuppliedTransmittableThreadLocal<>(supplier, generator, transmissionMode);
     }
 
     /**
@@ -195,13 +382,26 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> {
         private final UnaryOperator<T> generatorForChildValue;
         private final UnaryOperator<T> generatorForTransmitteeValue;
 
-        SuppliedTransmittableThreadLocal(Supplier<? extends T> supplier, UnaryOperator<T> generatorForChildValue, UnaryOperator<T> generatorForTransmitteeValue) {
+        SuppliedTransmittableThreadLocal(Supplier<? extends T> supplier, UnaryOperator<T> generatorForChildValue, UnaryOperator<T> generatorForTransmitteeValue,
+                                         TransmissionMode transmissionMode) {
+            super(transmissionMode);
             if (supplier == null) throw new NullPointerException("supplier is null");
             this.supplier = supplier;
             this.generatorForChildValue = generatorForChildValue;
             this.generatorForTransmitteeValue = generatorForTransmitteeValue;
         }
 
+        /**
+         * the lazy transmittee value, generated by the generator on the first read.
+         */
+        SuppliedTransmittableThreadLocal(Supplier<? extends T> supplier, UnaryOperator<T> lazyGenerator, TransmissionMode transmissionMode) {
+            super(false, transmissionMode, lazyGenerator);
+            if (supplier == null) throw new NullPointerException("supplier is null");
+            this.supplier = supplier;
+            this.generatorForChildValue = lazyGenerator;
+            this.generatorForTransmitteeValue = null;
+        }
+
         @Override
         protected T initialValue() {
             return supplier.get();
@@ -209,6 +409,9 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> {
 
         @Override
         protected T childValue(T parentValue) {
+            if (!getTransmissionMode().isInheritable()) return null;
+            // the not generated lazy transmittee value, keep lazy in the child thread
+            if (parentValue instanceof LazyTransmitteeValue) return parentValue;
             if (generatorForChildValue != null) return generatorForChildValue.apply(parentValue);
             else return super.childValue(parentValue);
         }
@@ -218,6 +421,11 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> {
             if (generatorForTransmitteeValue != null) return generatorForTransmitteeValue.apply(parentValue);
             else return super.transmitteeValue(parentValue);
         }
+
+        @Override
+        boolean isIdentityTransmitteeValue() {
+            return generatorForTransmitteeValue == null;
+        }
     }
 
     /**
@@ -231,15 +439,32 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> {
      * In most cases, the logic of determining the child value({@link #childValue(Object)})
      * and the transmittee value({@link #transmitteeValue(Object)}) should be the same,
      * so it's NOT recommended to override this method in subclass.
+     * <p>
+     * If this {@link TransmittableThreadLocal} is excluded from the inheritance(by {@link TransmissionMode}),
+     * this method returns {@code null}, and the child thread gets the initial value({@link #initialValue()})
+     * on its first {@link #get()} instead; if the overridden method returns a non-{@code null} value,
+     * the child thread gets this value.
      *
      * @param parentValue the parent thread's value
      * @return the child thread's initial value
+     * @see TransmissionMode
      */
     @Override
     protected T childValue(T parentValue) {
+        if (!transmissionMode.isInheritable()) return null;
         return transmitteeValue(parentValue);
     }
 
+    /**
+     * The transmission mode of this {@link TransmittableThreadLocal}.
+     *
+     * @see TransmissionMode
+     */
+    @NonNull
+    public final TransmissionMode getTransmissionMode() {
+        return transmissionMode;
+    }
+
     /**
      * Computes the value for this transmittable thread-local variable
      * as a function of the source thread's value at the time the task
@@ -257,13 +482,62 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> {
         return parentValue;
     }
 
+    /**
+     * Whether the {@link #transmitteeValue(Object)} merely returns the source thread value,
+     * aka. the method is not overridden.
+     * <p>
+     * The captured value of the identity transmittee value is the same until the value is set/removed,
+     * so the captured snapshot can be cached and shared by the captures.
+     * Otherwise, the transmittee value(e.g. a copy) is still computed on every capture,
+     * since the modification of the value in place does not change the version of the context.
+     */
+    boolean isIdentityTransmitteeValue() {
+        return identityTransmitteeValueClasses.get(getClass());
+    }
+
+    private static final ClassValue<Boolean> identityTransmitteeValueClasses = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            for (Class<?> c = type; c != TransmittableThreadLocal.class; c = c.getSuperclass()) {
+                try {
+                    c.getDeclaredMethod("transmitteeValue", Object.class);
+                    return false;
+                } catch (NoSuchMethodException e) {
+                    // not overridden in this class, check the super class
+                }
+            }
+            return true;
+        }
+    };
+
     /**
      * {@inheritDoc}
      */
     @Override
+    @SuppressWarnings("unchecked")
     public final T get() {
-        T value = super.get();
-        if (disableIgnoreNullValueSemantics || value != null) addThisToHolder();
+        T value;
+        if (transmissionMode.isInheritable()) {
+            value = super.get();
+        } else {
+            // the holder is created before the value, so the child thread created later gets the not-inherited marks
+            final TtlHolder holder = TtlHolder.current();
+            value = super.get();
+            if (holder.takeNotInherited(slot) && value == null) {
+                // the TTL excluded from the inheritance, discard the null child value and initialize the value of this thread;
+                // the mark is only present if the child value is held, so the initial value is not computed above
+                super.remove();
+                value = super.get();
+            }
+            holder.addNonInheritable(slot);
+        }
+        if (lazyTransmitteeValueGenerator != null && value instanceof LazyTransmitteeValue) {
+            // the first read of the lazy transmittee value, generate it
+            value = (T) ((LazyTransmitteeValue) value).generate();
+            set(value);
+            return value;
+        }
+        if ((disableIgnoreNullValueSemantics || value != null) && transmissionMode.isTransmittable()) addThisToHolder();
         return value;
     }
 
@@ -276,8 +550,16 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> {
             // may set null to remove value
             remove();
         } else {
-            super.set(value);
-            addThisToHolder();
+            if (transmissionMode.isInheritable()) {
+                super.set(value);
+                if (transmissionMode.isTransmittable()) setThisToHolder();
+            } else {
+                // the value set explicitly(include null) is not discarded as the not inherited value
+                final TtlHolder holder = TtlHolder.current();
+                holder.addNonInheritable(slot);
+                super.set(value);
+                if (transmissionMode.isTransmittable()) holder.set(slot, stamp);
+            }
         }
     }
 
@@ -286,118 +568,353 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> {
      */
     @Override
     public final void remove() {
-        removeThisFromHolder();
+        if (!transmissionMode.isInheritable()) {
+            // the initial value after remove is the value of this thread, not the child value
+            final TtlHolder holder = TtlHolder.current();
+            holder.removeNonInheritable(slot);
+            if (transmissionMode.isTransmittable()) holder.remove(slot, stamp);
+        } else if (transmissionMode.isTransmittable()) {
+            removeThisFromHolder();
+        }
         super.remove();
     }
 
-    private void superRemove() {
-        super.remove();
+    private T superGet() {
+        return super.get();
     }
 
-    private T getTransmitteeValue() {
-        return transmitteeValue(get());
+    private Object getTransmitteeValue(T value) {
+        if (lazyTransmitteeValueGenerator == null) return transmitteeValue(value);
+
+        // the not generated lazy transmittee value is immutable, transmit it directly
+        if (value instanceof LazyTransmitteeValue) return value;
+        return new LazyTransmitteeValue(value, lazyTransmitteeValueGenerator);
     }
 
-    // Note about the holder:
-    // 1. holder self is a InheritableThreadLocal(a *ThreadLocal*).
-    // 2. The type of value in the holder is WeakHashMap<TransmittableThreadLocal<Object>, ?>.
-    //    2.1 but the WeakHashMap is used as a *Set*:
-    //        the value of WeakHashMap is *always* null, and never used.
-    //    2.2 WeakHashMap support *null* value.
-    private static final InheritableThreadLocal<WeakHashMap<TransmittableThreadLocal<Object>, ?>> holder =
-            new InheritableThreadLocal<WeakHashMap<TransmittableThreadLocal<Object>, ?>>() {
-                @Override
-                protected WeakHashMap<TransmittableThreadLocal<Object>, ?> initialValue() {
-                    return new WeakHashMap<>();
-                }
+    /**
+     * The lazy transmittee value, aka. the source thread value and the value generator.
+     * <p>
+     * The lazy transmittee value is stored as the value of {@link ThreadLocal} in the replayed thread,
+     * and replaced by the generated value on the first {@link #get()}.
+     * The instance is immutable, so can be shared by the captures and the threads.
+     */
+    private static final class LazyTransmitteeValue {
+        private final Object sourceValue;
+        private final UnaryOperator<Object> generator;
 
-                @Override
-                protected WeakHashMap<TransmittableThreadLocal<Object>, ?> childValue(WeakHashMap<TransmittableThreadLocal<Object>, ?> parentValue) {
-                    return new WeakHashMap<>(parentValue);
-                }
-            };
+        LazyTransmitteeValue(Object sourceValue, UnaryOperator<Object> generator) {
+            this.sourceValue = sourceValue;
+            this.generator = generator;
+        }
 
-    @SuppressWarnings("unchecked")
-    private void addThisToHolder() {
-        if (!holder.get().containsKey(this)) {
-            holder.get().put((TransmittableThreadLocal<Object>) this, null); // WeakHashMap supports null value.
+        Object generate() {
+            return generator.apply(sourceValue);
         }
     }
 
+    /**
+     * same as {@link #set(Object)}, but use the input holder of current thread,
+     * avoid the lookup of holder for every {@link TransmittableThreadLocal} in the CRR operations.
+     */
+    private void setWithHolder(@NonNull TtlHolder holder, T value) {
+        if (!disableIgnoreNullValueSemantics && value == null) {
+            removeWithHolder(holder);
+        } else {
+            if (!transmissionMode.isInheritable()) holder.addNonInheritable(slot);
+            super.set(value);
+            holder.set(slot, stamp);
+        }
+    }
+
+    private void removeWithHolder(@NonNull TtlHolder holder) {
+        if (!transmissionMode.isInheritable()) holder.removeNonInheritable(slot);
+        holder.remove(slot, stamp);
+        super.remove();
+    }
+
+    private boolean isInHolder(@NonNull TtlHolder holder) {
+        return holder.contains(slot, stamp);
+    }
+
+    private void addThisToHolder() {
+        TtlHolder.current().add(slot, stamp);
+    }
+
+    private void setThisToHolder() {
+        TtlHolder.current().set(slot, stamp);
+    }
+
     private void removeThisFromHolder() {
-        holder.get().remove(this);
+        TtlHolder.current().remove(slot, stamp);
     }
 
 
-    private static class TtlTransmittee implements Transmittee<HashMap<TransmittableThreadLocal<Object>, Object>, HashMap<TransmittableThreadLocal<Object>, Object>> {
+    private static class TtlTransmittee implements Transmittee<TtlSnapshot, TtlBackup>, EmptyContextAware, TransmittableLocalTransmittee {
         @NonNull
         @Override
-        public HashMap<TransmittableThreadLocal<Object>, Object> capture() {
-            final HashMap<TransmittableThreadLocal<Object>, Object> ttl2Value = newHashMap(holder.get().size());
-            for (TransmittableThreadLocal<Object> threadLocal : holder.get().keySet()) {
-                ttl2Value.put(threadLocal, threadLocal.getTransmitteeValue());
+        public TtlSnapshot capture() {
+            final TtlHolder holder = TtlHolder.current();
+            if (holder.size() == 0) return TtlSnapshot.EMPTY;
+
+            // the context is not changed since last capture, share the captured snapshot
+            final TtlSnapshot cached = holder.capturedSnapshot();
+            if (cached != null) return cached.shareable ? cached : transmit(cached);
+
+            final TtlSnapshot context = new TtlSnapshot(holder.size());
+            int[] transmitteeIndexes = null;
+            int transmitteeCount = 0;
+            for (int slot = holder.nextSetSlot(0); slot >= 0; slot = holder.nextSetSlot(slot + 1)) {
+                final TransmittableThreadLocal<Object> threadLocal = holder.lookup(slot);
+                if (threadLocal == null) continue;
+
+                final Object value = threadLocal.superGet();
+                if (threadLocal.isIdentityTransmitteeValue()) {
+                    final Object transmitteeValue = threadLocal.getTransmitteeValue(value);
+                    // the value is wrapped as the lazy transmittee value, the capture differs from the context of this thread
+                    if (transmitteeValue != value) context.lazy = true;
+                    context.append(threadLocal, transmitteeValue);
+                } else {
+                    // the customized transmittee value(e.g. a copy) may differ on every capture,
+                    // keep the value of this thread, computed to the transmittee value per capture
+                    if (transmitteeIndexes == null) transmitteeIndexes = new int[holder.size()];
+                    transmitteeIndexes[transmitteeCount++] = context.size;
+                    context.append(threadLocal, value);
+                }
             }
-            return ttl2Value;
+            // the captured snapshot is never modified after capture, safe to share
+            if (transmitteeIndexes == null) context.shareable = true;
+            else context.transmitteeIndexes = Arrays.copyOf(transmitteeIndexes, transmitteeCount);
+            holder.cacheCapturedSnapshot(context);
+            return context.shareable ? context : transmit(context);
+        }
+
+        /**
+         * Capture from the cached snapshot of the context that is NOT shareable,
+         * only the customized transmittee values are computed, without reading the values from the thread.
+         */
+        private static TtlSnapshot transmit(TtlSnapshot context) {
+            final TtlSnapshot captured = new TtlSnapshot();
+            captured.threadLocals = context.threadLocals;
+            captured.values = Arrays.copyOf(context.values, context.size);
+            captured.size = context.size;
+            captured.lazy = context.lazy;
+            captured.context = context;
+            for (int index : context.transmitteeIndexes) {
+                final Object value = captured.values[index];
+                final Object transmitteeValue = captured.threadLocals[index].getTransmitteeValue(value);
+                captured.values[index] = transmitteeValue;
+                if (transmitteeValue != value) captured.lazy = true;
+            }
+            return captured;
+        }
+
+        /**
+         * Capture the values of the given {@link TransmittableThreadLocal}s only, the capture of {@link TtlGroup}.
+         *
+         * @param threadLocals the {@link TransmittableThreadLocal}s in the ascending order of slots
+         */
+        @NonNull
+        TtlSnapshot capture(TransmittableThreadLocal<Object>[] threadLocals) {
+            final TtlHolder holder = TtlHolder.current();
+            if (holder.size() == 0) return TtlSnapshot.EMPTY;
+
+            TtlSnapshot captured = null;
+            boolean shareable = true;
+            for (TransmittableThreadLocal<Object> threadLocal : threadLocals) {
+                if (!threadLocal.isInHolder(holder)) continue;
+
+                if (captured == null) captured = new TtlSnapshot(Math.min(threadLocals.length, holder.size()));
+                final Object value = threadLocal.superGet();
+                final Object transmitteeValue = threadLocal.getTransmitteeValue(value);
+                captured.append(threadLocal, transmitteeValue);
+                shareable &= threadLocal.isIdentityTransmitteeValue();
+                if (transmitteeValue != value) captured.lazy = true;
+            }
+            if (captured == null) return TtlSnapshot.EMPTY;
+
+            // NOT cached as the capture of this thread, the snapshot is only a subset of the context;
+            // but it is the whole context of the replaying thread after replay.
+            captured.shareable = shareable;
+            return captured;
         }
 
         @NonNull
         @Override
-        public HashMap<TransmittableThreadLocal<Object>, Object> replay(@NonNull HashMap<TransmittableThreadLocal<Object>, Object> captured) {
-            final HashMap<TransmittableThreadLocal<Object>, Object> backup = newHashMap(holder.get().size());
+        public TtlBackup replay(@NonNull TtlSnapshot captured) {
+            final TtlHolder holder = TtlHolder.current();
+            // the thread already holds the captured context and the context is unchanged since,
+            // e.g. run in the capturing thread(CallerRunsPolicy, direct executor) or the nested replay;
+            // the replay is no-op, nothing changed.
+            final TtlBackup backup = holder.newBackup();
+            backup.captured = captured;
+            final TtlSnapshot previous = holder.capturedSnapshot();
+            if (captured == previous && !captured.lazy) {
+                backup.version = holder.version();
+                return backup;
+            }
 
-            for (final Iterator<TransmittableThreadLocal<Object>> iterator = holder.get().keySet().iterator(); iterator.hasNext(); ) {
-                TransmittableThreadLocal<Object> threadLocal = iterator.next();
+            // only touch the entries that differ between the context of this thread and the captured,
+            // and backup the values before replay of these entries.
+            if (previous != null && !previous.lazy) {
+                // the cached capture is exactly the context of this thread,
+                // diff the two snapshots without reading the values of the unchanged entries from the thread.
+                replayBySnapshot(holder, previous, captured, backup.delta);
+                backup.previous = previous;
+            } else {
+                replayByHolder(holder, captured, backup.delta);
+            }
 
-                // backup
-                backup.put(threadLocal, threadLocal.get());
+            // the context of this thread is exactly the captured snapshot now
+            if (captured.shareable && captured.size > 0) holder.cacheCapturedSnapshot(captured);
 
-                // clear the TTL values that is not in captured
-                // avoid the extra TTL values after replay when run task
-                if (!captured.containsKey(threadLocal)) {
-                    iterator.remove();
-                    threadLocal.superRemove();
+            backup.version = holder.version();
+            return backup;
+        }
+
+        private static void replayBySnapshot(TtlHolder holder, TtlSnapshot previous, TtlSnapshot captured, TtlSnapshot delta) {
+            int previousIndex = 0;
+            int capturedIndex = 0;
+            while (previousIndex < previous.size || capturedIndex < captured.size) {
+                final int previousSlot = previousIndex < previous.size ? previous.threadLocals[previousIndex].slot : Integer.MAX_VALUE;
+                final int capturedSlot = capturedIndex < captured.size ? captured.threadLocals[capturedIndex].slot : Integer.MAX_VALUE;
+                if (previousSlot < capturedSlot) {
+                    // clear the TTL values that is not in captured
+                    final TransmittableThreadLocal<Object> threadLocal = previous.threadLocals[previousIndex];
+                    delta.append(threadLocal, previous.values[previousIndex++]);
+                    threadLocal.removeWithHolder(holder);
+                } else if (capturedSlot < previousSlot) {
+                    // set the captured TTL values that is not in this thread
+                    final TransmittableThreadLocal<Object> threadLocal = captured.threadLocals[capturedIndex];
+                    delta.append(threadLocal, TtlBackup.ABSENT);
+                    threadLocal.setWithHolder(holder, captured.values[capturedIndex++]);
+                } else {
+                    // the same slot of the alive TTLs, aka. the same TTL
+                    final Object value = previous.values[previousIndex++];
+                    final Object capturedValue = captured.values[capturedIndex];
+                    if (value != capturedValue) {
+                        final TransmittableThreadLocal<Object> threadLocal = captured.threadLocals[capturedIndex];
+                        delta.append(threadLocal, value);
+                        threadLocal.setWithHolder(holder, capturedValue);
+                    }
+                    capturedIndex++;
                 }
             }
+        }
 
-            // set TTL values to captured
-            setTtlValuesTo(captured);
+        private static void replayByHolder(TtlHolder holder, TtlSnapshot captured, TtlSnapshot delta) {
+            int capturedIndex = 0;
+            for (int slot = holder.nextSetSlot(0); slot >= 0; slot = holder.nextSetSlot(slot + 1)) {
+                final TransmittableThreadLocal<Object> threadLocal = holder.lookup(slot);
+                if (threadLocal == null) continue;
 
-            return backup;
+                // set the captured TTL values that is not in this thread
+                for (; capturedIndex < captured.size && captured.threadLocals[capturedIndex].slot < slot; capturedIndex++) {
+                    delta.append(captured.threadLocals[capturedIndex], TtlBackup.ABSENT);
+                    captured.threadLocals[capturedIndex].setWithHolder(holder, captured.values[capturedIndex]);
+                }
+
+                final Object value = threadLocal.superGet();
+                if (captured.isIndexOf(capturedIndex, slot)) {
+                    final Object capturedValue = captured.values[capturedIndex++];
+                    if (value == capturedValue) continue;
+
+                    delta.append(threadLocal, value);
+                    threadLocal.setWithHolder(holder, capturedValue);
+                } else {
+                    // clear the TTL values that is not in captured
+                    // avoid the extra TTL values after replay when run task
+                    delta.append(threadLocal, value);
+                    threadLocal.removeWithHolder(holder);
+                }
+            }
+            for (; capturedIndex < captured.size; capturedIndex++) {
+                delta.append(captured.threadLocals[capturedIndex], TtlBackup.ABSENT);
+                captured.threadLocals[capturedIndex].setWithHolder(holder, captured.values[capturedIndex]);
+            }
         }
 
         @NonNull
         @Override
-        public HashMap<TransmittableThreadLocal<Object>, Object> clear() {
-            return replay(newHashMap(0));
+        public TtlBackup clear() {
+            return replay(TtlSnapshot.EMPTY);
         }
 
         @Override
-        public void restore(@NonNull HashMap<TransmittableThreadLocal<Object>, Object> backup) {
-            for (final Iterator<TransmittableThreadLocal<Object>> iterator = holder.get().keySet().iterator(); iterator.hasNext(); ) {
-                TransmittableThreadLocal<Object> threadLocal = iterator.next();
+        public void restore(@NonNull TtlBackup backup) {
+            final TtlHolder holder = TtlHolder.current();
+            final TtlSnapshot delta = backup.delta;
+
+            // the context of this thread is unchanged since replay, merely revert the deltas
+            if (holder.version() == backup.version) {
+                for (int i = 0; i < delta.size; i++) {
+                    final Object value = delta.values[i];
+                    if (value == TtlBackup.ABSENT) delta.threadLocals[i].removeWithHolder(holder);
+                    else delta.threadLocals[i].setWithHolder(holder, value);
+                }
+                // the context before replay is restored, so is its capture; the next replay diffs the snapshots again
+                if (backup.previous != null) holder.cacheCapturedSnapshot(backup.previous);
+                return;
+            }
+
+            // the context is changed after replay(e.g. by the task),
+            // the context to restore is the captured snapshot overlaid by the deltas;
+            // the changed context is unknown, so walk all the set slots and read their values.
+            final TtlSnapshot captured = backup.captured;
+            int capturedIndex = 0;
+            int deltaIndex = 0;
+            for (int slot = holder.nextSetSlot(0); slot >= 0; slot = holder.nextSetSlot(slot + 1)) {
+                final TransmittableThreadLocal<Object> threadLocal = holder.lookup(slot);
+                if (threadLocal == null) continue;
+
+                deltaIndex = delta.indexOf(slot, deltaIndex);
+                capturedIndex = captured.indexOf(slot, capturedIndex);
+                final Object value;
+                if (delta.isIndexOf(deltaIndex, slot)) value = delta.values[deltaIndex];
+                else if (captured.isIndexOf(capturedIndex, slot)) value = captured.values[capturedIndex];
+                else value = TtlBackup.ABSENT;
 
                 // clear the TTL values that is not in backup
                 // avoid the extra TTL values after restore
-                if (!backup.containsKey(threadLocal)) {
-                    iterator.remove();
-                    threadLocal.superRemove();
-                }
+                if (value == TtlBackup.ABSENT) threadLocal.removeWithHolder(holder);
+                else if (threadLocal.superGet() != value) threadLocal.setWithHolder(holder, value);
             }
 
-            // restore TTL values
-            setTtlValuesTo(backup);
+            // restore the TTL values that is removed after replay
+            for (int i = 0; i < delta.size; i++) {
+                final TransmittableThreadLocal<Object> threadLocal = delta.threadLocals[i];
+                final Object value = delta.values[i];
+                if (value != TtlBackup.ABSENT && !threadLocal.isInHolder(holder)) threadLocal.setWithHolder(holder, value);
+            }
+            deltaIndex = 0;
+            for (int i = 0; i < captured.size; i++) {
+                final TransmittableThreadLocal<Object> threadLocal = captured.threadLocals[i];
+                deltaIndex = delta.indexOf(threadLocal.slot, deltaIndex);
+                if (delta.isIndexOf(deltaIndex, threadLocal.slot)) continue;
+                if (!threadLocal.isInHolder(holder)) threadLocal.setWithHolder(holder, captured.values[i]);
+            }
         }
 
-        private static void setTtlValuesTo(@NonNull HashMap<TransmittableThreadLocal<Object>, Object> ttlValues) {
-            for (Map.Entry<TransmittableThreadLocal<Object>, Object> entry : ttlValues.entrySet()) {
-                TransmittableThreadLocal<Object> threadLocal = entry.getKey();
-                threadLocal.set(entry.getValue());
-            }
+        @Override
+        public boolean isEmptyContext() {
+            return TtlHolder.current().size() == 0;
+        }
+
+        @Override
+        public void release(@NonNull TtlBackup backup) {
+            TtlHolder.current().recycleBackup(backup);
         }
     }
 
     private static final TtlTransmittee ttlTransmittee = new TtlTransmittee();
 
+    /**
+     * the capture of {@link TtlGroup}.
+     */
+    @NonNull
+    static Capture captureGroup(TransmittableThreadLocal<Object>[] threadLocals) {
+        return Transmitter.captureOnly(ttlTransmittee, ttlTransmittee.capture(threadLocals));
+    }
+
     static {
         TransmitteeRegistry.registerTransmittee(ttlTransmittee);
     }
@@ -0,0 +1,48 @@
+package com.alibaba.ttl3;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * The backup of {@link TransmittableThreadLocal}s from the replay.
+ * <p>
+ * The backup only records the entries changed by the replay(the deltas),
+ * the value {@link #ABSENT} means the {@link TransmittableThreadLocal} is not set before the replay.
+ * <p>
+ * The deltas are found by diffing the captured snapshot against the cached capture of the thread context
+ * (see {@link TtlHolder#capturedSnapshot()}) if present, without reading the values of the unchanged entries;
+ * otherwise, by walking the set slots of the thread and reading their values.
+ * <p>
+ * If the context of the thread is unchanged after the replay(checked by the context version),
+ * the restore merely reverts the deltas; otherwise, the context before the replay is
+ * the replayed captured snapshot overlaid by the deltas, and the restore walks the set slots of the thread.
+ * <p>
+ * The released backup is recycled by the later replay of the same thread(see {@link TtlHolder}),
+ * so the backup is mutable.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TtlSnapshot
+ * @see TtlHolder#version()
+ */
+final class TtlBackup {
+    static final Object ABSENT = new Object();
+
+    // the replayed captured snapshot
+    TtlSnapshot captured;
+    // the cached capture of the context before replay, null if not cached
+    @Nullable
+    TtlSnapshot previous;
+    // the changed entries by replay, the values before replay
+    final TtlSnapshot delta = new TtlSnapshot();
+    // the context version of the thread after replay
+    int version;
+
+    /**
+     * Clear the references of this backup, then this backup can be recycled.
+     */
+    void clear() {
+        captured = null;
+        previous = null;
+        delta.clear();
+    }
+}
@@ -2,10 +2,11 @@ package com.alibaba.ttl3;
 
 import com.alibaba.crr.composite.Backup;
 import com.alibaba.crr.composite.Capture;
-import com.alibaba.ttl3.spi.TtlAttachments;
-import com.alibaba.ttl3.spi.TtlAttachmentsDelegate;
+import com.alibaba.ttl3.internal.util.TransmitScope;
 import com.alibaba.ttl3.spi.TtlEnhanced;
 import com.alibaba.ttl3.spi.TtlWrapper;
+import com.alibaba.ttl3.transmitter.Transmittee;
+import com.alibaba.ttl3.transmitter.TransmitteePolicy;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -16,7 +17,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static com.alibaba.ttl3.transmitter.Transmitter.*;
 
@@ -39,13 +40,19 @@ import static com.alibaba.ttl3.transmitter.Transmitter.*;
  * @see java.util.concurrent.CompletionService
  * @see java.util.concurrent.ExecutorCompletionService
  */
-public final class TtlCallable<V> implements Callable<V>, TtlWrapper<Callable<V>>, TtlEnhanced, TtlAttachments {
-    private final AtomicReference<Capture> capturedRef;
+public final class TtlCallable<V> extends CompactTtlAttachments implements Callable<V>, TtlWrapper<Callable<V>>, TtlEnhanced {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<TtlCallable, Capture> capturedUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(TtlCallable.class, Capture.class, "captured");
+
+    // compact layout(with the lazy attachments of CompactTtlAttachments): no AtomicReference/attachments map per wrapper,
+    // since a wrapper is created for every submitted task and may stay long in the task queue.
+    private volatile Capture captured;
     private final Callable<V> callable;
     private final boolean releaseTtlValueReferenceAfterCall;
 
-    private TtlCallable(@NonNull Callable<V> callable, boolean releaseTtlValueReferenceAfterCall) {
-        this.capturedRef = new AtomicReference<>(capture());
+    private TtlCallable(@NonNull Callable<V> callable, boolean releaseTtlValueReferenceAfterCall, @NonNull Capture captured) {
+        this.captured = captured;
         this.callable = callable;
         this.releaseTtlValueReferenceAfterCall = releaseTtlValueReferenceAfterCall;
     }
@@ -56,16 +63,23 @@ public final class TtlCallable<V> implements Callable<V>, TtlWrapper<Callable<V>
     @Override
     @SuppressFBWarnings("THROWS_METHOD_THROWS_CLAUSE_BASIC_EXCEPTION")
     public V call() throws Exception {
-        final Capture captured = capturedRef.get();
-        if (captured == null || releaseTtlValueReferenceAfterCall && !capturedRef.compareAndSet(captured, null)) {
+        final Capture captured = this.captured;
+        if (captured == null || releaseTtlValueReferenceAfterCall && !capturedUpdater.compareAndSet(this, captured, null)) {
             throw new IllegalStateException("TTL value reference is released after call!");
         }
 
+        // the transmitted values of TransmittableScopedValue are bound by ScopedValue for the scope of the call
+        if (TransmitScope.needsScope(captured)) return TransmitScope.call(() -> call(captured));
+        return call(captured);
+    }
+
+    @SuppressFBWarnings("THROWS_METHOD_THROWS_CLAUSE_BASIC_EXCEPTION")
+    private V call(Capture captured) throws Exception {
         final Backup backup = replay(captured);
         try {
             return callable.call();
         } finally {
-            restore(backup);
+            restoreAndRelease(backup);
         }
     }
 
@@ -138,12 +152,51 @@ public final class TtlCallable<V> implements Callable<V>, TtlWrapper<Callable<V>
     public static <T> TtlCallable<T> get(@Nullable Callable<T> callable, boolean releaseTtlValueReferenceAfterCall, boolean idempotent) {
         if (callable == null) return null;
 
-        if (callable instanceof TtlEnhanced) {
-            // avoid redundant decoration, and ensure idempotency
-            if (idempotent) return (TtlCallable<T>) callable;
-            else throw new IllegalStateException("Already TtlCallable!");
-        }
-        return new TtlCallable<>(callable, releaseTtlValueReferenceAfterCall);
+        if (callable instanceof TtlEnhanced) return getEnhanced(callable, idempotent);
+        return new TtlCallable<>(callable, releaseTtlValueReferenceAfterCall, capture());
+    }
+
+    /**
+     * Factory method, wrap input {@link Callable} to {@link TtlCallable}.
+     * <p>
+     * This method is idempotent.
+     *
+     * @param callable                          input {@link Callable}
+     * @param releaseTtlValueReferenceAfterCall release TTL value reference after run, avoid memory leak even if {@link TtlRunnable} is referred.
+     * @param idempotent                        is idempotent or not. {@code true} will cover up bugs! <b>DO NOT</b> set, only when you know why.
+     * @param policy                            the transmittee policy, capture only the {@link Transmittee}s chosen by the policy.
+     * @return Wrapped {@link Callable}
+     */
+    @Nullable
+    @Contract(value = "null, _, _, _ -> null; !null, _, _, _ -> !null", pure = true)
+    public static <T> TtlCallable<T> get(@Nullable Callable<T> callable, boolean releaseTtlValueReferenceAfterCall, boolean idempotent, @NonNull TransmitteePolicy policy) {
+        if (callable == null) return null;
+
+        if (callable instanceof TtlEnhanced) return getEnhanced(callable, idempotent);
+        return new TtlCallable<>(callable, releaseTtlValueReferenceAfterCall, policy.capture());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> TtlCallable<T> getEnhanced(Callable<T> callable, boolean idempotent) {
+        // avoid redundant decoration, and ensure idempotency
+        if (idempotent) return (TtlCallable<T>) callable;
+        else throw new IllegalStateException("Already TtlCallable!");
+    }
+
+    /**
+     * Factory method, wrap input {@link Callable} to {@link TtlCallable},
+     * capture only the {@link Transmittee}s chosen by the transmittee policy.
+     *
+     * @param callable input {@link Callable}. if input is {@code null}, return {@code null}.
+     * @param policy   the transmittee policy
+     * @return Wrapped {@link Callable}
+     * @throws IllegalStateException when input is {@link TtlCallable} already.
+     * @see TransmitteePolicy
+     */
+    @Nullable
+    @Contract(value = "null, _ -> null; !null, _ -> !null", pure = true)
+    public static <T> TtlCallable<T> get(@Nullable Callable<T> callable, @NonNull TransmitteePolicy policy) {
+        return get(callable, false, false, policy);
     }
 
     /**
@@ -188,6 +241,26 @@ public final class TtlCallable<V> implements Callable<V>, TtlWrapper<Callable<V>
         return copy;
     }
 
+    /**
+     * wrap input {@link Callable} Collection to {@link TtlCallable} Collection.
+     *
+     * @param tasks                             task to be wrapped
+     * @param releaseTtlValueReferenceAfterCall release TTL value reference after run, avoid memory leak even if {@link TtlRunnable} is referred.
+     * @param idempotent                        is idempotent or not. {@code true} will cover up bugs! <b>DO NOT</b> set, only when you know why.
+     * @param policy                            the transmittee policy, capture only the {@link Transmittee}s chosen by the policy.
+     * @return Wrapped {@link Callable}
+     */
+    @NonNull
+    public static <T> List<TtlCallable<T>> gets(@Nullable Collection<? extends Callable<T>> tasks, boolean releaseTtlValueReferenceAfterCall, boolean idempotent, @NonNull TransmitteePolicy policy) {
+        if (tasks == null) return Collections.emptyList();
+
+        List<TtlCallable<T>> copy = new ArrayList<>();
+        for (Callable<T> task : tasks) {
+            copy.add(TtlCallable.get(task, releaseTtlValueReferenceAfterCall, idempotent, policy));
+        }
+        return copy;
+    }
+
     /**
      * Unwrap {@link TtlCallable} to the original/underneath one.
      * <p>
@@ -227,22 +300,4 @@ public final class TtlCallable<V> implements Callable<V>, TtlWrapper<Callable<V>
         }
         return copy;
     }
-
-    private final TtlAttachmentsDelegate ttlAttachment = new TtlAttachmentsDelegate();
-
-    /**
-     * see {@link TtlAttachments#setTtlAttachment(String, Object)}
-     */
-    @Override
-    public void setTtlAttachment(@NonNull String key, Object value) {
-        ttlAttachment.setTtlAttachment(key, value);
-    }
-
-    /**
-     * see {@link TtlAttachments#getTtlAttachment(String)}
-     */
-    @Override
-    public <T> T getTtlAttachment(@NonNull String key) {
-        return ttlAttachment.getTtlAttachment(key);
-    }
 }
@@ -0,0 +1,127 @@
+package com.alibaba.ttl3;
+
+import com.alibaba.crr.composite.Capture;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The transmission group of {@link TransmittableThreadLocal}s,
+ * the filter to transmit only the selected {@link TransmittableThreadLocal}s to a task.
+ * <p>
+ * The {@link TransmittableThreadLocal}s join the group at construction({@link TransmittableThreadLocal#TransmittableThreadLocal(TtlGroup)}):
+ * <pre>{@code
+ * static final TtlGroup TRACE_GROUP = TtlGroup.newGroup("trace");
+ *
+ * static final TransmittableThreadLocal<String> traceId = new TransmittableThreadLocal<>(TRACE_GROUP);
+ * static final TransmittableThreadLocal<String> tenantId = new TransmittableThreadLocal<>(TRACE_GROUP);
+ *
+ * static final TransmitteePolicy TRACE_POLICY = TransmitteePolicy.ofGroup(TRACE_GROUP);
+ *
+ * executorService.submit(TtlRunnable.get(hotTask, TRACE_POLICY));
+ * // or
+ * TtlExecutors.getTtlExecutorService(executorService, TRACE_POLICY).submit(hotTask);
+ * }</pre>
+ * The capture of a group captures only the values of the {@link TransmittableThreadLocal}s of the group,
+ * so the capture size and the replay work scale with the group, instead of all the values of the thread.
+ * <p>
+ * <B><I>NOTE:</I></B><br>
+ * During the task execution, the values of the {@link TransmittableThreadLocal}s of the group are the captured ones,
+ * the other {@link TransmittableThreadLocal}s are cleared as the normal replay;
+ * the registered {@link ThreadLocal}s and other {@link com.alibaba.ttl3.transmitter.Transmittee Transmittee}s
+ * are NOT transmitted by the group capture, and untouched.
+ * <p>
+ * <B><I>CAUTION:</I></B><br>
+ * The group holds its {@link TransmittableThreadLocal}s strongly, like the {@code static final} fields;
+ * do NOT include the dynamically created {@link TransmittableThreadLocal}s.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see com.alibaba.ttl3.transmitter.TransmitteePolicy#ofGroup(TtlGroup)
+ */
+public final class TtlGroup {
+    private static final Comparator<TransmittableThreadLocal<Object>> SLOT_ORDER = Comparator.comparingInt(o -> o.slot);
+
+    private final String name;
+
+    private final Object lock = new Object();
+    // the members in the ascending order of slots(the order of TtlSnapshot), copy-on-write under the lock
+    private volatile TransmittableThreadLocal<Object>[] threadLocals;
+
+    @SuppressWarnings("unchecked")
+    private TtlGroup(@NonNull String name) {
+        this.name = name;
+        this.threadLocals = (TransmittableThreadLocal<Object>[]) new TransmittableThreadLocal<?>[0];
+    }
+
+    /**
+     * Create a transmission group.
+     *
+     * @param name the group name, for the diagnosis
+     */
+    @NonNull
+    public static TtlGroup newGroup(@NonNull String name) {
+        return new TtlGroup(name);
+    }
+
+    /**
+     * Include the {@link TransmittableThreadLocal} to this group,
+     * e.g. the {@link TransmittableThreadLocal} created by {@link TransmittableThreadLocal#withInitial(java.util.function.Supplier)}.
+     * <p>
+     * Prefer including at construction by {@link TransmittableThreadLocal#TransmittableThreadLocal(TtlGroup)}.
+     *
+     * @return the input {@link TransmittableThreadLocal}
+     */
+    @NonNull
+    @SuppressWarnings("unchecked")
+    public <T extends TransmittableThreadLocal<?>> T include(@NonNull T threadLocal) {
+        if (threadLocal == null) throw new NullPointerException("threadLocal is null");
+
+        synchronized (lock) {
+            final TransmittableThreadLocal<Object>[] current = threadLocals;
+            for (TransmittableThreadLocal<Object> t : current) {
+                if (t == threadLocal) return threadLocal;
+            }
+
+            final TransmittableThreadLocal<Object>[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = (TransmittableThreadLocal<Object>) threadLocal;
+            Arrays.sort(updated, SLOT_ORDER);
+            threadLocals = updated;
+        }
+        return threadLocal;
+    }
+
+    /**
+     * Whether the {@link TransmittableThreadLocal} is included in this group.
+     */
+    public boolean contains(@NonNull TransmittableThreadLocal<?> threadLocal) {
+        for (TransmittableThreadLocal<Object> t : threadLocals) {
+            if (t == threadLocal) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Capture the values of the {@link TransmittableThreadLocal}s of this group in the current thread.
+     * <p>
+     * The returned capture is used as the capture of {@link com.alibaba.ttl3.transmitter.Transmitter#capture()},
+     * e.g. {@link com.alibaba.ttl3.transmitter.Transmitter#replay(Capture)}.
+     */
+    @NonNull
+    public Capture capture() {
+        return TransmittableThreadLocal.captureGroup(threadLocals);
+    }
+
+    /**
+     * the group name.
+     */
+    @NonNull
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "TtlGroup(" + name + ")";
+    }
+}
@@ -0,0 +1,330 @@
+package com.alibaba.ttl3;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * The per-thread holder of the set {@link TransmittableThreadLocal}s.
+ * <p>
+ * The holder is a compact bitset of slots(allocated by {@link TtlSlotTable}) with the stamp of every set slot,
+ * so the {@link TransmittableThreadLocal#get()}/{@link TransmittableThreadLocal#set(Object)}
+ * need no hashing and no weak reference per {@link TransmittableThreadLocal} per thread.
+ * <p>
+ * The holder only refers to the slots, NOT the {@link TransmittableThreadLocal} instances,
+ * so the holder never prevents a {@link TransmittableThreadLocal} instance from being collected.
+ * <p>
+ * The holder also records the version of the TTL context of the thread,
+ * and caches the capture of current version; the fan-out submissions from an unchanged context
+ * share the same captured snapshot, the capture cost does not depend on the count of TTLs.
+ * If the context has the TTLs of the customized transmittee value({@link TransmittableThreadLocal#transmitteeValue(Object)}),
+ * only these transmittee values are computed on every capture, the cost is linear in the count of them.
+ * The cached capture is held weakly(it refers to the {@link TransmittableThreadLocal} instances),
+ * and is dropped on the context change, include the slot of a collected instance is cleared.
+ * <p>
+ * The arrays of the holder are inherited by the child thread copy-on-write,
+ * the parent and child holders copy the shared arrays on their first modification.
+ * This only saves the copy of the holder: every {@link TransmittableThreadLocal} is an {@link InheritableThreadLocal},
+ * so the thread creation still inherits(by {@link TransmittableThreadLocal#childValue(Object)}) the value of
+ * every {@link TransmittableThreadLocal} set in the parent thread, the cost is linear in the count of them.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TtlSlotTable
+ */
+final class TtlHolder {
+    private static final int BITS_PER_WORD = 64;
+    private static final long[] EMPTY_BITS = new long[0];
+    private static final int[] EMPTY_STAMPS = new int[0];
+
+    // Note about the holder:
+    // 1. holder self is a InheritableThreadLocal(a *ThreadLocal*).
+    // 2. the child thread shares the arrays of the parent holder, copy-on-write;
+    //    so the thread creation does not copy the holder, except the bits if the parent holds non-inheritable TTLs.
+    //    the values of TTLs are still inherited one by one by the JDK, see the class doc.
+    private static final InheritableThreadLocal<TtlHolder> holder = new InheritableThreadLocal<TtlHolder>() {
+        @Override
+        protected TtlHolder initialValue() {
+            return new TtlHolder(EMPTY_BITS, EMPTY_STAMPS, 0);
+        }
+
+        @Override
+        protected TtlHolder childValue(TtlHolder parentValue) {
+            final long[] filteredBits = filterNonInheritable(parentValue.bits);
+            final TtlHolder child;
+            if (filteredBits == null) {
+                child = new TtlHolder(parentValue.bits, parentValue.stamps, parentValue.size);
+            } else {
+                // the parent holds the TTLs excluded from the inheritance, the child gets the filtered copy of bits;
+                // the stamps are still shared, the stamps of the filtered-out slots are ignored
+                int size = 0;
+                for (long word : filteredBits) size += Long.bitCount(word);
+                child = new TtlHolder(filteredBits, parentValue.stamps, size);
+            }
+
+            parentValue.shared = true;
+            child.shared = true;
+
+            // the child thread holds the child values of the non-inheritable slots held by the parent thread
+            if (parentValue.nonInheritableHeld.length != 0) {
+                parentValue.nonInheritableShared = true;
+                child.nonInheritableHeld = parentValue.nonInheritableHeld;
+                child.notInherited = parentValue.nonInheritableHeld;
+                child.nonInheritableShared = true;
+            }
+            return child;
+        }
+    };
+
+    @NonNull
+    static TtlHolder current() {
+        return holder.get();
+    }
+
+    /**
+     * Filter out the slots excluded from the inheritance.
+     *
+     * @return the filtered copy of bits, or {@code null} if no slot is excluded
+     */
+    @Nullable
+    private static long[] filterNonInheritable(long[] bits) {
+        final long[] nonInheritableSlots = TtlSlotTable.nonInheritableSlots();
+        final int length = Math.min(bits.length, nonInheritableSlots.length);
+
+        long[] filtered = null;
+        for (int i = 0; i < length; i++) {
+            if ((bits[i] & nonInheritableSlots[i]) == 0) continue;
+
+            if (filtered == null) filtered = bits.clone();
+            filtered[i] &= ~nonInheritableSlots[i];
+        }
+        return filtered;
+    }
+
+    // the bitset of set slots
+    private long[] bits;
+    // the stamp of set slot, indexed by slot
+    private int[] stamps;
+    private int size;
+    // whether the arrays are shared with the holder of parent/child thread, copy before modification
+    private boolean shared;
+
+    // the modification count of this holder, aka. the version of the TTL context of the thread
+    private int version;
+    // the capture of current version, shared by all captures until the next modification;
+    // weak, the cache is kept by the tasks holding the capture, and never keeps the captured TTLs alive.
+    @Nullable
+    private WeakReference<TtlSnapshot> captured;
+    // the released backup, recycled by the later replay
+    private TtlBackup recycledBackup;
+
+    // the slots of the TTLs excluded from the inheritance that have a value(may be null) in this thread,
+    // shared with the holder of parent/child thread, copy before modification;
+    // the child thread holds the values of these slots as well(by InheritableThreadLocal), marked as not inherited.
+    private long[] nonInheritableHeld = EMPTY_BITS;
+    // the slots whose value in this thread is inherited from the parent thread but excluded from the inheritance,
+    // shared with the holder of parent thread, copy before modification; see takeNotInherited
+    private long[] notInherited = EMPTY_BITS;
+    private boolean nonInheritableShared = false;
+
+    private TtlHolder(long[] bits, int[] stamps, int size) {
+        this.bits = bits;
+        this.stamps = stamps;
+        this.size = size;
+    }
+
+    /**
+     * Take the not-inherited mark of the slot excluded from the inheritance,
+     * the mark is taken at most once in a thread.
+     * <p>
+     * The mark is only present if the parent thread held the value of the slot at the creation of this thread,
+     * so the value of the slot in this thread is the child value.
+     *
+     * @return {@code true} if the value of the slot in this thread is inherited from the parent thread,
+     * and should be discarded if the child value is {@code null}
+     */
+    boolean takeNotInherited(int slot) {
+        final int wordIndex = slot / BITS_PER_WORD;
+        final long mask = 1L << slot;
+        if (wordIndex >= notInherited.length || (notInherited[wordIndex] & mask) == 0) return false;
+
+        if (nonInheritableShared) copyNonInheritable();
+        notInherited[wordIndex] &= ~mask;
+        return true;
+    }
+
+    /**
+     * Record that the slot excluded from the inheritance has a value in this thread, and is no longer the child value.
+     */
+    void addNonInheritable(int slot) {
+        final int wordIndex = slot / BITS_PER_WORD;
+        final long mask = 1L << slot;
+        final boolean marked = wordIndex < notInherited.length && (notInherited[wordIndex] & mask) != 0;
+        if (!marked && wordIndex < nonInheritableHeld.length && (nonInheritableHeld[wordIndex] & mask) != 0) return;
+
+        if (nonInheritableShared) copyNonInheritable();
+        if (marked) notInherited[wordIndex] &= ~mask;
+        if (wordIndex >= nonInheritableHeld.length) nonInheritableHeld = Arrays.copyOf(nonInheritableHeld, wordIndex + 1);
+        nonInheritableHeld[wordIndex] |= mask;
+    }
+
+    /**
+     * Record that the slot excluded from the inheritance has no value in this thread.
+     */
+    void removeNonInheritable(int slot) {
+        final int wordIndex = slot / BITS_PER_WORD;
+        final long mask = 1L << slot;
+        final boolean marked = wordIndex < notInherited.length && (notInherited[wordIndex] & mask) != 0;
+        final boolean held = wordIndex < nonInheritableHeld.length && (nonInheritableHeld[wordIndex] & mask) != 0;
+        if (!marked && !held) return;
+
+        if (nonInheritableShared) copyNonInheritable();
+        if (marked) notInherited[wordIndex] &= ~mask;
+        if (held) nonInheritableHeld[wordIndex] &= ~mask;
+    }
+
+    private void copyNonInheritable() {
+        nonInheritableHeld = nonInheritableHeld.clone();
+        notInherited = notInherited.clone();
+        nonInheritableShared = false;
+    }
+
+    /**
+     * The count of set slots, may include the slots of collected {@link TransmittableThreadLocal}s.
+     */
+    int size() {
+        return size;
+    }
+
+    boolean contains(int slot, int stamp) {
+        final int wordIndex = slot / BITS_PER_WORD;
+        return wordIndex < bits.length && (bits[wordIndex] & (1L << slot)) != 0 && stamps[slot] == stamp;
+    }
+
+    /**
+     * The version of the TTL context of the thread, changed on every set/remove of TTL values.
+     */
+    int version() {
+        return version;
+    }
+
+    /**
+     * The cached capture of current version, or {@code null} if not cached.
+     */
+    @Nullable
+    TtlSnapshot capturedSnapshot() {
+        final WeakReference<TtlSnapshot> ref = captured;
+        return ref == null ? null : ref.get();
+    }
+
+    void cacheCapturedSnapshot(@NonNull TtlSnapshot snapshot) {
+        if (capturedSnapshot() != snapshot) captured = new WeakReference<>(snapshot);
+    }
+
+    /**
+     * Get a backup for replay, the recycled one if present.
+     */
+    @NonNull
+    TtlBackup newBackup() {
+        final TtlBackup backup = recycledBackup;
+        if (backup == null) return new TtlBackup();
+
+        recycledBackup = null;
+        return backup;
+    }
+
+    void recycleBackup(@NonNull TtlBackup backup) {
+        backup.clear();
+        recycledBackup = backup;
+    }
+
+    /**
+     * Mark the slot as set, and change the context version since the value of the slot is set.
+     */
+    void set(int slot, int stamp) {
+        add(slot, stamp);
+        modified();
+    }
+
+    /**
+     * Mark the slot as set; the context version is only changed if the slot is newly added.
+     */
+    void add(int slot, int stamp) {
+        if (contains(slot, stamp)) return;
+
+        final int wordIndex = slot / BITS_PER_WORD;
+        if (shared || wordIndex >= bits.length || slot >= stamps.length) {
+            copyArrays(Math.max(wordIndex + 1, TtlSlotTable.capacity() / BITS_PER_WORD),
+                    Math.max(slot + 1, TtlSlotTable.capacity()));
+        }
+
+        final long mask = 1L << slot;
+        if ((bits[wordIndex] & mask) == 0) {
+            bits[wordIndex] |= mask;
+            size++;
+        }
+        stamps[slot] = stamp;
+        modified();
+    }
+
+    void remove(int slot, int stamp) {
+        if (!contains(slot, stamp)) return;
+
+        clearSlot(slot);
+    }
+
+    /**
+     * Find the next set slot at or after the input slot, the iteration of the set slots is in the ascending order.
+     * <p>
+     * It's safe to remove slots from this holder during the iteration.
+     *
+     * @return the next set slot, or {@code -1} if there is no such slot
+     */
+    int nextSetSlot(int fromSlot) {
+        int wordIndex = fromSlot / BITS_PER_WORD;
+        if (wordIndex >= bits.length) return -1;
+
+        long word = bits[wordIndex] & (-1L << fromSlot);
+        while (true) {
+            if (word != 0) return wordIndex * BITS_PER_WORD + Long.numberOfTrailingZeros(word);
+            if (++wordIndex == bits.length) return -1;
+            word = bits[wordIndex];
+        }
+    }
+
+    /**
+     * Get the {@link TransmittableThreadLocal} instance of the set slot.
+     * <p>
+     * If the {@link TransmittableThreadLocal} instance is collected(or the slot is recycled),
+     * the slot is removed from this holder, and return {@code null}.
+     */
+    @Nullable
+    TransmittableThreadLocal<Object> lookup(int slot) {
+        final TransmittableThreadLocal<Object> threadLocal = TtlSlotTable.lookup(slot, stamps[slot]);
+        if (threadLocal == null) clearSlot(slot);
+        return threadLocal;
+    }
+
+    private void clearSlot(int slot) {
+        if (shared) copyArrays(bits.length, stamps.length);
+
+        bits[slot / BITS_PER_WORD] &= ~(1L << slot);
+        size--;
+        modified();
+    }
+
+    /**
+     * Copy the arrays to the private ones, with the at-least lengths.
+     */
+    private void copyArrays(int bitsLength, int stampsLength) {
+        bits = Arrays.copyOf(bits, Math.max(bits.length, bitsLength));
+        stamps = Arrays.copyOf(stamps, Math.max(stamps.length, stampsLength));
+        shared = false;
+    }
+
+    private void modified() {
+        version++;
+        captured = null;
+    }
+}
@@ -0,0 +1,197 @@
+package com.alibaba.ttl3;
+
+import com.alibaba.crr.EmptyContextAware;
+import com.alibaba.ttl3.internal.util.TransmittableLocalTransmittee;
+import com.alibaba.ttl3.transmitter.Transmittee;
+import com.alibaba.ttl3.transmitter.TransmitteeRegistry;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The per-thread holder of the primitive transmittable locals
+ * ({@link TransmittableLongLocal}, {@link TransmittableIntLocal}, {@link TransmittableBooleanLocal}).
+ * <p>
+ * The values of all primitive locals are stored in a per-thread {@code long} array indexed by the slot of the local,
+ * with a bitset of the set slots; so the get/set of a primitive local never boxes.
+ * <p>
+ * The arrays are copy-on-write: the capture is the arrays of the thread(marked as shared),
+ * the replay/restore merely installs the arrays of the captured/backup snapshot,
+ * and the thread copies the shared arrays on its first set/remove after share.
+ * So the capture/replay/restore never box and never copy the values.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TransmittableLongLocal
+ * @see TransmittableIntLocal
+ * @see TransmittableBooleanLocal
+ */
+final class TtlPrimitiveHolder {
+    private static final int BITS_PER_WORD = 64;
+    private static final long[] EMPTY_ARRAY = new long[0];
+
+    // Note about the holder:
+    // 1. holder self is a InheritableThreadLocal(a *ThreadLocal*).
+    // 2. the child thread shares the arrays of the parent holder, copy-on-write.
+    private static final InheritableThreadLocal<TtlPrimitiveHolder> holder = new InheritableThreadLocal<TtlPrimitiveHolder>() {
+        @Override
+        protected TtlPrimitiveHolder initialValue() {
+            return new TtlPrimitiveHolder();
+        }
+
+        @Override
+        protected TtlPrimitiveHolder childValue(TtlPrimitiveHolder parentValue) {
+            final TtlPrimitiveHolder child = new TtlPrimitiveHolder();
+            child.install(parentValue.capture());
+            return child;
+        }
+    };
+
+    @NonNull
+    static TtlPrimitiveHolder current() {
+        return holder.get();
+    }
+
+    private static final AtomicInteger nextSlot = new AtomicInteger();
+
+    /**
+     * Allocate a slot for the primitive local.
+     * <p>
+     * The slots are never recycled, since the primitive locals are expected to be {@code static final} fields.
+     */
+    static int allocateSlot() {
+        return nextSlot.getAndIncrement();
+    }
+
+    // the bitset of set slots
+    private long[] bits = EMPTY_ARRAY;
+    // the value of set slot, indexed by slot
+    private long[] values = EMPTY_ARRAY;
+    private int size;
+    // whether the arrays are shared by a snapshot, copy before modification
+    private boolean shared;
+    // the capture of the arrays, shared by all captures until the next modification
+    private Snapshot captured;
+
+    boolean contains(int slot) {
+        final int wordIndex = slot / BITS_PER_WORD;
+        return wordIndex < bits.length && (bits[wordIndex] & (1L << slot)) != 0;
+    }
+
+    long get(int slot, long initialValue) {
+        return contains(slot) ? values[slot] : initialValue;
+    }
+
+    void set(int slot, long value) {
+        final int wordIndex = slot / BITS_PER_WORD;
+        prepareWrite(wordIndex, slot);
+
+        final long mask = 1L << slot;
+        if ((bits[wordIndex] & mask) == 0) {
+            bits[wordIndex] |= mask;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    void remove(int slot) {
+        if (!contains(slot)) return;
+
+        final int wordIndex = slot / BITS_PER_WORD;
+        prepareWrite(wordIndex, slot);
+
+        bits[wordIndex] &= ~(1L << slot);
+        values[slot] = 0;
+        size--;
+    }
+
+    private void prepareWrite(int wordIndex, int slot) {
+        captured = null;
+        if (!shared && wordIndex < bits.length && slot < values.length) return;
+
+        // copy the shared arrays, or grow the arrays
+        final int capacity = Math.max(slot + 1, nextSlot.get());
+        bits = Arrays.copyOf(bits, Math.max(wordIndex + 1, (capacity + BITS_PER_WORD - 1) / BITS_PER_WORD));
+        values = Arrays.copyOf(values, Math.max(values.length, capacity));
+        shared = false;
+    }
+
+    @NonNull
+    Snapshot capture() {
+        if (size == 0) return Snapshot.EMPTY;
+
+        if (captured == null) {
+            captured = new Snapshot(bits, values, size);
+            shared = true;
+        }
+        return captured;
+    }
+
+    private void install(@NonNull Snapshot snapshot) {
+        bits = snapshot.bits;
+        values = snapshot.values;
+        size = snapshot.size;
+        shared = true;
+        captured = snapshot;
+    }
+
+    /**
+     * The captured/backup arrays of the holder, never modified after capture.
+     */
+    static final class Snapshot {
+        static final Snapshot EMPTY = new Snapshot(EMPTY_ARRAY, EMPTY_ARRAY, 0);
+
+        final long[] bits;
+        final long[] values;
+        final int size;
+
+        private Snapshot(long[] bits, long[] values, int size) {
+            this.bits = bits;
+            this.values = values;
+            this.size = size;
+        }
+    }
+
+    private static class PrimitiveTransmittee implements Transmittee<Snapshot, Snapshot>, EmptyContextAware, TransmittableLocalTransmittee {
+        @NonNull
+        @Override
+        public Snapshot capture() {
+            return current().capture();
+        }
+
+        @NonNull
+        @Override
+        public Snapshot replay(@NonNull Snapshot captured) {
+            final TtlPrimitiveHolder holder = current();
+            // the backup is the capture of the context before replay, no copy
+            final Snapshot backup = holder.capture();
+            holder.install(captured);
+            return backup;
+        }
+
+        @NonNull
+        @Override
+        public Snapshot clear() {
+            return replay(Snapshot.EMPTY);
+        }
+
+        @Override
+        public void restore(@NonNull Snapshot backup) {
+            current().install(backup);
+        }
+
+        @Override
+        public boolean isEmptyContext() {
+            return current().size == 0;
+        }
+    }
+
+    private static final PrimitiveTransmittee primitiveTransmittee = new PrimitiveTransmittee();
+
+    static {
+        TransmitteeRegistry.registerTransmittee(primitiveTransmittee);
+    }
+
+    private TtlPrimitiveHolder() {
+    }
+}
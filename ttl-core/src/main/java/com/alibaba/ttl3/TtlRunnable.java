@@ -2,10 +2,11 @@ package com.alibaba.ttl3;
 
 import com.alibaba.crr.composite.Backup;
 import com.alibaba.crr.composite.Capture;
-import com.alibaba.ttl3.spi.TtlAttachments;
-import com.alibaba.ttl3.spi.TtlAttachmentsDelegate;
+import com.alibaba.ttl3.internal.util.TransmitScope;
 import com.alibaba.ttl3.spi.TtlEnhanced;
 import com.alibaba.ttl3.spi.TtlWrapper;
+import com.alibaba.ttl3.transmitter.Transmittee;
+import com.alibaba.ttl3.transmitter.TransmitteePolicy;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import org.jetbrains.annotations.Contract;
@@ -14,7 +15,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static com.alibaba.ttl3.transmitter.Transmitter.*;
 
@@ -35,13 +36,18 @@ import static com.alibaba.ttl3.transmitter.Transmitter.*;
  * @see java.util.concurrent.ScheduledThreadPoolExecutor
  * @see java.util.concurrent.Executors
  */
-public final class TtlRunnable implements Runnable, TtlWrapper<Runnable>, TtlEnhanced, TtlAttachments {
-    private final AtomicReference<Capture> capturedRef;
+public final class TtlRunnable extends CompactTtlAttachments implements Runnable, TtlWrapper<Runnable>, TtlEnhanced {
+    private static final AtomicReferenceFieldUpdater<TtlRunnable, Capture> capturedUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(TtlRunnable.class, Capture.class, "captured");
+
+    // compact layout(with the lazy attachments of CompactTtlAttachments): no AtomicReference/attachments map per wrapper,
+    // since a wrapper is created for every submitted task and may stay long in the task queue.
+    private volatile Capture captured;
     private final Runnable runnable;
     private final boolean releaseTtlValueReferenceAfterRun;
 
-    private TtlRunnable(@NonNull Runnable runnable, boolean releaseTtlValueReferenceAfterRun) {
-        this.capturedRef = new AtomicReference<>(capture());
+    private TtlRunnable(@NonNull Runnable runnable, boolean releaseTtlValueReferenceAfterRun, @NonNull Capture captured) {
+        this.captured = captured;
         this.runnable = runnable;
         this.releaseTtlValueReferenceAfterRun = releaseTtlValueReferenceAfterRun;
     }
@@ -51,16 +57,22 @@ public final class TtlRunnable implements Runnable, TtlWrapper<Runnable>, TtlEnh
      */
     @Override
     public void run() {
-        final Capture captured = capturedRef.get();
-        if (captured == null || releaseTtlValueReferenceAfterRun && !capturedRef.compareAndSet(captured, null)) {
+        final Capture captured = this.captured;
+        if (captured == null || releaseTtlValueReferenceAfterRun && !capturedUpdater.compareAndSet(this, captured, null)) {
             throw new IllegalStateException("TTL value reference is released after run!");
         }
 
+        // the transmitted values of TransmittableScopedValue are bound by ScopedValue for the scope of the run
+        if (TransmitScope.needsScope(captured)) TransmitScope.run(() -> run(captured));
+        else run(captured);
+    }
+
+    private void run(Capture captured) {
         final Backup backup = replay(captured);
         try {
             runnable.run();
         } finally {
-            restore(backup);
+            restoreAndRelease(backup);
         }
     }
 
@@ -131,12 +143,51 @@ public final class TtlRunnable implements Runnable, TtlWrapper<Runnable>, TtlEnh
     public static TtlRunnable get(@Nullable Runnable runnable, boolean releaseTtlValueReferenceAfterRun, boolean idempotent) {
         if (runnable == null) return null;
 
-        if (runnable instanceof TtlEnhanced) {
-            // avoid redundant decoration, and ensure idempotency
-            if (idempotent) return (TtlRunnable) runnable;
-            else throw new IllegalStateException("Already TtlRunnable!");
-        }
-        return new TtlRunnable(runnable, releaseTtlValueReferenceAfterRun);
+        if (runnable instanceof TtlEnhanced) return getEnhanced(runnable, idempotent);
+        return new TtlRunnable(runnable, releaseTtlValueReferenceAfterRun, capture());
+    }
+
+    /**
+     * Factory method, wrap input {@link Runnable} to {@link TtlRunnable}.
+     *
+     * @param runnable                         input {@link Runnable}. if input is {@code null}, return {@code null}.
+     * @param releaseTtlValueReferenceAfterRun release TTL value reference after run, avoid memory leak even if {@link TtlRunnable} is referred.
+     * @param idempotent                       is idempotent mode or not. if {@code true}, just return input {@link Runnable} when it's {@link TtlRunnable},
+     *                                         otherwise throw {@link IllegalStateException}.
+     *                                         <B><I>Caution</I></B>: {@code true} will cover up bugs! <b>DO NOT</b> set, only when you know why.
+     * @param policy                           the transmittee policy, capture only the {@link Transmittee}s chosen by the policy.
+     * @return Wrapped {@link Runnable}
+     * @throws IllegalStateException when input is {@link TtlRunnable} already and not idempotent.
+     */
+    @Nullable
+    @Contract(value = "null, _, _, _ -> null; !null, _, _, _ -> !null", pure = true)
+    public static TtlRunnable get(@Nullable Runnable runnable, boolean releaseTtlValueReferenceAfterRun, boolean idempotent, @NonNull TransmitteePolicy policy) {
+        if (runnable == null) return null;
+
+        if (runnable instanceof TtlEnhanced) return getEnhanced(runnable, idempotent);
+        return new TtlRunnable(runnable, releaseTtlValueReferenceAfterRun, policy.capture());
+    }
+
+    private static TtlRunnable getEnhanced(Runnable runnable, boolean idempotent) {
+        // avoid redundant decoration, and ensure idempotency
+        if (idempotent) return (TtlRunnable) runnable;
+        else throw new IllegalStateException("Already TtlRunnable!");
+    }
+
+    /**
+     * Factory method, wrap input {@link Runnable} to {@link TtlRunnable},
+     * capture only the {@link Transmittee}s chosen by the transmittee policy.
+     *
+     * @param runnable input {@link Runnable}. if input is {@code null}, return {@code null}.
+     * @param policy   the transmittee policy
+     * @return Wrapped {@link Runnable}
+     * @throws IllegalStateException when input is {@link TtlRunnable} already.
+     * @see TransmitteePolicy
+     */
+    @Nullable
+    @Contract(value = "null, _ -> null; !null, _ -> !null", pure = true)
+    public static TtlRunnable get(@Nullable Runnable runnable, @NonNull TransmitteePolicy policy) {
+        return get(runnable, false, false, policy);
     }
 
     /**
@@ -186,6 +237,29 @@ public final class TtlRunnable implements Runnable, TtlWrapper<Runnable>, TtlEnh
         return copy;
     }
 
+    /**
+     * wrap input {@link Runnable} Collection to {@link TtlRunnable} Collection.
+     *
+     * @param tasks                            task to be wrapped. if input is {@code null}, return {@code null}.
+     * @param releaseTtlValueReferenceAfterRun release TTL value reference after run, avoid memory leak even if {@link TtlRunnable} is referred.
+     * @param idempotent                       is idempotent mode or not. if {@code true}, just return input {@link Runnable} when it's {@link TtlRunnable},
+     *                                         otherwise throw {@link IllegalStateException}.
+     *                                         <B><I>Caution</I></B>: {@code true} will cover up bugs! <b>DO NOT</b> set, only when you know why.
+     * @param policy                           the transmittee policy, capture only the {@link Transmittee}s chosen by the policy.
+     * @return wrapped tasks
+     * @throws IllegalStateException when input is {@link TtlRunnable} already and not idempotent.
+     */
+    @NonNull
+    public static List<TtlRunnable> gets(@Nullable Collection<? extends Runnable> tasks, boolean releaseTtlValueReferenceAfterRun, boolean idempotent, @NonNull TransmitteePolicy policy) {
+        if (tasks == null) return Collections.emptyList();
+
+        List<TtlRunnable> copy = new ArrayList<>();
+        for (Runnable task : tasks) {
+            copy.add(TtlRunnable.get(task, releaseTtlValueReferenceAfterRun, idempotent, policy));
+        }
+        return copy;
+    }
+
     /**
      * Unwrap {@link TtlRunnable} to the original/underneath one.
      * <p>
@@ -225,22 +299,4 @@ public final class TtlRunnable implements Runnable, TtlWrapper<Runnable>, TtlEnh
         }
         return copy;
     }
-
-    private final TtlAttachmentsDelegate ttlAttachment = new TtlAttachmentsDelegate();
-
-    /**
-     * see {@link TtlAttachments#setTtlAttachment(String, Object)}
-     */
-    @Override
-    public void setTtlAttachment(@NonNull String key, Object value) {
-        ttlAttachment.setTtlAttachment(key, value);
-    }
-
-    /**
-     * see {@link TtlAttachments#getTtlAttachment(String)}
-     */
-    @Override
-    public <T> T getTtlAttachment(@NonNull String key) {
-        return ttlAttachment.getTtlAttachment(key);
-    }
 }
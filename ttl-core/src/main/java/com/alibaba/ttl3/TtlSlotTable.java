@@ -0,0 +1,148 @@
+package com.alibaba.ttl3;
+
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The global slot table of {@link TransmittableThreadLocal} instances.
+ * <p>
+ * Every {@link TransmittableThreadLocal} instance is assigned a dense {@code int} slot at construction,
+ * so the per-thread {@link TtlHolder} can record the set {@link TransmittableThreadLocal}s as a bitset
+ * instead of a {@link java.util.WeakHashMap}.
+ * <p>
+ * The table only holds the {@link TransmittableThreadLocal} instances weakly;
+ * the slot of a collected instance is recycled on later slot allocations(like the expunge logic of
+ * {@link java.util.WeakHashMap}). Because a recycled slot can still be marked in the holder of some threads,
+ * every allocation also has a unique stamp, and a slot lookup only succeeds when the stamp matches.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TtlHolder
+ */
+final class TtlSlotTable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final Object lock = new Object();
+
+    private static final ReferenceQueue<TransmittableThreadLocal<?>> queue = new ReferenceQueue<>();
+
+    // the slots, written under the lock, read lock-free
+    private static volatile AtomicReferenceArray<SlotReference> slots = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+    // the bitset of the slots whose TTL is excluded from the inheritance, copy-on-write under the lock, read lock-free
+    private static volatile long[] nonInheritableSlots = new long[0];
+
+    // below fields are guarded by lock
+    private static int[] freeSlots = new int[16];
+    private static int freeSlotCount = 0;
+    private static int nextSlot = 0;
+    private static int stampSequence = 0;
+
+    /**
+     * Allocate a slot for the {@link TransmittableThreadLocal} instance.
+     *
+     * @param nonInheritable whether the {@link TransmittableThreadLocal} is excluded from the inheritance
+     * @return the allocated slot reference, contains the slot and the stamp
+     */
+    static SlotReference allocate(TransmittableThreadLocal<?> threadLocal, boolean nonInheritable) {
+        synchronized (lock) {
+            expungeStaleSlots();
+
+            final int slot;
+            if (freeSlotCount > 0) slot = freeSlots[--freeSlotCount];
+            else slot = nextSlot++;
+
+            AtomicReferenceArray<SlotReference> current = slots;
+            if (slot >= current.length()) {
+                final AtomicReferenceArray<SlotReference> grown = new AtomicReferenceArray<>(current.length() << 1);
+                for (int i = 0; i < current.length(); i++) {
+                    grown.set(i, current.get(i));
+                }
+                slots = current = grown;
+            }
+
+            final SlotReference ref = new SlotReference(threadLocal, queue, slot, ++stampSequence);
+            current.set(slot, ref);
+            markNonInheritable(slot, nonInheritable);
+            return ref;
+        }
+    }
+
+    /**
+     * Get the {@link TransmittableThreadLocal} instance of the slot.
+     *
+     * @return {@code null} if the instance is collected, or the slot is recycled(stamp mismatched)
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    static TransmittableThreadLocal<Object> lookup(int slot, int stamp) {
+        final AtomicReferenceArray<SlotReference> current = slots;
+        if (slot >= current.length()) return null;
+
+        final SlotReference ref = current.get(slot);
+        if (ref == null || ref.stamp != stamp) return null;
+        return (TransmittableThreadLocal<Object>) ref.get();
+    }
+
+    /**
+     * The bitset of the slots whose {@link TransmittableThreadLocal} is excluded from the inheritance.
+     * <p>
+     * <b><i>NOTE:</i></b> the returned array is never modified, do NOT modify it.
+     */
+    static long[] nonInheritableSlots() {
+        return nonInheritableSlots;
+    }
+
+    private static void markNonInheritable(int slot, boolean nonInheritable) {
+        final long[] current = nonInheritableSlots;
+        final int wordIndex = slot / 64;
+        final boolean marked = wordIndex < current.length && (current[wordIndex] & (1L << slot)) != 0;
+        if (marked == nonInheritable) return;
+
+        final long[] updated = Arrays.copyOf(current, Math.max(current.length, wordIndex + 1));
+        if (nonInheritable) updated[wordIndex] |= 1L << slot;
+        else updated[wordIndex] &= ~(1L << slot);
+        nonInheritableSlots = updated;
+    }
+
+    /**
+     * The capacity of slot table, aka. the upper bound(exclusive) of allocated slots.
+     */
+    static int capacity() {
+        return slots.length();
+    }
+
+    private static void expungeStaleSlots() {
+        for (Reference<? extends TransmittableThreadLocal<?>> r; (r = queue.poll()) != null; ) {
+            final SlotReference ref = (SlotReference) r;
+            // compareAndSet: the slot may be already reused after a previous expunge
+            if (!slots.compareAndSet(ref.slot, ref, null)) continue;
+
+            if (freeSlotCount == freeSlots.length) {
+                final int[] grown = new int[freeSlots.length << 1];
+                System.arraycopy(freeSlots, 0, grown, 0, freeSlotCount);
+                freeSlots = grown;
+            }
+            freeSlots[freeSlotCount++] = ref.slot;
+        }
+    }
+
+    static final class SlotReference extends WeakReference<TransmittableThreadLocal<?>> {
+        final int slot;
+        final int stamp;
+
+        SlotReference(TransmittableThreadLocal<?> referent, ReferenceQueue<TransmittableThreadLocal<?>> queue, int slot, int stamp) {
+            super(referent, queue);
+            this.slot = slot;
+            this.stamp = stamp;
+        }
+    }
+
+    private TtlSlotTable() {
+        throw new InstantiationError("Must not instantiate this class");
+    }
+}
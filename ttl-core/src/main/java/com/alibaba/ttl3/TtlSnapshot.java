@@ -0,0 +1,96 @@
+package com.alibaba.ttl3;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * The captured/backup values of {@link TransmittableThreadLocal}s.
+ * <p>
+ * The entries are stored in parallel arrays, in the ascending order of slots
+ * (the iteration order of {@link TtlHolder}), so the captured values are
+ * produced by a plain array copy, and matched to a holder by merging the two slot sequences.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TtlHolder
+ */
+final class TtlSnapshot {
+    static final TtlSnapshot EMPTY = new TtlSnapshot(0);
+
+    static {
+        EMPTY.shareable = true;
+    }
+
+    TransmittableThreadLocal<Object>[] threadLocals;
+    Object[] values;
+    int size;
+    // whether the snapshot is a capture that can be shared as the capture of the context it represents,
+    // aka. all captured TTLs use the identity transmittee value
+    boolean shareable;
+    // whether the snapshot contains the lazy transmittee values wrapped at capture,
+    // aka. the snapshot is NOT the context of the capturing thread, even though shared as its capture
+    boolean lazy;
+    // the cached snapshot of the context that is NOT shareable: the entry indexes of the customized transmittee values,
+    // the values of these entries are the values of the thread, computed to the transmittee values on every capture
+    int[] transmitteeIndexes;
+    // the capture computed from the cached snapshot of the context, refers to it to keep the weakly cached snapshot alive
+    TtlSnapshot context;
+
+    @SuppressWarnings("unchecked")
+    private static final TransmittableThreadLocal<Object>[] EMPTY_THREAD_LOCALS = (TransmittableThreadLocal<Object>[]) new TransmittableThreadLocal<?>[0];
+    private static final Object[] EMPTY_VALUES = new Object[0];
+
+    TtlSnapshot() {
+        this.threadLocals = EMPTY_THREAD_LOCALS;
+        this.values = EMPTY_VALUES;
+    }
+
+    @SuppressWarnings("unchecked")
+    TtlSnapshot(int capacity) {
+        this.threadLocals = (TransmittableThreadLocal<Object>[]) new TransmittableThreadLocal<?>[capacity];
+        this.values = new Object[capacity];
+    }
+
+    /**
+     * Append the entry, the slot of the appended {@link TransmittableThreadLocal} must be greater than the existed ones.
+     */
+    void append(@NonNull TransmittableThreadLocal<Object> threadLocal, Object value) {
+        if (size == threadLocals.length) {
+            final int newCapacity = Math.max(4, size << 1);
+            threadLocals = Arrays.copyOf(threadLocals, newCapacity);
+            values = Arrays.copyOf(values, newCapacity);
+        }
+        threadLocals[size] = threadLocal;
+        values[size] = value;
+        size++;
+    }
+
+    /**
+     * Remove all entries, keep the allocated arrays for reuse.
+     */
+    void clear() {
+        Arrays.fill(threadLocals, 0, size, null);
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+        lazy = false;
+    }
+
+    /**
+     * Find the entry index of the slot, from the entry index {@code fromIndex}.
+     * <p>
+     * Since the entries are in the ascending order of slots, the matching of the ascending slots sequence
+     * is a linear merge when the {@code fromIndex} of next matching is the returned index of this matching.
+     *
+     * @return the entry index of the slot if found; otherwise, the entry index of the first slot greater than the slot.
+     * @see #isIndexOf(int, int)
+     */
+    int indexOf(int slot, int fromIndex) {
+        int i = fromIndex;
+        while (i < size && threadLocals[i].slot < slot) i++;
+        return i;
+    }
+
+    boolean isIndexOf(int index, int slot) {
+        return index < size && threadLocals[index].slot == slot;
+    }
+}
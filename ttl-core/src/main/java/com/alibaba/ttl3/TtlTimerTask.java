@@ -60,7 +60,7 @@ public final class TtlTimerTask extends TimerTask implements TtlWrapper<TimerTas
         try {
             timerTask.run();
         } finally {
-            restore(backup);
+            restoreAndRelease(backup);
         }
     }
 
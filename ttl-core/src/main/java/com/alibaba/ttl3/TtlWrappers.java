@@ -178,7 +178,7 @@ public final class TtlWrappers {
             try {
                 return supplier.get();
             } finally {
-                restore(backup);
+                restoreAndRelease(backup);
             }
         }
 
@@ -209,7 +209,7 @@ public final class TtlWrappers {
             try {
                 consumer.accept(t);
             } finally {
-                restore(backup);
+                restoreAndRelease(backup);
             }
         }
 
@@ -240,7 +240,7 @@ public final class TtlWrappers {
             try {
                 consumer.accept(t, u);
             } finally {
-                restore(backup);
+                restoreAndRelease(backup);
             }
         }
 
@@ -271,7 +271,7 @@ public final class TtlWrappers {
             try {
                 return fn.apply(t);
             } finally {
-                restore(backup);
+                restoreAndRelease(backup);
             }
         }
 
@@ -302,7 +302,7 @@ public final class TtlWrappers {
             try {
                 return fn.apply(t, u);
             } finally {
-                restore(backup);
+                restoreAndRelease(backup);
             }
         }
 
@@ -0,0 +1,85 @@
+package com.alibaba.ttl3.agent;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The statistics of a TTL agent transformlet, an immutable snapshot.
+ * <p>
+ * The counts are about the classes dispatched to the transformlet,
+ * the classes not matched by the target of the transformlet are not counted.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TtlAgentStatus#getTransformletStats()
+ */
+public final class TransformletStats {
+    private final String transformletName;
+    private final long inspectedClassCount;
+    private final long parsedClassCount;
+    private final long modifiedClassCount;
+    private final long failedClassCount;
+    private final long spentNanos;
+
+    public TransformletStats(@NonNull String transformletName, long inspectedClassCount, long parsedClassCount,
+                             long modifiedClassCount, long failedClassCount, long spentNanos) {
+        this.transformletName = transformletName;
+        this.inspectedClassCount = inspectedClassCount;
+        this.parsedClassCount = parsedClassCount;
+        this.modifiedClassCount = modifiedClassCount;
+        this.failedClassCount = failedClassCount;
+        this.spentNanos = spentNanos;
+    }
+
+    /**
+     * the class name of the transformlet.
+     */
+    @NonNull
+    public String getTransformletName() {
+        return transformletName;
+    }
+
+    /**
+     * the count of the classes inspected by the transformlet.
+     */
+    public long getInspectedClassCount() {
+        return inspectedClassCount;
+    }
+
+    /**
+     * the count of the classes parsed by Javassist first by the transformlet.
+     */
+    public long getParsedClassCount() {
+        return parsedClassCount;
+    }
+
+    /**
+     * the count of the classes modified by the transformlet.
+     */
+    public long getModifiedClassCount() {
+        return modifiedClassCount;
+    }
+
+    /**
+     * the count of the classes failed to transform by the transformlet.
+     */
+    public long getFailedClassCount() {
+        return failedClassCount;
+    }
+
+    /**
+     * the nanoseconds spent by the transformlet, include generating the bytecode of the modified classes.
+     */
+    public long getSpentNanos() {
+        return spentNanos;
+    }
+
+    @Override
+    public String toString() {
+        return transformletName + "{inspected=" + inspectedClassCount +
+                ", parsed=" + parsedClassCount +
+                ", modified=" + modifiedClassCount +
+                ", failed=" + failedClassCount +
+                ", spent=" + TimeUnit.NANOSECONDS.toMillis(spentNanos) + "ms}";
+    }
+}
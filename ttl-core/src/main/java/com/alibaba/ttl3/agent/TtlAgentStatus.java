@@ -2,6 +2,8 @@ package com.alibaba.ttl3.agent;
 
 import edu.umd.cs.findbugs.annotations.NonNull;
 
+import java.util.List;
+
 import static com.alibaba.ttl3.agent.EmptyTtlAgentStatus.getLoadedAgentOrEmpty;
 
 public interface TtlAgentStatus {
@@ -10,6 +12,16 @@ public interface TtlAgentStatus {
      */
     boolean isTtlAgentLoaded();
 
+    /**
+     * The statistics of the transformlets of TTL agent, in the order of the transformlets added.
+     * <p>
+     * Use it to find out the startup cost of TTL agent, and which transformlets to disable.
+     *
+     * @return empty if TTL agent is not loaded
+     */
+    @NonNull
+    List<TransformletStats> getTransformletStats();
+
     @NonNull
     static TtlAgentStatus getInstance() {
         return getLoadedAgentOrEmpty();
@@ -0,0 +1,25 @@
+package com.alibaba.ttl3.executor;
+
+import com.alibaba.crr.composite.Capture;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+/**
+ * The task of the TTL thread pool executors, carry the capture of the submitting thread.
+ * <p>
+ * The executors replay the capture in {@code beforeExecute} and restore in {@code afterExecute},
+ * the backup is kept by the worker thread, since a periodic task may be run by another worker
+ * before the {@code afterExecute} of the previous run.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TtlThreadPoolExecutor
+ * @see TtlScheduledThreadPoolExecutor
+ */
+interface CapturedTask {
+    /**
+     * get the capture for the run of the task, the one-shot task releases the capture reference.
+     *
+     * @return the capture, {@code null} if released
+     */
+    @Nullable
+    Capture capturedForRun();
+}
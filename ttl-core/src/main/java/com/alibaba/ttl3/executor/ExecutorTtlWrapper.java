@@ -1,11 +1,18 @@
 package com.alibaba.ttl3.executor;
 
 import com.alibaba.ttl3.TransmittableThreadLocal;
+import com.alibaba.ttl3.TtlCallable;
 import com.alibaba.ttl3.TtlRunnable;
 import com.alibaba.ttl3.spi.TtlEnhanced;
 import com.alibaba.ttl3.spi.TtlWrapper;
+import com.alibaba.ttl3.transmitter.TransmitteePolicy;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Callable;
 import java.util.concurrent.Executor;
 
 /**
@@ -18,15 +25,34 @@ import java.util.concurrent.Executor;
 class ExecutorTtlWrapper implements Executor, TtlWrapper<Executor>, TtlEnhanced {
     private final Executor executor;
     protected final boolean idempotent;
+    // the transmittee policy, null to transmit all registered transmittees
+    @Nullable
+    protected final TransmitteePolicy policy;
 
-    ExecutorTtlWrapper(@NonNull Executor executor, boolean idempotent) {
+    ExecutorTtlWrapper(@NonNull Executor executor, boolean idempotent, @Nullable TransmitteePolicy policy) {
         this.executor = executor;
         this.idempotent = idempotent;
+        this.policy = policy;
     }
 
     @Override
     public void execute(@NonNull Runnable command) {
-        executor.execute(TtlRunnable.get(command, false, idempotent));
+        executor.execute(ttlRunnable(command));
+    }
+
+    final TtlRunnable ttlRunnable(@NonNull Runnable task) {
+        if (policy != null) return TtlRunnable.get(task, false, idempotent, policy);
+        return TtlRunnable.get(task, false, idempotent);
+    }
+
+    final <T> TtlCallable<T> ttlCallable(@NonNull Callable<T> task) {
+        if (policy != null) return TtlCallable.get(task, false, idempotent, policy);
+        return TtlCallable.get(task, false, idempotent);
+    }
+
+    final <T> List<TtlCallable<T>> ttlCallables(@NonNull Collection<? extends Callable<T>> tasks) {
+        if (policy != null) return TtlCallable.gets(tasks, false, idempotent, policy);
+        return TtlCallable.gets(tasks, false, idempotent);
     }
 
     @NonNull
@@ -43,6 +69,7 @@ class ExecutorTtlWrapper implements Executor, TtlWrapper<Executor>, TtlEnhanced
         ExecutorTtlWrapper that = (ExecutorTtlWrapper) o;
 
         if (idempotent != that.idempotent) return false;
+        if (!Objects.equals(policy, that.policy)) return false;
         return executor.equals(that.executor);
     }
 
@@ -50,6 +77,7 @@ class ExecutorTtlWrapper implements Executor, TtlWrapper<Executor>, TtlEnhanced
     public int hashCode() {
         int result = executor.hashCode();
         result = 31 * result + (idempotent ? 1 : 0);
+        result = 31 * result + Objects.hashCode(policy);
         return result;
     }
 
@@ -1,10 +1,10 @@
 package com.alibaba.ttl3.executor;
 
 import com.alibaba.ttl3.TransmittableThreadLocal;
-import com.alibaba.ttl3.TtlCallable;
-import com.alibaba.ttl3.TtlRunnable;
 import com.alibaba.ttl3.spi.TtlEnhanced;
+import com.alibaba.ttl3.transmitter.TransmitteePolicy;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.util.concurrent.Callable;
@@ -23,33 +23,33 @@ import java.util.concurrent.TimeUnit;
 class ScheduledExecutorServiceTtlWrapper extends ExecutorServiceTtlWrapper implements ScheduledExecutorService, TtlEnhanced {
     final ScheduledExecutorService scheduledExecutorService;
 
-    public ScheduledExecutorServiceTtlWrapper(@NonNull ScheduledExecutorService scheduledExecutorService, boolean idempotent) {
-        super(scheduledExecutorService, idempotent);
+    public ScheduledExecutorServiceTtlWrapper(@NonNull ScheduledExecutorService scheduledExecutorService, boolean idempotent, @Nullable TransmitteePolicy policy) {
+        super(scheduledExecutorService, idempotent, policy);
         this.scheduledExecutorService = scheduledExecutorService;
     }
 
     @NonNull
     @Override
     public ScheduledFuture<?> schedule(@NonNull Runnable command, long delay, @NonNull TimeUnit unit) {
-        return scheduledExecutorService.schedule(TtlRunnable.get(command, false, idempotent), delay, unit);
+        return scheduledExecutorService.schedule(ttlRunnable(command), delay, unit);
     }
 
     @NonNull
     @Override
     public <V> ScheduledFuture<V> schedule(@NonNull Callable<V> callable, long delay, @NonNull TimeUnit unit) {
-        return scheduledExecutorService.schedule(TtlCallable.get(callable, false, idempotent), delay, unit);
+        return scheduledExecutorService.schedule(ttlCallable(callable), delay, unit);
     }
 
     @NonNull
     @Override
     public ScheduledFuture<?> scheduleAtFixedRate(@NonNull Runnable command, long initialDelay, long period, @NonNull TimeUnit unit) {
-        return scheduledExecutorService.scheduleAtFixedRate(TtlRunnable.get(command, false, idempotent), initialDelay, period, unit);
+        return scheduledExecutorService.scheduleAtFixedRate(ttlRunnable(command), initialDelay, period, unit);
     }
 
     @NonNull
     @Override
     public ScheduledFuture<?> scheduleWithFixedDelay(@NonNull Runnable command, long initialDelay, long delay, @NonNull TimeUnit unit) {
-        return scheduledExecutorService.scheduleWithFixedDelay(TtlRunnable.get(command, false, idempotent), initialDelay, delay, unit);
+        return scheduledExecutorService.scheduleWithFixedDelay(ttlRunnable(command), initialDelay, delay, unit);
     }
 
     @NonNull
@@ -0,0 +1,91 @@
+package com.alibaba.ttl3.executor;
+
+import com.alibaba.crr.composite.Capture;
+import com.alibaba.ttl3.spi.TtlWrapper;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.concurrent.ThreadFactory;
+
+import static com.alibaba.ttl3.transmitter.Transmitter.capture;
+import static com.alibaba.ttl3.transmitter.Transmitter.replay;
+
+/**
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TtlExecutors#getThreadPerTaskTtlThreadFactory(ThreadFactory)
+ * @see TtlExecutors#getScopedTtlThreadFactory(ThreadFactory)
+ */
+final class ThreadPerTaskTtlThreadFactoryWrapper implements ThreadFactory, TtlWrapper<ThreadFactory> {
+    private final ThreadFactory threadFactory;
+    // the capture shared by all the created threads, or null to capture at every thread creation
+    @Nullable
+    private final Capture scopeCaptured;
+
+    ThreadPerTaskTtlThreadFactoryWrapper(@NonNull ThreadFactory threadFactory, @Nullable Capture scopeCaptured) {
+        this.threadFactory = threadFactory;
+        this.scopeCaptured = scopeCaptured;
+    }
+
+    @Override
+    public Thread newThread(@NonNull Runnable r) {
+        final Capture captured = scopeCaptured != null ? scopeCaptured : capture();
+        return threadFactory.newThread(new InstallCapturedRunnable(captured, r));
+    }
+
+    boolean isScoped() {
+        return scopeCaptured != null;
+    }
+
+    /**
+     * Install the captured context as the initial context of the new thread, then run the task.
+     * <p>
+     * The thread runs only this task and then terminates with its context,
+     * so no backup is kept and nothing is restored.
+     */
+    private static final class InstallCapturedRunnable implements Runnable {
+        private final Capture captured;
+        private final Runnable runnable;
+
+        InstallCapturedRunnable(Capture captured, Runnable runnable) {
+            this.captured = captured;
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            replay(captured);
+            runnable.run();
+        }
+
+        @Override
+        public String toString() {
+            return runnable.toString();
+        }
+    }
+
+    @NonNull
+    @Override
+    public ThreadFactory unwrap() {
+        return threadFactory;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        ThreadPerTaskTtlThreadFactoryWrapper that = (ThreadPerTaskTtlThreadFactoryWrapper) o;
+
+        return threadFactory.equals(that.threadFactory) && scopeCaptured == that.scopeCaptured;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * threadFactory.hashCode() + System.identityHashCode(scopeCaptured);
+    }
+
+    @Override
+    public String toString() {
+        return this.getClass().getName() + " - " + threadFactory;
+    }
+}
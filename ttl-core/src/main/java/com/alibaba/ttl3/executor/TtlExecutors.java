@@ -4,6 +4,8 @@ import com.alibaba.ttl3.TransmittableThreadLocal;
 import com.alibaba.ttl3.agent.TtlAgentStatus;
 import com.alibaba.ttl3.spi.TtlEnhanced;
 import com.alibaba.ttl3.spi.TtlWrapper;
+import com.alibaba.ttl3.transmitter.TransmitteePolicy;
+import com.alibaba.ttl3.transmitter.Transmitter;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
@@ -20,6 +22,8 @@ import java.util.concurrent.ForkJoinPool.ForkJoinWorkerThreadFactory;
  *     <li>wrap/check/unwrap methods for TTL wrapper of
  *         jdk executors({@link Executor}, {@link ExecutorService}, {@link ScheduledExecutorService}).</li>
  *     <li>wrap/check/unwrap methods for disable Inheritable wrapper of {@link ThreadFactory}.</li>
+ *     <li>wrap/check/unwrap methods for thread-per-task TTL wrapper of {@link ThreadFactory},
+ *         the scoped one for the structured concurrency, and the TTL virtual thread factory/executor(JDK 21+).</li>
  *     <li>wrap/check/unwrap methods for disable Inheritable wrapper of {@link ForkJoinWorkerThreadFactory}.</li>
  *     <li>wrap/check/unwrap methods for {@code TtlRunnableUnwrapComparator} wrapper of {@link PriorityBlockingQueue}
  *         for {@link ThreadPoolExecutor#ThreadPoolExecutor(int, int, long, TimeUnit, BlockingQueue)}.</li>
@@ -71,7 +75,33 @@ public final class TtlExecutors {
         if (TtlAgentStatus.getInstance().isTtlAgentLoaded() || executor == null || executor instanceof TtlEnhanced) {
             return executor;
         }
-        return new ExecutorTtlWrapper(executor, true);
+        return new ExecutorTtlWrapper(executor, true, null);
+    }
+
+    /**
+     * {@link TransmittableThreadLocal} Wrapper of {@link Executor}, transmit only the registered
+     * {@link com.alibaba.ttl3.transmitter.Transmittee Transmittee}s chosen by the transmittee policy,
+     * e.g. transmit the {@link TransmittableThreadLocal}s but not the registered {@link ThreadLocal}s,
+     * or only the {@link TransmittableThreadLocal}s of a transmission group({@link TransmitteePolicy#ofGroup}).
+     * <p>
+     * The policy wrapper is applied even if the TTL agent is loaded;
+     * the TTL wrapper of the input {@code executor} is unwrapped first.
+     *
+     * @param executor input Executor
+     * @param policy   the transmittee policy
+     * @return wrapped Executor
+     * @see TransmitteePolicy
+     * @see com.alibaba.ttl3.TtlRunnable#get(Runnable, boolean, boolean, TransmitteePolicy)
+     * @see com.alibaba.ttl3.TtlCallable#get(Callable, boolean, boolean, TransmitteePolicy)
+     */
+    @Nullable
+    @Contract(value = "null, _ -> null; !null, _ -> !null", pure = true)
+    public static Executor getTtlExecutor(@Nullable Executor executor, @NonNull TransmitteePolicy policy) {
+        if (executor == null) return null;
+        if (executor instanceof ExecutorTtlWrapper) executor = ((ExecutorTtlWrapper) executor).unwrap();
+        else if (executor instanceof TtlEnhanced) return executor;
+
+        return new ExecutorTtlWrapper(executor, true, policy);
     }
 
     /**
@@ -90,7 +120,33 @@ public final class TtlExecutors {
         if (TtlAgentStatus.getInstance().isTtlAgentLoaded() || executorService == null || executorService instanceof TtlEnhanced) {
             return executorService;
         }
-        return new ExecutorServiceTtlWrapper(executorService, true);
+        return new ExecutorServiceTtlWrapper(executorService, true, null);
+    }
+
+    /**
+     * {@link TransmittableThreadLocal} Wrapper of {@link ExecutorService}, transmit only the registered
+     * {@link com.alibaba.ttl3.transmitter.Transmittee Transmittee}s chosen by the transmittee policy,
+     * e.g. transmit the {@link TransmittableThreadLocal}s but not the registered {@link ThreadLocal}s,
+     * or only the {@link TransmittableThreadLocal}s of a transmission group({@link TransmitteePolicy#ofGroup}).
+     * <p>
+     * The policy wrapper is applied even if the TTL agent is loaded;
+     * the TTL wrapper of the input {@code executorService} is unwrapped first.
+     *
+     * @param executorService input ExecutorService
+     * @param policy          the transmittee policy
+     * @return wrapped ExecutorService
+     * @see TransmitteePolicy
+     * @see com.alibaba.ttl3.TtlRunnable#get(Runnable, boolean, boolean, TransmitteePolicy)
+     * @see com.alibaba.ttl3.TtlCallable#get(Callable, boolean, boolean, TransmitteePolicy)
+     */
+    @Nullable
+    @Contract(value = "null, _ -> null; !null, _ -> !null", pure = true)
+    public static ExecutorService getTtlExecutorService(@Nullable ExecutorService executorService, @NonNull TransmitteePolicy policy) {
+        if (executorService == null) return null;
+        if (executorService instanceof ExecutorServiceTtlWrapper) executorService = ((ExecutorServiceTtlWrapper) executorService).unwrap();
+        else if (executorService instanceof TtlEnhanced) return executorService;
+
+        return new ExecutorServiceTtlWrapper(executorService, true, policy);
     }
 
 
@@ -110,7 +166,33 @@ public final class TtlExecutors {
         if (TtlAgentStatus.getInstance().isTtlAgentLoaded() || scheduledExecutorService == null || scheduledExecutorService instanceof TtlEnhanced) {
             return scheduledExecutorService;
         }
-        return new ScheduledExecutorServiceTtlWrapper(scheduledExecutorService, true);
+        return new ScheduledExecutorServiceTtlWrapper(scheduledExecutorService, true, null);
+    }
+
+    /**
+     * {@link TransmittableThreadLocal} Wrapper of {@link ScheduledExecutorService}, transmit only the registered
+     * {@link com.alibaba.ttl3.transmitter.Transmittee Transmittee}s chosen by the transmittee policy,
+     * e.g. transmit the {@link TransmittableThreadLocal}s but not the registered {@link ThreadLocal}s,
+     * or only the {@link TransmittableThreadLocal}s of a transmission group({@link TransmitteePolicy#ofGroup}).
+     * <p>
+     * The policy wrapper is applied even if the TTL agent is loaded;
+     * the TTL wrapper of the input {@code scheduledExecutorService} is unwrapped first.
+     *
+     * @param scheduledExecutorService input ScheduledExecutorService
+     * @param policy                   the transmittee policy
+     * @return wrapped ScheduledExecutorService
+     * @see TransmitteePolicy
+     * @see com.alibaba.ttl3.TtlRunnable#get(Runnable, boolean, boolean, TransmitteePolicy)
+     * @see com.alibaba.ttl3.TtlCallable#get(Callable, boolean, boolean, TransmitteePolicy)
+     */
+    @Nullable
+    @Contract(value = "null, _ -> null; !null, _ -> !null", pure = true)
+    public static ScheduledExecutorService getTtlScheduledExecutorService(@Nullable ScheduledExecutorService scheduledExecutorService, @NonNull TransmitteePolicy policy) {
+        if (scheduledExecutorService == null) return null;
+        if (scheduledExecutorService instanceof ScheduledExecutorServiceTtlWrapper) scheduledExecutorService = ((ScheduledExecutorServiceTtlWrapper) scheduledExecutorService).unwrap();
+        else if (scheduledExecutorService instanceof TtlEnhanced) return scheduledExecutorService;
+
+        return new ScheduledExecutorServiceTtlWrapper(scheduledExecutorService, true, policy);
     }
 
     /**
@@ -208,6 +290,201 @@ public final class TtlExecutors {
         return ((DisableInheritableThreadFactoryWrapper) threadFactory).unwrap();
     }
 
+    ///////////////////////////////////////////////////////////////////////////
+    // Thread-per-task/virtual thread utils
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * TTL wrapper of the thread-per-task {@link ThreadFactory}, aka. {@code ThreadPerTaskTtlThreadFactory}:
+     * capture the {@link TransmittableThreadLocal} values at the thread creation time,
+     * and install the captured values as the initial values of the new thread.
+     * <p>
+     * The new thread runs only its task and terminates, so the captured values are installed directly,
+     * without the replay/restore pair of {@link com.alibaba.ttl3.TtlRunnable TtlRunnable};
+     * the tasks need NOT be wrapped by {@link com.alibaba.ttl3.TtlRunnable TtlRunnable}.
+     * <p>
+     * Use a thread factory that does NOT inherit the inheritable thread locals
+     * (e.g. {@code Thread.ofVirtual().inheritInheritableThreadLocals(false).factory()}),
+     * so the values are not inherited and then replayed again at the thread creation.
+     * <p>
+     * <B><I>CAUTION:</I></B><br>
+     * Use it only for the thread-per-task executors(e.g. {@code Executors.newThreadPerTaskExecutor(ThreadFactory)})
+     * and {@link Thread#start() starting} the threads directly;
+     * do NOT use it for the thread pools, the pooled threads hold the values captured at the thread creation
+     * for all the tasks, use {@link #getTtlExecutorService(ExecutorService)} instead.
+     *
+     * @param threadFactory input thread factory
+     * @see #getTtlVirtualThreadFactory()
+     * @see #newTtlVirtualThreadPerTaskExecutor()
+     */
+    @Nullable
+    @Contract(value = "null -> null; !null -> !null", pure = true)
+    public static ThreadFactory getThreadPerTaskTtlThreadFactory(@Nullable ThreadFactory threadFactory) {
+        if (threadFactory == null || isThreadPerTaskTtlThreadFactory(threadFactory)) return threadFactory;
+
+        return new ThreadPerTaskTtlThreadFactoryWrapper(threadFactory, null);
+    }
+
+    /**
+     * The {@code ThreadPerTaskTtlThreadFactory} of the {@code Thread.Builder}(JDK 21+),
+     * wrap the thread factory of the builder({@code Thread.Builder#factory()}):
+     * <pre>{@code
+     * ThreadFactory threadFactory = TtlExecutors.getThreadPerTaskTtlThreadFactoryOfBuilder(
+     *         Thread.ofVirtual().name("worker-", 0).inheritInheritableThreadLocals(false));
+     * }</pre>
+     * The thread factory of the builder is a snapshot of the builder,
+     * the later changes of the builder do not affect the returned thread factory.
+     * <p>
+     * The parameter type is {@link Object}, since {@code Thread.Builder} is not available before JDK 21.
+     *
+     * @param threadBuilder the {@code Thread.Builder}
+     * @throws IllegalArgumentException      if the input is not a {@code Thread.Builder}
+     * @throws UnsupportedOperationException if the {@code Thread.Builder} is not available(before JDK 21)
+     * @see #getThreadPerTaskTtlThreadFactory(ThreadFactory)
+     * @see #getScopedTtlThreadFactoryOfBuilder(Object)
+     */
+    @Nullable
+    @Contract(value = "null -> null; !null -> !null", pure = true)
+    public static ThreadFactory getThreadPerTaskTtlThreadFactoryOfBuilder(@Nullable Object threadBuilder) {
+        if (threadBuilder == null) return null;
+
+        return new ThreadPerTaskTtlThreadFactoryWrapper(VirtualThreadSupport.factoryOfBuilder(threadBuilder), null);
+    }
+
+    /**
+     * check the {@link ThreadFactory} is {@code ThreadPerTaskTtlThreadFactory} or not.
+     *
+     * @see #getThreadPerTaskTtlThreadFactory(ThreadFactory)
+     */
+    public static boolean isThreadPerTaskTtlThreadFactory(@Nullable ThreadFactory threadFactory) {
+        return threadFactory instanceof ThreadPerTaskTtlThreadFactoryWrapper;
+    }
+
+    /**
+     * Unwrap {@code ThreadPerTaskTtlThreadFactory} to the original/underneath one.
+     *
+     * @see #getThreadPerTaskTtlThreadFactory(ThreadFactory)
+     * @see #isThreadPerTaskTtlThreadFactory(ThreadFactory)
+     * @see com.alibaba.ttl3.TtlWrappers#unwrap(Object)
+     */
+    @Nullable
+    @Contract(value = "null -> null; !null -> !null", pure = true)
+    public static ThreadFactory unwrapThreadPerTaskTtlThreadFactory(@Nullable ThreadFactory threadFactory) {
+        if (!isThreadPerTaskTtlThreadFactory(threadFactory)) return threadFactory;
+
+        return ((ThreadPerTaskTtlThreadFactoryWrapper) threadFactory).unwrap();
+    }
+
+    /**
+     * The scoped {@code ThreadPerTaskTtlThreadFactory}, for the structured concurrency
+     * (e.g. the thread factory of {@code StructuredTaskScope}(JDK 21+)):
+     * capture the {@link TransmittableThreadLocal} values <b>once</b> at this method call(aka. the scope open),
+     * and install the captured values as the initial values of every thread created by the thread factory
+     * (aka. every forked subtask).
+     * <p>
+     * All the forked subtasks share the one capture, instead of capturing per fork;
+     * and the subtask threads install the capture without the replay/restore pair,
+     * see {@link #getThreadPerTaskTtlThreadFactory(ThreadFactory)}.
+     * <pre>{@code
+     * try (var scope = new StructuredTaskScope.ShutdownOnFailure("scatter-gather",
+     *         TtlExecutors.getScopedTtlVirtualThreadFactory())) {
+     *     var user = scope.fork(() -> findUser());
+     *     var order = scope.fork(() -> fetchOrder());
+     *     ...
+     * }
+     * }</pre>
+     * <p>
+     * <B><I>CAUTION:</I></B><br>
+     * The values set after this method call are NOT transmitted to the forked subtasks;
+     * create the thread factory for every scope, do NOT share it across scopes.
+     *
+     * @param threadFactory input thread factory
+     * @see #getScopedTtlVirtualThreadFactory()
+     * @see #getThreadPerTaskTtlThreadFactory(ThreadFactory)
+     */
+    @Nullable
+    @Contract(value = "null -> null; !null -> !null")
+    public static ThreadFactory getScopedTtlThreadFactory(@Nullable ThreadFactory threadFactory) {
+        if (threadFactory == null) return null;
+        if (threadFactory instanceof ThreadPerTaskTtlThreadFactoryWrapper) {
+            final ThreadPerTaskTtlThreadFactoryWrapper wrapper = (ThreadPerTaskTtlThreadFactoryWrapper) threadFactory;
+            if (wrapper.isScoped()) return threadFactory;
+            threadFactory = wrapper.unwrap();
+        }
+
+        return new ThreadPerTaskTtlThreadFactoryWrapper(threadFactory, Transmitter.capture());
+    }
+
+    /**
+     * The scoped {@code ThreadPerTaskTtlThreadFactory} of the {@code Thread.Builder}(JDK 21+),
+     * wrap the thread factory of the builder({@code Thread.Builder#factory()}).
+     *
+     * @param threadBuilder the {@code Thread.Builder}
+     * @throws IllegalArgumentException      if the input is not a {@code Thread.Builder}
+     * @throws UnsupportedOperationException if the {@code Thread.Builder} is not available(before JDK 21)
+     * @see #getScopedTtlThreadFactory(ThreadFactory)
+     * @see #getThreadPerTaskTtlThreadFactoryOfBuilder(Object)
+     */
+    @Nullable
+    @Contract(value = "null -> null; !null -> !null")
+    public static ThreadFactory getScopedTtlThreadFactoryOfBuilder(@Nullable Object threadBuilder) {
+        if (threadBuilder == null) return null;
+
+        return new ThreadPerTaskTtlThreadFactoryWrapper(VirtualThreadSupport.factoryOfBuilder(threadBuilder), Transmitter.capture());
+    }
+
+    /**
+     * The scoped {@code ThreadPerTaskTtlThreadFactory} of the virtual threads(JDK 21+),
+     * the virtual threads do NOT inherit the inheritable thread locals.
+     *
+     * @throws UnsupportedOperationException if the virtual threads are not available(before JDK 21)
+     * @see #getScopedTtlThreadFactory(ThreadFactory)
+     * @see #isVirtualThreadAvailable()
+     */
+    @NonNull
+    public static ThreadFactory getScopedTtlVirtualThreadFactory() {
+        return new ThreadPerTaskTtlThreadFactoryWrapper(VirtualThreadSupport.newNonInheritableVirtualThreadFactory(), Transmitter.capture());
+    }
+
+    /**
+     * The {@code ThreadPerTaskTtlThreadFactory} of the virtual threads(JDK 21+),
+     * the virtual threads do NOT inherit the inheritable thread locals.
+     *
+     * @throws UnsupportedOperationException if the virtual threads are not available(before JDK 21)
+     * @see #getThreadPerTaskTtlThreadFactory(ThreadFactory)
+     * @see #isVirtualThreadAvailable()
+     */
+    @NonNull
+    public static ThreadFactory getTtlVirtualThreadFactory() {
+        return new ThreadPerTaskTtlThreadFactoryWrapper(VirtualThreadSupport.newNonInheritableVirtualThreadFactory(), null);
+    }
+
+    /**
+     * The TTL counterpart of {@code Executors.newVirtualThreadPerTaskExecutor()}(JDK 21+):
+     * the thread-per-task executor of the {@link #getTtlVirtualThreadFactory() TTL virtual thread factory}.
+     * <p>
+     * The submitted tasks are NOT wrapped, the {@link TransmittableThreadLocal} values are captured
+     * at the task submission(aka. the thread creation), and installed as the initial values of the virtual thread.
+     *
+     * @throws UnsupportedOperationException if the virtual threads are not available(before JDK 21)
+     * @see #getTtlVirtualThreadFactory()
+     * @see #isVirtualThreadAvailable()
+     */
+    @NonNull
+    public static ExecutorService newTtlVirtualThreadPerTaskExecutor() {
+        return VirtualThreadSupport.newThreadPerTaskExecutor(getTtlVirtualThreadFactory());
+    }
+
+    /**
+     * check the virtual threads are available(JDK 21+) or not.
+     *
+     * @see #getTtlVirtualThreadFactory()
+     * @see #newTtlVirtualThreadPerTaskExecutor()
+     */
+    public static boolean isVirtualThreadAvailable() {
+        return VirtualThreadSupport.isAvailable();
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // ForkJoinPool utils
     ///////////////////////////////////////////////////////////////////////////
@@ -0,0 +1,178 @@
+package com.alibaba.ttl3.executor;
+
+import com.alibaba.crr.composite.Capture;
+import com.alibaba.ttl3.TransmittableThreadLocal;
+import com.alibaba.ttl3.agent.TtlAgentStatus;
+import com.alibaba.ttl3.spi.TtlEnhanced;
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.concurrent.*;
+
+import static com.alibaba.ttl3.transmitter.Transmitter.capture;
+
+/**
+ * {@link ScheduledThreadPoolExecutor} transmitting the {@link TransmittableThreadLocal} from the task submit time
+ * to the task execution time, without the TTL wrapper of the task.
+ * <p>
+ * The capture is stored in the task returned by {@link #decorateTask(Runnable, RunnableScheduledFuture)}/
+ * {@link #decorateTask(Callable, RunnableScheduledFuture)}, the {@code ScheduledThreadPoolExecutor} extension point
+ * for the custom task. The capture is replayed in {@link #beforeExecute(Thread, Runnable)}
+ * and restored in {@link #afterExecute(Runnable, Throwable)}, every run of the periodic task
+ * replays the capture of the submit time, as the TTL wrapper of executor does.
+ * <p>
+ * <b><i>Note:</i></b>
+ * <ul>
+ * <li>the subclass overriding {@link #beforeExecute(Thread, Runnable)}/{@link #afterExecute(Runnable, Throwable)}
+ *     should invoke {@code super.beforeExecute} first and {@code super.afterExecute} last,
+ *     and must not throw after {@code super.beforeExecute},
+ *     otherwise the replayed {@link TransmittableThreadLocal} values are not restored.</li>
+ * <li>the subclass overriding {@code decorateTask} should decorate the task returned by {@code super.decorateTask}.</li>
+ * <li>if the TTL agent is loaded, the agent transmits as for the plain {@link ScheduledThreadPoolExecutor},
+ *     this executor does not capture.</li>
+ * </ul>
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TtlThreadPoolExecutor
+ * @see TtlExecutors#getTtlScheduledExecutorService(ScheduledExecutorService)
+ */
+public class TtlScheduledThreadPoolExecutor extends ScheduledThreadPoolExecutor implements TtlEnhanced {
+    private final boolean transmitByAgent = TtlAgentStatus.getInstance().isTtlAgentLoaded();
+
+    /**
+     * @see ScheduledThreadPoolExecutor#ScheduledThreadPoolExecutor(int)
+     */
+    public TtlScheduledThreadPoolExecutor(int corePoolSize) {
+        super(corePoolSize);
+    }
+
+    /**
+     * @see ScheduledThreadPoolExecutor#ScheduledThreadPoolExecutor(int, ThreadFactory)
+     */
+    public TtlScheduledThreadPoolExecutor(int corePoolSize, ThreadFactory threadFactory) {
+        super(corePoolSize, threadFactory);
+    }
+
+    /**
+     * @see ScheduledThreadPoolExecutor#ScheduledThreadPoolExecutor(int, RejectedExecutionHandler)
+     */
+    public TtlScheduledThreadPoolExecutor(int corePoolSize, RejectedExecutionHandler handler) {
+        super(corePoolSize, handler);
+    }
+
+    /**
+     * @see ScheduledThreadPoolExecutor#ScheduledThreadPoolExecutor(int, ThreadFactory, RejectedExecutionHandler)
+     */
+    public TtlScheduledThreadPoolExecutor(int corePoolSize, ThreadFactory threadFactory, RejectedExecutionHandler handler) {
+        super(corePoolSize, threadFactory, handler);
+    }
+
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(Runnable runnable, RunnableScheduledFuture<V> task) {
+        if (transmitByAgent) return task;
+        return new TtlScheduledFutureTask<>(task);
+    }
+
+    @Override
+    protected <V> RunnableScheduledFuture<V> decorateTask(Callable<V> callable, RunnableScheduledFuture<V> task) {
+        if (transmitByAgent) return task;
+        return new TtlScheduledFutureTask<>(task);
+    }
+
+    /**
+     * replay the captured {@link TransmittableThreadLocal} values of the task.
+     */
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        TtlThreadPoolExecutor.replayCaptured(r);
+    }
+
+    /**
+     * restore the {@link TransmittableThreadLocal} values of the worker thread.
+     */
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        TtlThreadPoolExecutor.restoreBackup();
+    }
+
+    /**
+     * The decorated task, carry the capture.
+     * <p>
+     * The capture is kept for the periodic task, and released after run for the one-shot task.
+     */
+    final class TtlScheduledFutureTask<V> implements RunnableScheduledFuture<V>, CapturedTask {
+        private final RunnableScheduledFuture<V> task;
+        private Capture captured;
+
+        TtlScheduledFutureTask(@NonNull RunnableScheduledFuture<V> task) {
+            this.task = task;
+            this.captured = capture();
+        }
+
+        @Override
+        public void run() {
+            task.run();
+        }
+
+        @Override
+        public boolean isPeriodic() {
+            return task.isPeriodic();
+        }
+
+        @Override
+        public long getDelay(@NonNull TimeUnit unit) {
+            return task.getDelay(unit);
+        }
+
+        /**
+         * compare the decorated tasks, keep the FIFO order of the tasks scheduled at the same time.
+         */
+        @Override
+        public int compareTo(@NonNull Delayed o) {
+            if (o == this) return 0;
+            return task.compareTo(o instanceof TtlScheduledFutureTask ? ((TtlScheduledFutureTask<?>) o).task : o);
+        }
+
+        /**
+         * the decorated task is not in the work queue, remove this task from the queue
+         * if {@link #getRemoveOnCancelPolicy()}.
+         */
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            final boolean cancelled = task.cancel(mayInterruptIfRunning);
+            if (cancelled && getRemoveOnCancelPolicy()) remove(this);
+            return cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return task.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return task.isDone();
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            return task.get();
+        }
+
+        @Override
+        public V get(long timeout, @NonNull TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return task.get(timeout, unit);
+        }
+
+        @Override
+        public Capture capturedForRun() {
+            final Capture captured = this.captured;
+            if (!task.isPeriodic()) this.captured = null;
+            return captured;
+        }
+
+        @Override
+        public String toString() {
+            return this.getClass().getName() + " - " + task;
+        }
+    }
+}
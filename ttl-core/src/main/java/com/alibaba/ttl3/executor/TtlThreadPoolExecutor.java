@@ -0,0 +1,290 @@
+package com.alibaba.ttl3.executor;
+
+import com.alibaba.crr.composite.Backup;
+import com.alibaba.crr.composite.Capture;
+import com.alibaba.ttl3.TransmittableThreadLocal;
+import com.alibaba.ttl3.agent.TtlAgentStatus;
+import com.alibaba.ttl3.spi.TtlEnhanced;
+import com.alibaba.ttl3.spi.TtlWrapper;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static com.alibaba.ttl3.transmitter.Transmitter.*;
+
+/**
+ * {@link ThreadPoolExecutor} transmitting the {@link TransmittableThreadLocal} from the task submit time
+ * to the task execution time, without the TTL wrapper of the task.
+ * <p>
+ * The capture is stored in the task object which the executor creates anyway:
+ * the {@link FutureTask} subclass from {@link #newTaskFor(Callable)}/{@link #newTaskFor(Runnable, Object)}
+ * for {@code submit}/{@code invokeAll}/{@code invokeAny}, and the capture holder task for {@link #execute(Runnable)}.
+ * The capture is replayed in {@link #beforeExecute(Thread, Runnable)} and restored in {@link #afterExecute(Runnable, Throwable)}.
+ * Compared with the TTL wrapper of executor({@link TtlExecutors#getTtlExecutorService(ExecutorService)}),
+ * the {@code submit} allocates no {@link com.alibaba.ttl3.TtlCallable TtlCallable}/{@link com.alibaba.ttl3.TtlRunnable TtlRunnable}.
+ * <p>
+ * The user tasks are not wrapped:
+ * <ul>
+ * <li>{@link #shutdownNow()} and {@link #remove(Runnable)} work with the {@link Runnable}s passed to {@link #execute(Runnable)}.</li>
+ * <li>the {@link RejectedExecutionHandler} receives the {@link Runnable} passed to {@link #execute(Runnable)}.</li>
+ * <li>the capture holder task of {@link #execute(Runnable)} is {@link Comparable} if the {@link Runnable} is,
+ *     so a {@link PriorityBlockingQueue} of the natural ordering works without
+ *     {@link TtlExecutors#getTtlRunnableUnwrapComparatorForComparableRunnable()}.
+ *     The holder task is also a {@link TtlWrapper}, so the comparator wrapped by
+ *     {@link TtlExecutors#getTtlRunnableUnwrapComparator(java.util.Comparator)} still works;
+ *     a plain comparator of a {@link PriorityBlockingQueue} receives the holder tasks.</li>
+ * </ul>
+ * <p>
+ * The capture holder task is per {@link #execute(Runnable)} call, so the captures of the {@link Runnable}s
+ * are kept apart by identity, even for the same or equal {@link Runnable}s executed multiple times.
+ * <p>
+ * <b><i>Note:</i></b>
+ * <ul>
+ * <li>the subclass overriding {@link #beforeExecute(Thread, Runnable)}/{@link #afterExecute(Runnable, Throwable)}
+ *     should invoke {@code super.beforeExecute} first and {@code super.afterExecute} last,
+ *     and must not throw after {@code super.beforeExecute},
+ *     otherwise the replayed {@link TransmittableThreadLocal} values are not restored.</li>
+ * <li>if the TTL agent is loaded, the agent transmits as for the plain {@link ThreadPoolExecutor},
+ *     this executor does not capture.</li>
+ * </ul>
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TtlScheduledThreadPoolExecutor
+ * @see TtlExecutors#getTtlExecutorService(ExecutorService)
+ */
+public class TtlThreadPoolExecutor extends ThreadPoolExecutor implements TtlEnhanced {
+    private final boolean transmitByAgent = TtlAgentStatus.getInstance().isTtlAgentLoaded();
+
+    /**
+     * @see ThreadPoolExecutor#ThreadPoolExecutor(int, int, long, TimeUnit, BlockingQueue)
+     */
+    public TtlThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                 BlockingQueue<Runnable> workQueue) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue,
+                new UnwrapRejectedHandler(new AbortPolicy()));
+    }
+
+    /**
+     * @see ThreadPoolExecutor#ThreadPoolExecutor(int, int, long, TimeUnit, BlockingQueue, ThreadFactory)
+     */
+    public TtlThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                 BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory,
+                new UnwrapRejectedHandler(new AbortPolicy()));
+    }
+
+    /**
+     * @see ThreadPoolExecutor#ThreadPoolExecutor(int, int, long, TimeUnit, BlockingQueue, RejectedExecutionHandler)
+     */
+    public TtlThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                 BlockingQueue<Runnable> workQueue, RejectedExecutionHandler handler) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, UnwrapRejectedHandler.of(handler));
+    }
+
+    /**
+     * @see ThreadPoolExecutor#ThreadPoolExecutor(int, int, long, TimeUnit, BlockingQueue, ThreadFactory, RejectedExecutionHandler)
+     */
+    public TtlThreadPoolExecutor(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                 BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory, RejectedExecutionHandler handler) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue, threadFactory, UnwrapRejectedHandler.of(handler));
+    }
+
+    /**
+     * execute the {@link Runnable} with the {@link TransmittableThreadLocal} values of the current thread.
+     */
+    @Override
+    public void execute(Runnable command) {
+        if (transmitByAgent || command == null || command instanceof CapturedTask) super.execute(command);
+        else super.execute(new TtlExecuteTask(command));
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        if (transmitByAgent) return super.newTaskFor(runnable, value);
+        return new TtlFutureTask<>(runnable, value);
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        if (transmitByAgent) return super.newTaskFor(callable);
+        return new TtlFutureTask<>(callable);
+    }
+
+    /**
+     * replay the captured {@link TransmittableThreadLocal} values of the task.
+     */
+    @Override
+    protected void beforeExecute(Thread t, Runnable r) {
+        replayCaptured(r);
+    }
+
+    /**
+     * restore the {@link TransmittableThreadLocal} values of the worker thread.
+     */
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        restoreBackup();
+    }
+
+    // the backup of the running task, beforeExecute/afterExecute are invoked in pairs by the worker thread
+    private static final ThreadLocal<Backup> backupOfWorker = new ThreadLocal<>();
+
+    static void replayCaptured(Runnable r) {
+        if (!(r instanceof CapturedTask)) return;
+
+        final Capture captured = ((CapturedTask) r).capturedForRun();
+        if (captured != null) backupOfWorker.set(replay(captured));
+    }
+
+    static void restoreBackup() {
+        final Backup backup = backupOfWorker.get();
+        if (backup == null) return;
+        backupOfWorker.set(null);
+        restoreAndRelease(backup);
+    }
+
+    /**
+     * the returned list contains the {@link Runnable}s passed to {@link #execute(Runnable)},
+     * not the capture holder tasks.
+     */
+    @NonNull
+    @Override
+    public List<Runnable> shutdownNow() {
+        final List<Runnable> tasks = super.shutdownNow();
+        final List<Runnable> unwrapped = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks) {
+            unwrapped.add(task instanceof TtlExecuteTask ? ((TtlExecuteTask) task).unwrap() : task);
+        }
+        return unwrapped;
+    }
+
+    /**
+     * remove the {@link Runnable} passed to {@link #execute(Runnable)} from the work queue.
+     */
+    @Override
+    public boolean remove(Runnable task) {
+        if (super.remove(task)) return true;
+        if (task == null || transmitByAgent) return false;
+
+        for (Runnable r : getQueue()) {
+            if (r instanceof TtlExecuteTask && ((TtlExecuteTask) r).unwrap() == task) return super.remove(r);
+        }
+        return false;
+    }
+
+    /**
+     * @return the {@link RejectedExecutionHandler} set by user
+     */
+    @Override
+    public RejectedExecutionHandler getRejectedExecutionHandler() {
+        final RejectedExecutionHandler handler = super.getRejectedExecutionHandler();
+        if (handler instanceof UnwrapRejectedHandler) return ((UnwrapRejectedHandler) handler).handler;
+        return handler;
+    }
+
+    @Override
+    public void setRejectedExecutionHandler(RejectedExecutionHandler handler) {
+        super.setRejectedExecutionHandler(UnwrapRejectedHandler.of(handler));
+    }
+
+    /**
+     * pass the {@link Runnable} of {@link #execute(Runnable)} instead of the capture holder task
+     * to the {@link RejectedExecutionHandler} set by user.
+     */
+    private static final class UnwrapRejectedHandler implements RejectedExecutionHandler {
+        final RejectedExecutionHandler handler;
+
+        private UnwrapRejectedHandler(@NonNull RejectedExecutionHandler handler) {
+            this.handler = handler;
+        }
+
+        static RejectedExecutionHandler of(RejectedExecutionHandler handler) {
+            // keep the null check of ThreadPoolExecutor
+            if (handler == null || handler instanceof UnwrapRejectedHandler) return handler;
+            return new UnwrapRejectedHandler(handler);
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            handler.rejectedExecution(r instanceof TtlExecuteTask ? ((TtlExecuteTask) r).unwrap() : r, executor);
+        }
+    }
+
+    /**
+     * The task of {@link #execute(Runnable)}, carry the capture.
+     * <p>
+     * Not a {@link FutureTask}, so the exception of the task is thrown to the worker thread
+     * as for the plain {@link ThreadPoolExecutor}.
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    static final class TtlExecuteTask implements Runnable, CapturedTask, TtlWrapper<Runnable>, Comparable<Object> {
+        private final Runnable runnable;
+        private Capture captured;
+
+        TtlExecuteTask(@NonNull Runnable runnable) {
+            this.runnable = runnable;
+            this.captured = capture();
+        }
+
+        @Override
+        public void run() {
+            runnable.run();
+        }
+
+        @Override
+        public Capture capturedForRun() {
+            final Capture captured = this.captured;
+            // a task is executed once, release the TTL value reference
+            this.captured = null;
+            return captured;
+        }
+
+        /**
+         * compare the input {@link Runnable}s, which should be {@link Comparable}.
+         */
+        @Override
+        public int compareTo(@NonNull Object o) {
+            final Object other = o instanceof TtlExecuteTask ? ((TtlExecuteTask) o).runnable : o;
+            return ((Comparable) runnable).compareTo(other);
+        }
+
+        @NonNull
+        @Override
+        public Runnable unwrap() {
+            return runnable;
+        }
+
+        @Override
+        public String toString() {
+            return this.getClass().getName() + " - " + runnable;
+        }
+    }
+
+    /**
+     * The task of {@link #newTaskFor(Callable)}/{@link #newTaskFor(Runnable, Object)}, carry the capture.
+     */
+    static final class TtlFutureTask<V> extends FutureTask<V> implements CapturedTask {
+        private Capture captured;
+
+        TtlFutureTask(@NonNull Callable<V> callable) {
+            super(callable);
+            this.captured = capture();
+        }
+
+        TtlFutureTask(@NonNull Runnable runnable, @Nullable V result) {
+            super(runnable, result);
+            this.captured = capture();
+        }
+
+        @Override
+        public Capture capturedForRun() {
+            final Capture captured = this.captured;
+            // a future task is run at most once, release the TTL value reference
+            this.captured = null;
+            return captured;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.alibaba.ttl3.executor;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The access of the virtual thread API(JDK 21+) via reflection, since ttl-core targets Java 8.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ */
+final class VirtualThreadSupport {
+    @Nullable
+    private static final Class<?> BUILDER_CLASS;
+    private static final Method OF_VIRTUAL;
+    private static final Method INHERIT_INHERITABLE_THREAD_LOCALS;
+    private static final Method FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static {
+        Class<?> builderClass = null;
+        Method ofVirtual = null, inherit = null, factory = null, newExecutor = null;
+        try {
+            builderClass = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            inherit = builderClass.getMethod("inheritInheritableThreadLocals", boolean.class);
+            factory = builderClass.getMethod("factory");
+            newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            builderClass = null;
+            ofVirtual = null;
+        }
+        BUILDER_CLASS = builderClass;
+        OF_VIRTUAL = ofVirtual;
+        INHERIT_INHERITABLE_THREAD_LOCALS = inherit;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newExecutor;
+    }
+
+    static boolean isAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /**
+     * The virtual thread factory that does NOT inherit the inheritable thread locals.
+     */
+    @NonNull
+    static ThreadFactory newNonInheritableVirtualThreadFactory() {
+        checkAvailable();
+        try {
+            final Object builder = OF_VIRTUAL.invoke(null);
+            INHERIT_INHERITABLE_THREAD_LOCALS.invoke(builder, false);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("fail to create virtual thread factory", e);
+        }
+    }
+
+    /**
+     * The thread factory of the {@code Thread.Builder}, see {@code Thread.Builder#factory()}.
+     *
+     * @throws IllegalArgumentException if the input is not a {@code Thread.Builder}
+     */
+    @NonNull
+    static ThreadFactory factoryOfBuilder(@NonNull Object threadBuilder) {
+        checkAvailable();
+        if (!BUILDER_CLASS.isInstance(threadBuilder)) {
+            throw new IllegalArgumentException("not a Thread.Builder: " + threadBuilder);
+        }
+        try {
+            return (ThreadFactory) FACTORY.invoke(threadBuilder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("fail to create thread factory of Thread.Builder", e);
+        }
+    }
+
+    @NonNull
+    static ExecutorService newThreadPerTaskExecutor(@NonNull ThreadFactory threadFactory) {
+        checkAvailable();
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("fail to create thread per task executor", e);
+        }
+    }
+
+    private static void checkAvailable() {
+        if (!isAvailable()) throw new UnsupportedOperationException("virtual threads need JDK 21+");
+    }
+
+    private VirtualThreadSupport() {
+        throw new InstantiationError("Must not instantiate this class");
+    }
+}
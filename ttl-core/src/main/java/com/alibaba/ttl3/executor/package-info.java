@@ -1,7 +1,10 @@
 /**
- * {@code TTL} wrap/decoration utils for {@code executor}s.
+ * {@code TTL} wrap/decoration utils for {@code executor}s,
+ * and the thread pool executors transmitting without the task wrapper.
  *
  * @author Jerry Lee (oldratlee at gmail dot com)
  * @see com.alibaba.ttl3.executor.TtlExecutors
+ * @see com.alibaba.ttl3.executor.TtlThreadPoolExecutor
+ * @see com.alibaba.ttl3.executor.TtlScheduledThreadPoolExecutor
  */
 package com.alibaba.ttl3.executor;
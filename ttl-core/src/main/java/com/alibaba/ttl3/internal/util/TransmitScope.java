@@ -0,0 +1,135 @@
+package com.alibaba.ttl3.internal.util;
+
+import com.alibaba.crr.CrrTransmit;
+import com.alibaba.crr.composite.Capture;
+import com.alibaba.crr.composite.CompositeCrrTransmit;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * The scope of the bounded transmit operations,
+ * e.g. {@code Transmitter#runSupplierWithCaptured}, {@code TtlRunnable#run} and {@code TtlCallable#call}.
+ * <p>
+ * {@code TransmittableScopedValue} sets the binder on the JVM that {@code java.lang.ScopedValue} is available,
+ * so its transmitted values are bound by {@code ScopedValue} for the scope, instead of a {@link ThreadLocal}.
+ * A new scope is needed only if the binder has values to bind and no scope of the current thread to reuse;
+ * otherwise(including no binder is set), the operations run directly without allocation.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ */
+@ApiStatus.Internal
+public final class TransmitScope {
+    /**
+     * The binder of the transmitted values of a {@link CrrTransmit}.
+     *
+     * @param <C> the capture data type of the {@link CrrTransmit}
+     */
+    public interface Binder<C> {
+        /**
+         * Whether the replay of the captured value needs a new scope in the current thread.
+         *
+         * @param captured the captured value of the {@link CrrTransmit}, never {@code null}
+         */
+        boolean needsScope(@NonNull C captured);
+
+        /**
+         * Whether the clear needs a new scope in the current thread.
+         */
+        boolean needsScopeForClear();
+
+        /**
+         * Runs the operation in a new scope of the current thread.
+         */
+        void runInScope(@NonNull Runnable op);
+    }
+
+    @Nullable
+    private static volatile CompositeCrrTransmit compositeCrrTransmit;
+    @Nullable
+    private static volatile CrrTransmit<Object, ?> transmittee;
+    @Nullable
+    private static volatile Binder<Object> binder;
+
+    /**
+     * Set by {@code Transmitter} on the initialization, to find the captured value of the binder in a {@link Capture}.
+     */
+    public static void setCompositeCrrTransmit(@NonNull CompositeCrrTransmit compositeCrrTransmit) {
+        TransmitScope.compositeCrrTransmit = compositeCrrTransmit;
+    }
+
+    /**
+     * @param transmittee the registered {@link CrrTransmit} whose captured values are bound by the binder
+     */
+    @SuppressWarnings("unchecked")
+    public static <C> void setBinder(@NonNull CrrTransmit<C, ?> transmittee, @NonNull Binder<C> binder) {
+        TransmitScope.transmittee = (CrrTransmit<Object, ?>) transmittee;
+        TransmitScope.binder = (Binder<Object>) binder;
+    }
+
+    /**
+     * Whether the replay of the capture needs a new scope, if not, the operations can run directly without the scope.
+     */
+    public static boolean needsScope(@NonNull Capture captured) {
+        final Binder<Object> binder = TransmitScope.binder;
+        if (binder == null) return false;
+
+        final CompositeCrrTransmit compositeCrrTransmit = TransmitScope.compositeCrrTransmit;
+        final CrrTransmit<Object, ?> transmittee = TransmitScope.transmittee;
+        if (compositeCrrTransmit == null || transmittee == null) return false;
+
+        final Object value = compositeCrrTransmit.capturedOf(captured, transmittee);
+        return value != null && binder.needsScope(value);
+    }
+
+    /**
+     * Whether the clear needs a new scope, if not, the operations can run directly without the scope.
+     */
+    public static boolean needsScopeForClear() {
+        final Binder<Object> binder = TransmitScope.binder;
+        return binder != null && binder.needsScopeForClear();
+    }
+
+    /**
+     * Runs the operation in a new scope, only if {@link #needsScope(Capture)}/{@link #needsScopeForClear()}.
+     */
+    public static void run(@NonNull Runnable op) {
+        final Binder<Object> binder = TransmitScope.binder;
+        if (binder == null) op.run();
+        else binder.runInScope(op);
+    }
+
+    public static <R> R get(@NonNull Supplier<R> op) {
+        final Object[] result = new Object[1];
+        run(() -> result[0] = op.get());
+        return cast(result[0]);
+    }
+
+    @SuppressFBWarnings("THROWS_METHOD_THROWS_CLAUSE_BASIC_EXCEPTION")
+    public static <R> R call(@NonNull Callable<R> op) throws Exception {
+        final Object[] result = new Object[1];
+        final Exception[] exception = new Exception[1];
+        run(() -> {
+            try {
+                result[0] = op.call();
+            } catch (Exception e) {
+                exception[0] = e;
+            }
+        });
+        if (exception[0] != null) throw exception[0];
+        return cast(result[0]);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R cast(Object value) {
+        return (R) value;
+    }
+
+    private TransmitScope() {
+        throw new InstantiationError("Must not instantiate this class");
+    }
+}
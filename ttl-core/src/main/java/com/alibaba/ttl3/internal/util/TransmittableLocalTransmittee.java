@@ -0,0 +1,15 @@
+package com.alibaba.ttl3.internal.util;
+
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * The marker of the builtin {@code Transmittee}s of the transmittable locals,
+ * e.g. {@code TransmittableThreadLocal}, {@code TransmittableLongLocal} and {@code TransmittableScopedValue}.
+ * <p>
+ * The marked {@code Transmittee}s are chosen by {@code TransmitteePolicy#ttlOnly()}.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ */
+@ApiStatus.Internal
+public interface TransmittableLocalTransmittee {
+}
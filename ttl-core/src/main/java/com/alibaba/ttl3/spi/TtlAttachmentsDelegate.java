@@ -36,10 +36,8 @@ public class TtlAttachmentsDelegate implements TtlAttachments {
     public static boolean isAutoWrapper(@Nullable Object ttlAttachments) {
         if (!(ttlAttachments instanceof TtlAttachments)) return false;
 
-        final Boolean value = ((TtlAttachments) ttlAttachments).getTtlAttachment(KEY_IS_AUTO_WRAPPER);
-        if (value == null) return false;
-
-        return value;
+        final Object value = ((TtlAttachments) ttlAttachments).getTtlAttachment(KEY_IS_AUTO_WRAPPER);
+        return Boolean.TRUE.equals(value);
     }
 
     /**
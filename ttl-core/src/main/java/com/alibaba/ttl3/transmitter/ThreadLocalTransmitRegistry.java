@@ -1,17 +1,16 @@
 package com.alibaba.ttl3.transmitter;
 
+import com.alibaba.crr.EmptyContextAware;
 import com.alibaba.ttl3.TransmittableThreadLocal;
 import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.WeakHashMap;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.function.UnaryOperator;
 import java.util.logging.Logger;
 
-import static com.alibaba.ttl3.internal.util.Utils.newHashMap;
-
 /**
  * {@code ThreadLocalTransmitRegistry}, {@code ThreadLocal} transmit integration.
  * <p>
@@ -47,15 +46,32 @@ import static com.alibaba.ttl3.internal.util.Utils.newHashMap;
  * If the registered {@link ThreadLocal} instance is not {@link InheritableThreadLocal},
  * the instance can NOT <B><I>{@code inherit}</I></B> value from parent thread(aka. the <b>inheritable</b> ability)!
  *
+ * <h2>Reading the values</h2>
+ * The values of the registered {@link ThreadLocal}s are read by {@link ThreadLocal#get()} during the capture,
+ * the same as reading them directly; so the {@code initialValue()} of a {@link ThreadLocal}
+ * the thread never used is triggered.
+ * A {@code null} value is regarded as absent: it is not captured and the generator is not applied.
+ * <p>
+ * The replay and the restore touch only the {@link ThreadLocal}s captured with a value:
+ * the replay sets the captured values and backs up the values of the current thread,
+ * the restore sets the backup values back, or removes the {@link ThreadLocal}s absent before the replay.
+ * So a registered {@link ThreadLocal} absent in the capture is left as is in the thread running the task,
+ * including the value set by the task; use {@link TransmittableThreadLocal} if this isolation is needed.
+ *
  * @author Jerry Lee (oldratlee at gmail dot com)
  * @see TransmitteeRegistry#registerTransmittee(Transmittee)
  */
 public final class ThreadLocalTransmitRegistry {
     private static final Logger logger = Logger.getLogger(ThreadLocalTransmitRegistry.class.getName());
 
-    private static volatile WeakHashMap<ThreadLocal<Object>, UnaryOperator<Object>> threadLocalHolder = new WeakHashMap<>();
+    // the registered ThreadLocals, copy-on-write under the lock; the array is never modified after published,
+    // so the concurrent captures iterate it without any synchronization.
+    //
+    // the published snapshot(its values is null) is also the shared capture/backup
+    // when no registered ThreadLocal has value.
+    private static volatile Snapshot registered = new Snapshot(new Registration[0], null);
 
-    private static final Object threadLocalHolderUpdateLock = new Object();
+    private static final Object registeredUpdateLock = new Object();
 
     /**
      * Register the {@link ThreadLocal}(including subclass {@link InheritableThreadLocal}) instances
@@ -104,12 +120,21 @@ public final class ThreadLocalTransmitRegistry {
             return true;
         }
 
-        synchronized (threadLocalHolderUpdateLock) {
-            if (!force && threadLocalHolder.containsKey(threadLocal)) return false;
+        synchronized (registeredUpdateLock) {
+            final Registration[] registrations = expungeStaleRegistrations(registered.registrations);
+            final int index = indexOf(registrations, threadLocal);
+            if (!force && index >= 0) return false;
 
-            WeakHashMap<ThreadLocal<Object>, UnaryOperator<Object>> newHolder = new WeakHashMap<>(threadLocalHolder);
-            newHolder.put((ThreadLocal<Object>) threadLocal, (UnaryOperator<Object>) generator);
-            threadLocalHolder = newHolder;
+            final Registration registration = new Registration((ThreadLocal<Object>) threadLocal, (UnaryOperator<Object>) generator);
+            final Registration[] newRegistrations;
+            if (index >= 0) {
+                newRegistrations = registrations.clone();
+                newRegistrations[index] = registration;
+            } else {
+                newRegistrations = Arrays.copyOf(registrations, registrations.length + 1);
+                newRegistrations[registrations.length] = registration;
+            }
+            registered = new Snapshot(newRegistrations, null);
             return true;
         }
     }
@@ -128,73 +153,170 @@ public final class ThreadLocalTransmitRegistry {
             return true;
         }
 
-        synchronized (threadLocalHolderUpdateLock) {
-            if (!threadLocalHolder.containsKey(threadLocal)) return false;
+        synchronized (registeredUpdateLock) {
+            final Registration[] registrations = expungeStaleRegistrations(registered.registrations);
+            final int index = indexOf(registrations, threadLocal);
+            if (index < 0) {
+                if (registrations != registered.registrations) registered = new Snapshot(registrations, null);
+                return false;
+            }
 
-            WeakHashMap<ThreadLocal<Object>, UnaryOperator<Object>> newHolder = new WeakHashMap<>(threadLocalHolder);
-            newHolder.remove(threadLocal);
-            threadLocalHolder = newHolder;
+            final Registration[] newRegistrations = new Registration[registrations.length - 1];
+            System.arraycopy(registrations, 0, newRegistrations, 0, index);
+            System.arraycopy(registrations, index + 1, newRegistrations, index, registrations.length - index - 1);
+            registered = new Snapshot(newRegistrations, null);
             return true;
         }
     }
 
+    private static int indexOf(Registration[] registrations, ThreadLocal<?> threadLocal) {
+        for (int i = 0; i < registrations.length; i++) {
+            if (registrations[i].get() == threadLocal) return i;
+        }
+        return -1;
+    }
 
-    private static class ThreadLocalTransmittee implements Transmittee<HashMap<ThreadLocal<Object>, Object>, HashMap<ThreadLocal<Object>, Object>> {
-        private static final Object threadLocalClearMark = new Object();
+    /**
+     * Remove the registrations of the garbage collected {@link ThreadLocal}s, only by the writers under the lock.
+     */
+    private static Registration[] expungeStaleRegistrations(Registration[] registrations) {
+        int stale = 0;
+        for (Registration registration : registrations) {
+            if (registration.get() == null) stale++;
+        }
+        if (stale == 0) return registrations;
+
+        final Registration[] live = new Registration[registrations.length - stale];
+        int i = 0;
+        for (Registration registration : registrations) {
+            if (registration.get() != null) live[i++] = registration;
+        }
+        return live;
+    }
+
+    /**
+     * The registered {@link ThreadLocal}, weakly referenced like the keys of {@link java.util.WeakHashMap}.
+     */
+    private static final class Registration extends WeakReference<ThreadLocal<Object>> {
+        final UnaryOperator<Object> generator;
+
+        Registration(ThreadLocal<Object> threadLocal, UnaryOperator<Object> generator) {
+            super(threadLocal);
+            this.generator = generator;
+        }
+    }
 
+    /**
+     * The captured/backup values aligned to the registrations at the capture/replay time.
+     */
+    static final class Snapshot {
+        final Registration[] registrations;
+        // null if no value is captured/backed up;
+        // an element is null if not captured/backed up, or ABSENT if backed up as absent
+        @Nullable
+        final Object[] values;
+
+        Snapshot(Registration[] registrations, @Nullable Object[] values) {
+            this.registrations = registrations;
+            this.values = values;
+        }
+    }
+
+    // the backup mark of the ThreadLocal absent before the replay, removed during the restore
+    private static final Object ABSENT = new Object();
+
+    static class ThreadLocalTransmittee implements Transmittee<Snapshot, Snapshot>, EmptyContextAware {
         @NonNull
         @Override
-        public HashMap<ThreadLocal<Object>, Object> capture() {
-            final HashMap<ThreadLocal<Object>, Object> threadLocal2Value = newHashMap(threadLocalHolder.size());
-            for (Map.Entry<ThreadLocal<Object>, UnaryOperator<Object>> entry : threadLocalHolder.entrySet()) {
-                final ThreadLocal<Object> threadLocal = entry.getKey();
-                final UnaryOperator<Object> generator = entry.getValue();
+        public Snapshot capture() {
+            final Snapshot none = registered;
+            final Registration[] registrations = none.registrations;
+
+            Object[] values = null;
+            for (int i = 0; i < registrations.length; i++) {
+                final Registration registration = registrations[i];
+                final ThreadLocal<Object> threadLocal = registration.get();
+                if (threadLocal == null) continue;
+
+                final Object value = threadLocal.get();
+                if (value == null) continue;
 
-                threadLocal2Value.put(threadLocal, generator.apply(threadLocal.get()));
+                if (values == null) values = new Object[registrations.length];
+                values[i] = registration.generator.apply(value);
             }
-            return threadLocal2Value;
+            // no registered ThreadLocal has value, share the capture
+            if (values == null) return none;
+            return new Snapshot(registrations, values);
         }
 
         @NonNull
         @Override
-        public HashMap<ThreadLocal<Object>, Object> replay(@NonNull HashMap<ThreadLocal<Object>, Object> captured) {
-            final HashMap<ThreadLocal<Object>, Object> backup = newHashMap(captured.size());
+        public Snapshot replay(@NonNull Snapshot captured) {
+            final Object[] capturedValues = captured.values;
+            // nothing captured, nothing to replay and to restore
+            if (capturedValues == null) return captured;
 
-            for (Map.Entry<ThreadLocal<Object>, Object> entry : captured.entrySet()) {
-                final ThreadLocal<Object> threadLocal = entry.getKey();
-                backup.put(threadLocal, threadLocal.get());
+            final Registration[] registrations = captured.registrations;
+            final Object[] backupValues = new Object[registrations.length];
+            for (int i = 0; i < registrations.length; i++) {
+                if (capturedValues[i] == null) continue;
+                final ThreadLocal<Object> threadLocal = registrations[i].get();
+                if (threadLocal == null) continue;
 
-                final Object value = entry.getValue();
-                if (value == threadLocalClearMark) threadLocal.remove();
-                else threadLocal.set(value);
+                final Object backup = threadLocal.get();
+                backupValues[i] = backup == null ? ABSENT : backup;
+                threadLocal.set(capturedValues[i]);
             }
-
-            return backup;
+            return new Snapshot(registrations, backupValues);
         }
 
         @NonNull
         @Override
-        public HashMap<ThreadLocal<Object>, Object> clear() {
-            final HashMap<ThreadLocal<Object>, Object> threadLocal2Value = newHashMap(threadLocalHolder.size());
+        public Snapshot clear() {
+            final Snapshot none = registered;
+            final Registration[] registrations = none.registrations;
+
+            Object[] backupValues = null;
+            for (int i = 0; i < registrations.length; i++) {
+                final ThreadLocal<Object> threadLocal = registrations[i].get();
+                if (threadLocal == null) continue;
 
-            for (Map.Entry<ThreadLocal<Object>, UnaryOperator<Object>> entry : threadLocalHolder.entrySet()) {
-                final ThreadLocal<Object> threadLocal = entry.getKey();
-                threadLocal2Value.put(threadLocal, threadLocalClearMark);
+                final Object backup = threadLocal.get();
+                if (backup == null) continue;
+
+                if (backupValues == null) backupValues = new Object[registrations.length];
+                backupValues[i] = backup;
+                threadLocal.remove();
             }
+            if (backupValues == null) return none;
+            return new Snapshot(registrations, backupValues);
+        }
 
-            return replay(threadLocal2Value);
+        @Override
+        public boolean isEmptyContext() {
+            return registered.registrations.length == 0;
         }
 
         @Override
-        public void restore(@NonNull HashMap<ThreadLocal<Object>, Object> backup) {
-            for (Map.Entry<ThreadLocal<Object>, Object> entry : backup.entrySet()) {
-                final ThreadLocal<Object> threadLocal = entry.getKey();
-                threadLocal.set(entry.getValue());
+        public void restore(@NonNull Snapshot backup) {
+            final Object[] backupValues = backup.values;
+            // nothing replayed
+            if (backupValues == null) return;
+
+            final Registration[] registrations = backup.registrations;
+            for (int i = 0; i < registrations.length; i++) {
+                final Object value = backupValues[i];
+                if (value == null) continue;
+                final ThreadLocal<Object> threadLocal = registrations[i].get();
+                if (threadLocal == null) continue;
+
+                if (value == ABSENT) threadLocal.remove();
+                else threadLocal.set(value);
             }
         }
     }
 
-    private static final ThreadLocalTransmittee threadLocalTransmittee = new ThreadLocalTransmittee();
+    static final ThreadLocalTransmittee threadLocalTransmittee = new ThreadLocalTransmittee();
 
     static {
         TransmitteeRegistry.registerTransmittee(threadLocalTransmittee);
@@ -82,4 +82,20 @@ public interface Transmittee<C, B> extends CrrTransmit<C, B> {
      * @see #clear()
      */
     void restore(@NonNull B backup);
+
+    /**
+     * Release the backup after restore.
+     * <p>
+     * The released backup is never used again by the caller,
+     * so the implementation may recycle the backup object for the later replay/clear of the same thread.
+     * <p>
+     * <B><I>NOTE:</I></B><br>
+     * do NOT throw any exceptions, just ignored.
+     *
+     * @param backup the restored backup data of transmittee, the return value of methods {@link #replay(Object)} or {@link #clear()}
+     * @see #restore(Object)
+     */
+    @Override
+    default void release(@NonNull B backup) {
+    }
 }
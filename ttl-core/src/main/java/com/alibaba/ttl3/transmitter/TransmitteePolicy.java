@@ -0,0 +1,191 @@
+package com.alibaba.ttl3.transmitter;
+
+import com.alibaba.crr.CrrTransmit;
+import com.alibaba.crr.composite.Capture;
+import com.alibaba.crr.composite.CompositeCrrTransmit;
+import com.alibaba.ttl3.TransmittableThreadLocal;
+import com.alibaba.ttl3.TtlGroup;
+import com.alibaba.ttl3.internal.util.TransmittableLocalTransmittee;
+import edu.umd.cs.findbugs.annotations.NonNull;
+import edu.umd.cs.findbugs.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * The transmittee policy chooses which registered {@link Transmittee}s participate in the transmittance,
+ * e.g. a thread pool that transmits the {@link TransmittableThreadLocal}s,
+ * but not the registered {@link ThreadLocal}s or a heavy user {@link Transmittee}:
+ * <pre>{@code
+ * ExecutorService executorService = TtlExecutors.getTtlExecutorService(pool, TransmitteePolicy.ttlOnly());
+ * }</pre>
+ * The chosen {@link Transmittee}s are computed once, and recomputed only when
+ * the registered {@link Transmittee}s are changed(register/unregister);
+ * so the capture of a policy runs over the precomputed subset, without the per-capture filtering.
+ * <p>
+ * <B><I>NOTE:</I></B><br>
+ * The replay/restore of the capture of a policy only involves the chosen {@link Transmittee}s,
+ * the values of other {@link Transmittee}s in the replaying thread are untouched.
+ * <p>
+ * The policy of a transmission group({@link #ofGroup(TtlGroup)}) captures only the {@link TransmittableThreadLocal}s
+ * of the group, so the policy is the only parameter of the TTL wrappers and executors to select the transmitted values.
+ * <p>
+ * The policy is designed to be created once and shared, like the {@code static final} fields.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see com.alibaba.ttl3.executor.TtlExecutors#getTtlExecutorService(java.util.concurrent.ExecutorService, TransmitteePolicy)
+ * @see com.alibaba.ttl3.TtlRunnable#get(Runnable, TransmitteePolicy)
+ * @see com.alibaba.ttl3.TtlCallable#get(java.util.concurrent.Callable, TransmitteePolicy)
+ * @see TtlGroup
+ */
+public final class TransmitteePolicy {
+    // null for the policy of a transmission group
+    @Nullable
+    private final Predicate<? super Transmittee<?, ?>> filter;
+    @Nullable
+    private final CompositeCrrTransmit.Selection selection;
+    // the transmission group, null for the policy of the registered Transmittees
+    @Nullable
+    private final TtlGroup group;
+
+    private TransmitteePolicy(@NonNull Predicate<? super Transmittee<?, ?>> filter) {
+        this.filter = filter;
+        this.selection = Transmitter.compositeCrrTransmit.select(this::isAccepted0);
+        this.group = null;
+    }
+
+    private TransmitteePolicy(@NonNull TtlGroup group) {
+        this.filter = null;
+        this.selection = null;
+        this.group = group;
+    }
+
+    private boolean isAccepted0(CrrTransmit<?, ?> crrTransmit) {
+        // the registered CrrTransmits are the Transmittees from TransmitteeRegistry
+        return crrTransmit instanceof Transmittee && filter.test((Transmittee<?, ?>) crrTransmit);
+    }
+
+    /**
+     * Create the policy that chooses the registered {@link Transmittee}s accepted by the filter.
+     * <p>
+     * <B><I>NOTE:</I></B><br>
+     * the filter is called only when the registered {@link Transmittee}s are changed, NOT for every capture;
+     * so the filter result must be stable for a {@link Transmittee}.
+     *
+     * @param filter the filter of the registered {@link Transmittee}s
+     */
+    @NonNull
+    public static TransmitteePolicy of(@NonNull Predicate<? super Transmittee<?, ?>> filter) {
+        if (filter == null) throw new NullPointerException("filter is null");
+        return new TransmitteePolicy(filter);
+    }
+
+    /**
+     * Create the policy that chooses only the given {@link Transmittee}s.
+     */
+    @NonNull
+    public static TransmitteePolicy including(@NonNull Transmittee<?, ?>... transmittees) {
+        final List<Transmittee<?, ?>> included = Arrays.asList(transmittees.clone());
+        return new TransmitteePolicy(included::contains);
+    }
+
+    /**
+     * Create the policy that chooses all registered {@link Transmittee}s except the given {@link Transmittee}s.
+     */
+    @NonNull
+    public static TransmitteePolicy excluding(@NonNull Transmittee<?, ?>... transmittees) {
+        final List<Transmittee<?, ?>> excluded = Arrays.asList(transmittees.clone());
+        return new TransmitteePolicy(t -> !excluded.contains(t));
+    }
+
+    /**
+     * The policy that chooses only the builtin {@link Transmittee}s of the transmittable locals,
+     * aka. {@link TransmittableThreadLocal}, {@link com.alibaba.ttl3.TransmittableLongLocal}(and other primitive locals)
+     * and {@link com.alibaba.ttl3.TransmittableScopedValue};
+     * the {@link ThreadLocal}s registered via {@link ThreadLocalTransmitRegistry}
+     * and the user registered {@link Transmittee}s are NOT transmitted.
+     */
+    @NonNull
+    public static TransmitteePolicy ttlOnly() {
+        return TtlOnlyHolder.TTL_ONLY;
+    }
+
+    private static final class TtlOnlyHolder {
+        static final TransmitteePolicy TTL_ONLY = new TransmitteePolicy(t -> t instanceof TransmittableLocalTransmittee);
+    }
+
+    /**
+     * Create the policy that chooses all registered {@link Transmittee}s
+     * except the builtin {@link Transmittee} of {@link ThreadLocalTransmitRegistry},
+     * aka. the {@link ThreadLocal}s registered via {@link ThreadLocalTransmitRegistry} are NOT transmitted.
+     */
+    @NonNull
+    public static TransmitteePolicy excludingRegisteredThreadLocals() {
+        return excluding(ThreadLocalTransmitRegistry.threadLocalTransmittee);
+    }
+
+    /**
+     * Create the policy that captures only the {@link TransmittableThreadLocal}s of the transmission group;
+     * the registered {@link ThreadLocal}s and other {@link Transmittee}s are NOT transmitted.
+     * <p>
+     * The policies of the same group are equal.
+     *
+     * @see TtlGroup
+     */
+    @NonNull
+    public static TransmitteePolicy ofGroup(@NonNull TtlGroup group) {
+        if (group == null) throw new NullPointerException("group is null");
+        return new TransmitteePolicy(group);
+    }
+
+    /**
+     * Create the policy that chooses the registered {@link Transmittee}s chosen by both this and the other policy.
+     *
+     * @throws IllegalArgumentException if this or the other is the policy of a transmission group
+     */
+    @NonNull
+    public TransmitteePolicy and(@NonNull TransmitteePolicy other) {
+        final Predicate<? super Transmittee<?, ?>> thisFilter = filter;
+        final Predicate<? super Transmittee<?, ?>> otherFilter = other.filter;
+        if (thisFilter == null || otherFilter == null) {
+            throw new IllegalArgumentException("the policy of TtlGroup can not be combined");
+        }
+        return new TransmitteePolicy(t -> thisFilter.test(t) && otherFilter.test(t));
+    }
+
+    /**
+     * Whether the registered {@link Transmittee} is chosen by this policy.
+     * <p>
+     * The policy of a transmission group chooses no whole {@link Transmittee}, always {@code false}.
+     */
+    public boolean isAccepted(@NonNull Transmittee<?, ?> transmittee) {
+        return filter != null && filter.test(transmittee);
+    }
+
+    /**
+     * Capture the values of the chosen {@link Transmittee}s in the current thread.
+     * <p>
+     * The returned capture is used as the capture of {@link Transmitter#capture()},
+     * e.g. {@link Transmitter#replay(Capture)}.
+     */
+    @NonNull
+    public Capture capture() {
+        if (group != null) return group.capture();
+        return selection.capture();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        final TransmitteePolicy that = (TransmitteePolicy) o;
+        return group != null && group == that.group;
+    }
+
+    @Override
+    public int hashCode() {
+        return group != null ? group.hashCode() : System.identityHashCode(this);
+    }
+}
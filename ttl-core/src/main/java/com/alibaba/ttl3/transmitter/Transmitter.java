@@ -8,6 +8,7 @@ import com.alibaba.crr.composite.CompositeCrrTransmitCallback;
 import com.alibaba.ttl3.TransmittableThreadLocal;
 import com.alibaba.ttl3.TtlCallable;
 import com.alibaba.ttl3.TtlRunnable;
+import com.alibaba.ttl3.internal.util.TransmitScope;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
@@ -113,6 +114,10 @@ public final class Transmitter {
 
     static final CompositeCrrTransmit compositeCrrTransmit = new CompositeCrrTransmit(compositeCallback);
 
+    static {
+        TransmitScope.setCompositeCrrTransmit(compositeCrrTransmit);
+    }
+
     /**
      * Capture all {@link TransmittableThreadLocal} and registered {@link ThreadLocal} values in the current thread.
      *
@@ -123,6 +128,23 @@ public final class Transmitter {
         return compositeCrrTransmit.capture();
     }
 
+    /**
+     * Create the capture of the given registered {@link Transmittee} only, from its captured value;
+     * the replay/restore of the created capture leave the values of other {@link Transmittee}s untouched.
+     * <p>
+     * For the {@link Transmittee}s that capture a subset of their values,
+     * e.g. {@link com.alibaba.ttl3.TtlGroup#capture()}.
+     *
+     * @param transmittee the registered {@link Transmittee}
+     * @param captured    the captured value of the {@link Transmittee}
+     * @return the capture of the given {@link Transmittee} only
+     * @see #replay(Capture)
+     */
+    @NonNull
+    public static <C> Capture captureOnly(@NonNull Transmittee<C, ?> transmittee, @NonNull C captured) {
+        return compositeCrrTransmit.captureOnly(transmittee, captured);
+    }
+
     /**
      * Replay the captured {@link TransmittableThreadLocal} and registered {@link ThreadLocal} values from {@link #capture()},
      * and return the backup {@link TransmittableThreadLocal} values in the current thread before replay.
@@ -169,6 +191,26 @@ public final class Transmitter {
         compositeCrrTransmit.restore(backup);
     }
 
+    /**
+     * Restore the backup {@link TransmittableThreadLocal} and
+     * registered {@link ThreadLocal} values from {@link #replay(Capture)}/{@link #clear()},
+     * then release the backup.
+     * <p>
+     * The released backup is recycled by the later replay/clear of the current thread,
+     * so the replay/restore cycle of the wrappers(e.g. {@link TtlRunnable}) does not allocate
+     * the backup objects in the steady state.
+     * <p>
+     * <B><I>CAUTION:</I></B><br>
+     * The backup must NOT be used after this method, e.g. restore again.
+     * If you are not sure, use {@link #restore(Backup)} instead.
+     *
+     * @param backup the backup {@link TransmittableThreadLocal} values from {@link #replay(Capture)}/{@link #clear()}
+     * @see #restore(Backup)
+     */
+    public static void restoreAndRelease(@NonNull Backup backup) {
+        compositeCrrTransmit.restoreAndRelease(backup);
+    }
+
     /**
      * Util method for simplifying {@link #replay(Capture)} and {@link #restore(Backup)} operations.
      *
@@ -181,11 +223,16 @@ public final class Transmitter {
      * @see #restore(Backup)
      */
     public static <R> R runSupplierWithCaptured(@NonNull Capture captured, @NonNull Supplier<R> bizLogic) {
+        if (TransmitScope.needsScope(captured)) return TransmitScope.get(() -> runSupplierWithCaptured0(captured, bizLogic));
+        return runSupplierWithCaptured0(captured, bizLogic);
+    }
+
+    private static <R> R runSupplierWithCaptured0(Capture captured, Supplier<R> bizLogic) {
         final Backup backup = replay(captured);
         try {
             return bizLogic.get();
         } finally {
-            restore(backup);
+            restoreAndRelease(backup);
         }
     }
 
@@ -199,11 +246,16 @@ public final class Transmitter {
      * @see #restore(Backup)
      */
     public static <R> R runSupplierWithClear(@NonNull Supplier<R> bizLogic) {
+        if (TransmitScope.needsScopeForClear()) return TransmitScope.get(() -> runSupplierWithClear0(bizLogic));
+        return runSupplierWithClear0(bizLogic);
+    }
+
+    private static <R> R runSupplierWithClear0(Supplier<R> bizLogic) {
         final Backup backup = clear();
         try {
             return bizLogic.get();
         } finally {
-            restore(backup);
+            restoreAndRelease(backup);
         }
     }
 
@@ -221,11 +273,17 @@ public final class Transmitter {
      */
     @SuppressFBWarnings("THROWS_METHOD_THROWS_CLAUSE_BASIC_EXCEPTION")
     public static <R> R runCallableWithCaptured(@NonNull Capture captured, @NonNull Callable<R> bizLogic) throws Exception {
+        if (TransmitScope.needsScope(captured)) return TransmitScope.call(() -> runCallableWithCaptured0(captured, bizLogic));
+        return runCallableWithCaptured0(captured, bizLogic);
+    }
+
+    @SuppressFBWarnings("THROWS_METHOD_THROWS_CLAUSE_BASIC_EXCEPTION")
+    private static <R> R runCallableWithCaptured0(Capture captured, Callable<R> bizLogic) throws Exception {
         final Backup backup = replay(captured);
         try {
             return bizLogic.call();
         } finally {
-            restore(backup);
+            restoreAndRelease(backup);
         }
     }
 
@@ -241,11 +299,17 @@ public final class Transmitter {
      */
     @SuppressFBWarnings("THROWS_METHOD_THROWS_CLAUSE_BASIC_EXCEPTION")
     public static <R> R runCallableWithClear(@NonNull Callable<R> bizLogic) throws Exception {
+        if (TransmitScope.needsScopeForClear()) return TransmitScope.call(() -> runCallableWithClear0(bizLogic));
+        return runCallableWithClear0(bizLogic);
+    }
+
+    @SuppressFBWarnings("THROWS_METHOD_THROWS_CLAUSE_BASIC_EXCEPTION")
+    private static <R> R runCallableWithClear0(Callable<R> bizLogic) throws Exception {
         final Backup backup = clear();
         try {
             return bizLogic.call();
         } finally {
-            restore(backup);
+            restoreAndRelease(backup);
         }
     }
 
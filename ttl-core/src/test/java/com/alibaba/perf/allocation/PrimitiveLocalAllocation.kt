@@ -0,0 +1,53 @@
+package com.alibaba.perf.allocation
+
+import com.alibaba.ttl3.TransmittableLongLocal
+import com.alibaba.ttl3.TransmittableThreadLocal
+import com.alibaba.ttl3.TtlRunnable
+import java.lang.management.ManagementFactory
+import kotlin.concurrent.thread
+
+private const val WARMUP_COUNT = 1_000_000
+private const val RUN_COUNT = 10_000_000
+
+private val longLocal = TransmittableLongLocal()
+private val boxedLocal = TransmittableThreadLocal<Long>()
+
+/**
+ * Allocated bytes per set of the request context value,
+ * [TransmittableLongLocal] vs the boxed `TransmittableThreadLocal<Long>`;
+ * and per [TtlRunnable.run] transmitting the [TransmittableLongLocal].
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ */
+fun main() {
+    val threadMXBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+
+    fun measure(name: String, action: LongAction) {
+        for (i in 0 until WARMUP_COUNT) action.run(i + 1_000_000L)
+
+        val threadId = Thread.currentThread().id
+        val start = threadMXBean.getThreadAllocatedBytes(threadId)
+        for (i in 0 until RUN_COUNT) action.run(i + 1_000_000L)
+        val allocated = threadMXBean.getThreadAllocatedBytes(threadId) - start
+
+        System.out.printf("%s, allocated bytes per op: %.3f\n", name, allocated.toDouble() / RUN_COUNT)
+    }
+
+    val worker = thread(start = false) {
+        measure("TransmittableLongLocal set") { longLocal.set(it) }
+        measure("TransmittableThreadLocal<Long> set") { boxedLocal.set(it) }
+        boxedLocal.remove()
+
+        longLocal.set(42)
+        val ttlRunnable = TtlRunnable.get { longLocal.get() }!!
+        longLocal.set(43)
+        measure("TtlRunnable run") { ttlRunnable.run() }
+    }
+    worker.start()
+    worker.join()
+}
+
+// NOT the kotlin function type, avoid the boxing of the measure harness self
+private fun interface LongAction {
+    fun run(value: Long)
+}
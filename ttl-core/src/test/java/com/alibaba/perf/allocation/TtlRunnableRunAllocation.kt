@@ -0,0 +1,44 @@
+package com.alibaba.perf.allocation
+
+import com.alibaba.perf.getRandomString
+import com.alibaba.ttl3.TransmittableThreadLocal
+import com.alibaba.ttl3.TtlRunnable
+import java.lang.management.ManagementFactory
+import kotlin.concurrent.thread
+
+private const val TTL_COUNT = 10
+private const val WARMUP_COUNT = 1_000_000
+private const val RUN_COUNT = 10_000_000
+
+/**
+ * Allocated bytes per [TtlRunnable.run] in the steady state,
+ * aka. the allocation of the replay/restore cycle; expected to be `0`.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ */
+fun main() {
+    val threadMXBean = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+
+    val ttlList = List(TTL_COUNT) { TransmittableThreadLocal<String>() }
+
+    val worker = thread(start = false) {
+        ttlList.forEach { it.set(getRandomString()) }
+        val ttlRunnable = TtlRunnable.get { ttlList[0].get() }!!
+
+        // the worker thread has its own context, the values differ from the captured ones.
+        // NOTE: do NOT remove the TTLs of the worker thread,
+        //       the set after remove allocates a new entry of ThreadLocalMap inside JDK.
+        ttlList.forEach { it.set(getRandomString()) }
+
+        repeat(WARMUP_COUNT) { ttlRunnable.run() }
+
+        val threadId = Thread.currentThread().id
+        val start = threadMXBean.getThreadAllocatedBytes(threadId)
+        repeat(RUN_COUNT) { ttlRunnable.run() }
+        val allocated = threadMXBean.getThreadAllocatedBytes(threadId) - start
+
+        System.out.printf("allocated bytes per run: %.3f\n", allocated.toDouble() / RUN_COUNT)
+    }
+    worker.start()
+    worker.join()
+}
@@ -0,0 +1,50 @@
+package com.alibaba.perf.tps
+
+import com.alibaba.perf.getRandomString
+import com.alibaba.ttl3.TransmittableThreadLocal
+import com.alibaba.ttl3.executor.TtlExecutors
+import java.util.concurrent.AbstractExecutorService
+import java.util.concurrent.TimeUnit
+
+private const val TTL_COUNT = 10
+
+/**
+ * Tps of the TTL wrapper of [java.util.concurrent.ExecutorService] which runs the task in the submitting thread,
+ * the replay/restore is elided since the thread already holds the captured context.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ */
+fun main() {
+    val ttlList = List(TTL_COUNT) { TransmittableThreadLocal<String>() }
+    val value = getRandomString()
+
+    val executorService = TtlExecutors.getTtlExecutorService(DirectExecutorService())!!
+
+    val tpsCounter = TpsCounter(2)
+
+    tpsCounter.setAction {
+        if (ttlList[0].get() == null) ttlList.forEach { it.set(value) }
+
+        executorService.execute { ttlList[0].get() }
+    }
+
+    while (true) {
+        val start = tpsCounter.count
+        Thread.sleep(1000)
+        System.out.printf("tps: %d\n", tpsCounter.count - start)
+    }
+}
+
+private class DirectExecutorService : AbstractExecutorService() {
+    override fun execute(command: Runnable) = command.run()
+
+    override fun shutdown() {}
+
+    override fun shutdownNow(): List<Runnable> = emptyList()
+
+    override fun isShutdown(): Boolean = false
+
+    override fun isTerminated(): Boolean = false
+
+    override fun awaitTermination(timeout: Long, unit: TimeUnit): Boolean = false
+}
@@ -0,0 +1,32 @@
+package com.alibaba.perf.tps
+
+import com.alibaba.perf.getRandomString
+import com.alibaba.ttl3.TransmittableThreadLocal
+import com.alibaba.ttl3.TtlRunnable
+
+private const val TTL_COUNT = 10
+
+/**
+ * Tps of [TtlRunnable] run in the submitting thread(e.g. `CallerRunsPolicy`, direct executor),
+ * the replay/restore is elided since the thread already holds the captured context.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ */
+fun main() {
+    val ttlList = List(TTL_COUNT) { TransmittableThreadLocal<String>() }
+    val value = getRandomString()
+
+    val tpsCounter = TpsCounter(2)
+
+    tpsCounter.setAction {
+        if (ttlList[0].get() == null) ttlList.forEach { it.set(value) }
+
+        TtlRunnable.get { ttlList[0].get() }!!.run()
+    }
+
+    while (true) {
+        val start = tpsCounter.count
+        Thread.sleep(1000)
+        System.out.printf("tps: %d\n", tpsCounter.count - start)
+    }
+}
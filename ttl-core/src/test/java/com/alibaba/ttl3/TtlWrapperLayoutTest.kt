@@ -0,0 +1,109 @@
+package com.alibaba.ttl3
+
+import com.alibaba.ttl3.spi.TtlAttachments
+import com.alibaba.ttl3.spi.TtlAttachmentsDelegate
+import io.kotest.core.spec.style.AnnotationSpec
+import io.kotest.matchers.booleans.shouldBeFalse
+import io.kotest.matchers.booleans.shouldBeTrue
+import io.kotest.matchers.collections.shouldContain
+import io.kotest.matchers.collections.shouldNotContainAnyOf
+import io.kotest.matchers.longs.shouldBeLessThan
+import io.kotest.matchers.shouldBe
+import org.openjdk.jol.info.ClassLayout
+import org.openjdk.jol.info.GraphLayout
+import org.openjdk.jol.vm.VM
+import java.util.concurrent.Callable
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicReference
+
+/**
+ * Pin the object layout of the TTL wrappers, a wrapper is created for every submitted task.
+ */
+class TtlWrapperLayoutTest : AnnotationSpec() {
+
+    @Test
+    fun test_instance_size() {
+        checkCompactLayout(TtlRunnable::class.java, "runnable", "releaseTtlValueReferenceAfterRun")
+        checkCompactLayout(TtlCallable::class.java, "callable", "releaseTtlValueReferenceAfterCall")
+    }
+
+    /**
+     * The fields of the compact layout: the capture, the task, the release flag,
+     * and the auto wrapper flag and the lazy attachments map of [CompactTtlAttachments].
+     */
+    private fun checkCompactLayout(wrapperClass: Class<*>, taskField: String, releaseField: String) {
+        val layout = ClassLayout.parseClass(wrapperClass)
+        layout.fields().map { it.name() }.toSet() shouldBe
+            setOf("captured", taskField, releaseField, "autoWrapper", "attachments")
+
+        // at most the padding of the superclass fields and the object alignment
+        val fieldsSize = layout.headerSize() + layout.fields().sumOf { it.size() }
+        (layout.instanceSize() - fieldsSize) shouldBeLessThan 2L * VM.current().objectAlignment()
+    }
+
+    @Test
+    fun test_retained_objects() {
+        val ttlRunnable = TtlRunnable.get {}!!
+        val ttlCallable = TtlCallable.get(Callable { 42 })!!
+
+        listOf(ttlRunnable, ttlCallable).forEach {
+            retainedClasses(it) shouldNotContainAnyOf perTaskHelperClasses
+
+            // the auto wrapper attachment is a field, no attachments map
+            TtlAttachmentsDelegate.isAutoWrapper(it).shouldBeFalse()
+            TtlAttachmentsDelegate.setAutoWrapperAttachment(it)
+            TtlAttachmentsDelegate.isAutoWrapper(it).shouldBeTrue()
+            retainedClasses(it) shouldNotContainAnyOf perTaskHelperClasses
+
+            // other attachments create the attachments map lazily
+            val attachments = it as TtlAttachments
+            attachments.getTtlAttachment<String>("key") shouldBe null
+            attachments.setTtlAttachment("key", "value")
+            attachments.getTtlAttachment<String>("key") shouldBe "value"
+            retainedClasses(it) shouldContain ConcurrentHashMap::class.java
+        }
+    }
+
+    @Test
+    fun test_auto_wrapper_attachment_values() {
+        val ttlRunnable = TtlRunnable.get {}!!
+
+        // never set
+        ttlRunnable.getTtlAttachment<Boolean>(TtlAttachments.KEY_IS_AUTO_WRAPPER) shouldBe null
+        TtlAttachmentsDelegate.isAutoWrapper(ttlRunnable).shouldBeFalse()
+
+        ttlRunnable.setTtlAttachment(TtlAttachments.KEY_IS_AUTO_WRAPPER, true)
+        TtlAttachmentsDelegate.isAutoWrapper(ttlRunnable).shouldBeTrue()
+
+        // null removes the attachment
+        ttlRunnable.setTtlAttachment(TtlAttachments.KEY_IS_AUTO_WRAPPER, null)
+        TtlAttachmentsDelegate.isAutoWrapper(ttlRunnable).shouldBeFalse()
+        ttlRunnable.getTtlAttachment<Boolean>(TtlAttachments.KEY_IS_AUTO_WRAPPER) shouldBe null
+
+        // other values are kept as is, and are not an auto wrapper
+        ttlRunnable.setTtlAttachment(TtlAttachments.KEY_IS_AUTO_WRAPPER, false)
+        ttlRunnable.getTtlAttachment<Boolean>(TtlAttachments.KEY_IS_AUTO_WRAPPER) shouldBe false
+        TtlAttachmentsDelegate.isAutoWrapper(ttlRunnable).shouldBeFalse()
+        ttlRunnable.setTtlAttachment(TtlAttachments.KEY_IS_AUTO_WRAPPER, "true")
+        ttlRunnable.getTtlAttachment<String>(TtlAttachments.KEY_IS_AUTO_WRAPPER) shouldBe "true"
+        TtlAttachmentsDelegate.isAutoWrapper(ttlRunnable).shouldBeFalse()
+
+        ttlRunnable.setTtlAttachment(TtlAttachments.KEY_IS_AUTO_WRAPPER, true)
+        ttlRunnable.getTtlAttachment<Boolean>(TtlAttachments.KEY_IS_AUTO_WRAPPER) shouldBe true
+        TtlAttachmentsDelegate.isAutoWrapper(ttlRunnable).shouldBeTrue()
+
+        // the wrappers do not expose the public delegate as their superclass
+        TtlAttachmentsDelegate::class.java.isAssignableFrom(TtlRunnable::class.java).shouldBeFalse()
+        TtlAttachmentsDelegate::class.java.isAssignableFrom(TtlCallable::class.java).shouldBeFalse()
+    }
+
+    private fun retainedClasses(root: Any): Set<Class<*>> = GraphLayout.parseInstance(root).classes()
+
+    companion object {
+        private val perTaskHelperClasses = listOf(
+            AtomicReference::class.java,
+            ConcurrentHashMap::class.java,
+            TtlAttachmentsDelegate::class.java,
+        )
+    }
+}
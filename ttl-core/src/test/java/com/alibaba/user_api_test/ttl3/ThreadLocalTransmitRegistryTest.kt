@@ -0,0 +1,143 @@
+package com.alibaba.user_api_test.ttl3
+
+import com.alibaba.getForTest
+import com.alibaba.shutdownForTest
+import com.alibaba.ttl3.executor.TtlExecutors
+import com.alibaba.ttl3.transmitter.ThreadLocalTransmitRegistry
+import com.alibaba.ttl3.transmitter.Transmitter
+import io.kotest.core.spec.style.AnnotationSpec
+import io.kotest.matchers.booleans.shouldBeFalse
+import io.kotest.matchers.booleans.shouldBeTrue
+import io.kotest.matchers.shouldBe
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
+
+class ThreadLocalTransmitRegistryTest : AnnotationSpec() {
+
+    @Test
+    fun test_transmit() {
+        threadLocal.set("tl")
+        inheritableThreadLocal.set("itl")
+
+        executorService.submit<List<String?>> { listOf(threadLocal.get(), inheritableThreadLocal.get()) }
+            .getForTest() shouldBe listOf("tl", "itl")
+
+        threadLocal.remove()
+        inheritableThreadLocal.remove()
+    }
+
+    @Test
+    fun test_absent_in_capture_is_left_as_is() {
+        rawExecutorService.submit { threadLocal.set("worker") }.getForTest()
+
+        // nothing set in the current thread, the worker value is not touched
+        executorService.submit<String?> { threadLocal.get() }.getForTest() shouldBe "worker"
+
+        threadLocal.set("tl")
+        executorService.submit<String?> { threadLocal.get() }.getForTest() shouldBe "tl"
+        rawExecutorService.submit<String?> { threadLocal.get() }.getForTest() shouldBe "worker"
+
+        rawExecutorService.submit { threadLocal.remove() }.getForTest()
+        threadLocal.remove()
+    }
+
+    @Test
+    fun test_replayed_value_is_removed_if_absent_before_replay() {
+        val generated = AtomicInteger()
+        val tl = ThreadLocal<String>()
+        ThreadLocalTransmitRegistry.registerThreadLocal(tl) { generated.incrementAndGet(); it }.shouldBeTrue()
+        try {
+            // the absent value is not captured, and the generator is not applied
+            Transmitter.capture()
+            generated.get() shouldBe 0
+
+            tl.set("captured")
+            val captured = Transmitter.capture()
+            generated.get() shouldBe 1
+            tl.remove()
+
+            val backup = Transmitter.replay(captured)
+            tl.get() shouldBe "captured"
+            tl.set("set-by-task")
+            Transmitter.restore(backup)
+
+            tl.get() shouldBe null
+        } finally {
+            ThreadLocalTransmitRegistry.unregisterThreadLocal(tl).shouldBeTrue()
+        }
+    }
+
+    @Test
+    fun test_generator_and_force() {
+        val copied = ThreadLocal<MutableList<String>>()
+        ThreadLocalTransmitRegistry.registerThreadLocal(copied) { it }.shouldBeTrue()
+        try {
+            ThreadLocalTransmitRegistry.registerThreadLocal(copied) { ArrayList(it) }.shouldBeFalse()
+            ThreadLocalTransmitRegistry.registerThreadLocal(copied, { ArrayList(it) }, true).shouldBeTrue()
+
+            val list = mutableListOf("a")
+            copied.set(list)
+            Transmitter.runSupplierWithCaptured(Transmitter.capture()) {
+                copied.get() shouldBe list
+                (copied.get() !== list).shouldBeTrue()
+            }
+            copied.remove()
+        } finally {
+            ThreadLocalTransmitRegistry.unregisterThreadLocal(copied).shouldBeTrue()
+        }
+        ThreadLocalTransmitRegistry.unregisterThreadLocal(copied).shouldBeFalse()
+    }
+
+    @Test
+    fun test_concurrent_capture_with_registration() {
+        val stop = AtomicBoolean(false)
+        val threadLocals = List(16) { ThreadLocal<String>() }
+
+        val capturerExecutorService = Executors.newFixedThreadPool(4)
+        val capturers = List(4) {
+            capturerExecutorService.submit {
+                threadLocal.set("tl")
+                while (!stop.get()) {
+                    Transmitter.runSupplierWithCaptured(Transmitter.capture()) { threadLocal.get() } shouldBe "tl"
+                }
+                threadLocal.remove()
+            }
+        }
+        try {
+            repeat(1000) {
+                threadLocals.forEach { ThreadLocalTransmitRegistry.registerThreadLocal(it) { v -> v } }
+                threadLocals.forEach { ThreadLocalTransmitRegistry.unregisterThreadLocal(it) }
+            }
+        } finally {
+            stop.set(true)
+        }
+        capturers.forEach { it.getForTest() }
+        capturerExecutorService.shutdownForTest()
+    }
+
+    private lateinit var rawExecutorService: ExecutorService
+    private lateinit var executorService: ExecutorService
+
+    @BeforeAll
+    fun beforeAll() {
+        ThreadLocalTransmitRegistry.registerThreadLocal(threadLocal) { it }
+        ThreadLocalTransmitRegistry.registerThreadLocal(inheritableThreadLocal) { it }
+        // single thread, so the raw and the TTL executor share the worker thread
+        rawExecutorService = Executors.newSingleThreadExecutor()
+        executorService = TtlExecutors.getTtlExecutorService(rawExecutorService)!!
+    }
+
+    @AfterAll
+    fun afterAll() {
+        ThreadLocalTransmitRegistry.unregisterThreadLocal(threadLocal)
+        ThreadLocalTransmitRegistry.unregisterThreadLocal(inheritableThreadLocal)
+        rawExecutorService.shutdownForTest()
+    }
+
+    companion object {
+        private val threadLocal = ThreadLocal<String>()
+        private val inheritableThreadLocal = InheritableThreadLocal<String>()
+    }
+}
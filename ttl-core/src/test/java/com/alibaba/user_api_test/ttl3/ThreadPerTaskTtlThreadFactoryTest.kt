@@ -0,0 +1,141 @@
+package com.alibaba.user_api_test.ttl3
+
+import com.alibaba.getForTest
+import com.alibaba.shutdownForTest
+import com.alibaba.ttl3.TransmittableThreadLocal
+import com.alibaba.ttl3.TtlWrappers
+import com.alibaba.ttl3.executor.TtlExecutors
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.AnnotationSpec
+import io.kotest.matchers.booleans.shouldBeFalse
+import io.kotest.matchers.booleans.shouldBeTrue
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import java.util.concurrent.Executors
+
+class ThreadPerTaskTtlThreadFactoryTest : AnnotationSpec() {
+
+    @Test
+    fun test_wrap_unwrap() {
+        val threadFactory = Executors.defaultThreadFactory()
+        val ttlThreadFactory = TtlExecutors.getThreadPerTaskTtlThreadFactory(threadFactory)!!
+
+        TtlExecutors.isThreadPerTaskTtlThreadFactory(ttlThreadFactory).shouldBeTrue()
+        TtlExecutors.isThreadPerTaskTtlThreadFactory(threadFactory).shouldBeFalse()
+        TtlExecutors.getThreadPerTaskTtlThreadFactory(ttlThreadFactory) shouldBeSameInstanceAs ttlThreadFactory
+        TtlExecutors.unwrapThreadPerTaskTtlThreadFactory(ttlThreadFactory) shouldBeSameInstanceAs threadFactory
+        TtlWrappers.unwrap(ttlThreadFactory) shouldBeSameInstanceAs threadFactory
+        TtlExecutors.getThreadPerTaskTtlThreadFactory(null) shouldBe null
+    }
+
+    @Test
+    fun test_install_captured_at_thread_creation() {
+        val ttl = TransmittableThreadLocal<String>()
+        // the thread factory does not inherit, the value is only from the installed capture
+        val threadFactory = TtlExecutors.getThreadPerTaskTtlThreadFactory(
+            TtlExecutors.getDefaultDisableInheritableThreadFactory()
+        )!!
+
+        ttl.set("parent")
+        var childValue: String? = null
+        val thread = threadFactory.newThread {
+            childValue = ttl.get()
+            ttl.set("child")
+        }
+        // the value is captured at the thread creation
+        ttl.set("after creation")
+        thread.start()
+        thread.join()
+
+        childValue shouldBe "parent"
+        ttl.get() shouldBe "after creation"
+        ttl.remove()
+    }
+
+    @Test
+    fun test_thread_builder() {
+        if (!TtlExecutors.isVirtualThreadAvailable()) {
+            shouldThrow<UnsupportedOperationException> { TtlExecutors.getThreadPerTaskTtlThreadFactoryOfBuilder(Any()) }
+            return
+        }
+        shouldThrow<IllegalArgumentException> { TtlExecutors.getThreadPerTaskTtlThreadFactoryOfBuilder(Any()) }
+        TtlExecutors.getThreadPerTaskTtlThreadFactoryOfBuilder(null) shouldBe null
+
+        // Thread.ofPlatform().name("ttl-builder-", 0), via reflection since the test targets Java 8
+        val builder = Thread::class.java.getMethod("ofPlatform").invoke(null)
+        Class.forName("java.lang.Thread\$Builder").getMethod("name", String::class.java, Long::class.javaPrimitiveType)
+            .invoke(builder, "ttl-builder-", 0L)
+
+        val ttl = TransmittableThreadLocal<String>()
+        ttl.set("scope open")
+        val scopedThreadFactory = TtlExecutors.getScopedTtlThreadFactoryOfBuilder(builder)!!
+        val threadFactory = TtlExecutors.getThreadPerTaskTtlThreadFactoryOfBuilder(builder)!!
+        TtlExecutors.isThreadPerTaskTtlThreadFactory(threadFactory).shouldBeTrue()
+        ttl.set("parent")
+
+        val values = listOf(threadFactory, scopedThreadFactory).map {
+            var value: String? = null
+            it.newThread { value = "${ttl.get()}@${Thread.currentThread().name}" }.apply { start(); join() }
+            value
+        }
+        // every thread factory of the builder counts the thread names from the builder
+        values shouldBe listOf("parent@ttl-builder-0", "scope open@ttl-builder-0")
+        ttl.remove()
+    }
+
+    @Test
+    fun test_scoped_capture_once_at_scope_open() {
+        val ttl = TransmittableThreadLocal<String>()
+        ttl.set("scope open")
+        val threadFactory = TtlExecutors.getScopedTtlThreadFactory(
+            TtlExecutors.getDefaultDisableInheritableThreadFactory()
+        )!!
+        TtlExecutors.isThreadPerTaskTtlThreadFactory(threadFactory).shouldBeTrue()
+        TtlExecutors.getScopedTtlThreadFactory(threadFactory) shouldBeSameInstanceAs threadFactory
+
+        // the values set after the scope open are not transmitted to the forks
+        ttl.set("after scope open")
+        val forkValues = (1..3).map {
+            var forkValue: String? = null
+            threadFactory.newThread {
+                forkValue = ttl.get()
+                ttl.set("fork $it")
+            }.apply { start(); join() }
+            forkValue
+        }
+
+        forkValues shouldBe listOf("scope open", "scope open", "scope open")
+        ttl.get() shouldBe "after scope open"
+        ttl.remove()
+    }
+
+    @Test
+    fun test_virtual_thread_executor() {
+        if (!TtlExecutors.isVirtualThreadAvailable()) {
+            shouldThrow<UnsupportedOperationException> { TtlExecutors.newTtlVirtualThreadPerTaskExecutor() }
+            shouldThrow<UnsupportedOperationException> { TtlExecutors.getScopedTtlVirtualThreadFactory() }
+            return
+        }
+
+        val ttl = TransmittableThreadLocal<String>()
+        val executorService = TtlExecutors.newTtlVirtualThreadPerTaskExecutor()
+
+        ttl.set("parent")
+        executorService.submit<String> { ttl.get() }.getForTest() shouldBe "parent"
+        ttl.set("changed")
+        executorService.submit<String> { ttl.get() }.getForTest() shouldBe "changed"
+
+        ttl.remove()
+        executorService.submit<String?> { ttl.get() }.getForTest() shouldBe null
+
+        executorService.shutdownForTest()
+
+        ttl.set("scope open")
+        val threadFactory = TtlExecutors.getScopedTtlVirtualThreadFactory()
+        ttl.set("after scope open")
+        var forkValue: String? = null
+        threadFactory.newThread { forkValue = ttl.get() }.apply { start(); join() }
+        forkValue shouldBe "scope open"
+        ttl.remove()
+    }
+}
@@ -0,0 +1,148 @@
+package com.alibaba.user_api_test.ttl3
+
+import com.alibaba.expandThreadPool
+import com.alibaba.getForTest
+import com.alibaba.shutdownForTest
+import com.alibaba.ttl3.TransmissionMode
+import com.alibaba.ttl3.TransmittableThreadLocal
+import com.alibaba.ttl3.executor.TtlExecutors
+import io.kotest.core.spec.style.AnnotationSpec
+import io.kotest.matchers.shouldBe
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+import kotlin.concurrent.thread
+
+class TransmissionModeTest : AnnotationSpec() {
+
+    @Test
+    fun test_transmissionMode() {
+        val both = TransmittableThreadLocal<String>()
+        val inheritOnly = TransmittableThreadLocal<String>(TransmissionMode.INHERIT_ONLY)
+        val transmitOnly = TransmittableThreadLocal.withInitial({ "init" }, TransmissionMode.TRANSMIT_ONLY)
+        val none = TransmittableThreadLocal.withInitialAndGenerator({ "init" }, { "$it!" }, TransmissionMode.NONE)
+
+        both.transmissionMode shouldBe TransmissionMode.INHERIT_AND_TRANSMIT
+        none.transmissionMode shouldBe TransmissionMode.NONE
+
+        both.set("both")
+        inheritOnly.set("inheritOnly")
+        transmitOnly.set("transmitOnly")
+        none.set("none")
+
+        var inherited: List<String?> = emptyList()
+        thread {
+            inherited = listOf(both.get(), inheritOnly.get(), transmitOnly.get(), none.get())
+        }.join()
+        inherited shouldBe listOf("both", "inheritOnly", "init", "init")
+
+        executorService.submit<List<String?>> {
+            listOf(both.get(), inheritOnly.get(), transmitOnly.get(), none.get())
+        }.getForTest() shouldBe listOf("both", null, "transmitOnly", "init")
+
+        // the TTL excluded from the inheritance is transmitted by the child thread after set
+        var transmittedByChild: String? = null
+        thread {
+            transmitOnly.get() shouldBe "init"
+            transmitOnly.set("child")
+            transmittedByChild = executorService.submit<String> { transmitOnly.get() }.getForTest()
+        }.join()
+        transmittedByChild shouldBe "child"
+        transmitOnly.get() shouldBe "transmitOnly"
+
+        both.remove()
+        inheritOnly.remove()
+        transmitOnly.remove()
+        none.remove()
+    }
+
+    @Test
+    fun test_childValue_of_not_inherited() {
+        var superChildValue: String? = "not called"
+        val callSuper = object : TransmittableThreadLocal<String>(TransmissionMode.TRANSMIT_ONLY) {
+            override fun initialValue(): String = "init"
+
+            override fun childValue(parentValue: String?): String? =
+                super.childValue(parentValue).also { superChildValue = it }
+        }
+        val overridden = object : TransmittableThreadLocal<String>(TransmissionMode.NONE) {
+            override fun initialValue(): String = "init"
+
+            override fun childValue(parentValue: String?): String = "$parentValue-child"
+        }
+        val nullValue = object : TransmittableThreadLocal<String>(true, TransmissionMode.TRANSMIT_ONLY) {
+            override fun initialValue(): String = "init"
+        }
+
+        callSuper.set("parent")
+        overridden.set("parent")
+        nullValue.set("parent")
+
+        var inherited: List<String?> = emptyList()
+        thread {
+            nullValue.set(null)
+            inherited = listOf(callSuper.get(), overridden.get(), nullValue.get())
+        }.join()
+        // the super method returns null instead of the parent value, the child thread gets the initial value
+        superChildValue shouldBe null
+        // the overridden method determines the child value; the null value set by the child thread is kept
+        inherited shouldBe listOf("init", "parent-child", null)
+
+        callSuper.remove()
+        overridden.remove()
+        nullValue.remove()
+    }
+
+    @Test
+    fun test_initialValue_of_not_inherited_called_once() {
+        val initialValueCount = AtomicInteger()
+        val ttl = object : TransmittableThreadLocal<String>(TransmissionMode.TRANSMIT_ONLY) {
+            override fun initialValue(): String? = null.also { initialValueCount.incrementAndGet() }
+        }
+
+        // the thread created before the first set of the parent thread
+        val latch = CountDownLatch(1)
+        var counts: List<Int> = emptyList()
+        val createdBefore = thread {
+            latch.await()
+            ttl.get()
+            val afterGet = initialValueCount.getAndSet(0)
+            ttl.remove()
+            ttl.get()
+            counts = listOf(afterGet, initialValueCount.getAndSet(0))
+        }
+        ttl.set("parent")
+        initialValueCount.set(0)
+        latch.countDown()
+        createdBefore.join()
+        counts shouldBe listOf(1, 1)
+
+        // the thread created after the set, holds the discarded child value
+        thread {
+            ttl.get()
+            val afterGet = initialValueCount.getAndSet(0)
+            ttl.remove()
+            ttl.get()
+            counts = listOf(afterGet, initialValueCount.getAndSet(0))
+        }.join()
+        counts shouldBe listOf(1, 1)
+
+        ttl.remove()
+    }
+
+    private lateinit var executorService: ExecutorService
+
+    @BeforeAll
+    fun beforeAll() {
+        executorService = Executors.newFixedThreadPool(2).let {
+            expandThreadPool(it)
+            TtlExecutors.getTtlExecutorService(it)!!
+        }
+    }
+
+    @AfterAll
+    fun afterAll() {
+        executorService.shutdownForTest()
+    }
+}
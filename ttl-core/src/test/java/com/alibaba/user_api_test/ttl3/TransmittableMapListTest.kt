@@ -0,0 +1,102 @@
+package com.alibaba.user_api_test.ttl3
+
+import com.alibaba.expandThreadPool
+import com.alibaba.getForTest
+import com.alibaba.shutdownForTest
+import com.alibaba.ttl3.TransmittableList
+import com.alibaba.ttl3.TransmittableMap
+import com.alibaba.ttl3.executor.TtlExecutors
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.AnnotationSpec
+import io.kotest.matchers.collections.shouldBeEmpty
+import io.kotest.matchers.collections.shouldContainExactly
+import io.kotest.matchers.maps.shouldBeEmpty
+import io.kotest.matchers.maps.shouldContainExactly
+import io.kotest.matchers.nulls.shouldBeNull
+import io.kotest.matchers.shouldBe
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import kotlin.concurrent.thread
+
+class TransmittableMapListTest : AnnotationSpec() {
+
+    @Test
+    fun test_map_transmit_and_copyOnWrite() {
+        val map = TransmittableMap<String, String>()
+        map.isEmpty() shouldBe true
+        map.put("k1", "v1").shouldBeNull()
+        map.put("k2", "v2").shouldBeNull()
+
+        val taskMap = executorService.submit<Map<String, String>> {
+            map.get("k1") shouldBe "v1"
+
+            map.put("k1", "task").shouldBe("v1")
+            map.remove("k2") shouldBe "v2"
+            map.put("k3", "v3").shouldBeNull()
+            map.asMap()
+        }.getForTest()
+        taskMap.shouldContainExactly(mapOf("k1" to "task", "k3" to "v3"))
+
+        // the modifications of task are not visible to the submitting thread
+        map.asMap().shouldContainExactly(mapOf("k1" to "v1", "k2" to "v2"))
+
+        // the modifications of the submitting thread after capture are not visible to the task
+        val captured = map.asMap()
+        map.put("k1", "parent")
+        captured.shouldContainExactly(mapOf("k1" to "v1", "k2" to "v2"))
+
+        var childMap: Map<String, String>? = null
+        thread {
+            childMap = map.asMap()
+            map.clear()
+        }.join()
+        childMap!!.shouldContainExactly(mapOf("k1" to "parent", "k2" to "v2"))
+        map.size() shouldBe 2
+
+        map.clear()
+        map.asMap().shouldBeEmpty()
+        executorService.submit<Int> { map.size() }.getForTest() shouldBe 0
+    }
+
+    @Test
+    fun test_list_transmit_and_copyOnWrite() {
+        val list = TransmittableList<String>()
+        list.isEmpty() shouldBe true
+        list.add("e1")
+        list.add("e2")
+
+        val taskList = executorService.submit<List<String>> {
+            list.get(0) shouldBe "e1"
+
+            list.set(0, "task") shouldBe "e1"
+            list.remove(1) shouldBe "e2"
+            list.add("e3")
+            list.asList()
+        }.getForTest()
+        taskList.shouldContainExactly("task", "e3")
+
+        // the modifications of task are not visible to the submitting thread
+        list.asList().shouldContainExactly("e1", "e2")
+
+        shouldThrow<IndexOutOfBoundsException> { list.set(2, "e") }
+        list.remove(1) shouldBe "e2"
+        list.remove(0) shouldBe "e1"
+        list.asList().shouldBeEmpty()
+        shouldThrow<IndexOutOfBoundsException> { list.get(0) }
+    }
+
+    private lateinit var executorService: ExecutorService
+
+    @BeforeAll
+    fun beforeAll() {
+        executorService = Executors.newFixedThreadPool(3).let {
+            expandThreadPool(it)
+            TtlExecutors.getTtlExecutorService(it)!!
+        }
+    }
+
+    @AfterAll
+    fun afterAll() {
+        executorService.shutdownForTest()
+    }
+}
@@ -0,0 +1,114 @@
+package com.alibaba.user_api_test.ttl3
+
+import com.alibaba.expandThreadPool
+import com.alibaba.getForTest
+import com.alibaba.shutdownForTest
+import com.alibaba.ttl3.TransmittableBooleanLocal
+import com.alibaba.ttl3.TransmittableIntLocal
+import com.alibaba.ttl3.TransmittableLongLocal
+import com.alibaba.ttl3.executor.TtlExecutors
+import com.alibaba.ttl3.transmitter.Transmitter
+import io.kotest.core.spec.style.AnnotationSpec
+import io.kotest.matchers.shouldBe
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import kotlin.concurrent.thread
+
+class TransmittablePrimitiveLocalTest : AnnotationSpec() {
+
+    @Test
+    fun test_get_set_remove() {
+        val longLocal = TransmittableLongLocal(-1)
+        val intLocal = TransmittableIntLocal()
+        val booleanLocal = TransmittableBooleanLocal(true)
+
+        longLocal.get() shouldBe -1L
+        longLocal.isSet shouldBe false
+        intLocal.get() shouldBe 0
+        booleanLocal.get() shouldBe true
+
+        longLocal.set(Long.MAX_VALUE)
+        intLocal.set(Int.MIN_VALUE)
+        booleanLocal.set(false)
+        longLocal.get() shouldBe Long.MAX_VALUE
+        longLocal.isSet shouldBe true
+        intLocal.get() shouldBe Int.MIN_VALUE
+        booleanLocal.get() shouldBe false
+
+        longLocal.remove()
+        intLocal.remove()
+        booleanLocal.remove()
+        longLocal.get() shouldBe -1L
+        longLocal.isSet shouldBe false
+        intLocal.get() shouldBe 0
+        booleanLocal.get() shouldBe true
+    }
+
+    @Test
+    fun test_transmit() {
+        val longLocal = TransmittableLongLocal()
+        val intLocal = TransmittableIntLocal()
+        val booleanLocal = TransmittableBooleanLocal()
+
+        longLocal.set(42)
+        intLocal.set(43)
+        booleanLocal.set(true)
+
+        executorService.submit {
+            longLocal.get() shouldBe 42L
+            intLocal.get() shouldBe 43
+            booleanLocal.get() shouldBe true
+
+            // the modification of task is not visible to the submitting thread
+            longLocal.set(1)
+            intLocal.remove()
+        }.getForTest()
+        longLocal.get() shouldBe 42L
+        intLocal.get() shouldBe 43
+
+        // the modification after capture is not visible to the captured
+        val captured = Transmitter.capture()
+        longLocal.set(2)
+        executorService.submit<Long> {
+            Transmitter.runSupplierWithCaptured(captured) { longLocal.get() }
+        }.getForTest() shouldBe 42L
+
+        // the values of the executor thread are restored after the task
+        Transmitter.runSupplierWithClear {
+            executorService.submit {
+                longLocal.isSet shouldBe false
+                intLocal.isSet shouldBe false
+                booleanLocal.isSet shouldBe false
+            }.getForTest()
+        }
+        longLocal.get() shouldBe 2L
+
+        // inherited by the child thread
+        var childValue = -1L
+        thread {
+            childValue = longLocal.get()
+            longLocal.set(3)
+        }.join()
+        childValue shouldBe 2L
+        longLocal.get() shouldBe 2L
+
+        longLocal.remove()
+        intLocal.remove()
+        booleanLocal.remove()
+    }
+
+    private lateinit var executorService: ExecutorService
+
+    @BeforeAll
+    fun beforeAll() {
+        executorService = Executors.newFixedThreadPool(3).let {
+            expandThreadPool(it)
+            TtlExecutors.getTtlExecutorService(it)!!
+        }
+    }
+
+    @AfterAll
+    fun afterAll() {
+        executorService.shutdownForTest()
+    }
+}
@@ -0,0 +1,104 @@
+package com.alibaba.user_api_test.ttl3
+
+import com.alibaba.getForTest
+import com.alibaba.shutdownForTest
+import com.alibaba.ttl3.TransmittableScopedValue
+import com.alibaba.ttl3.executor.TtlExecutors
+import com.alibaba.ttl3.transmitter.Transmitter
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.AnnotationSpec
+import io.kotest.matchers.shouldBe
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class TransmittableScopedValueTest : AnnotationSpec() {
+
+    @Test
+    fun test_bind() {
+        USER.isBound shouldBe false
+        USER.orElse("none") shouldBe "none"
+        shouldThrow<NoSuchElementException> { USER.get() }
+
+        USER.runWhere("alice") {
+            USER.get() shouldBe "alice"
+            USER.isBound shouldBe true
+
+            // rebind in nested scope
+            USER.callWhere("bob") { USER.get() } shouldBe "bob"
+            USER.get() shouldBe "alice"
+        }
+        USER.isBound shouldBe false
+
+        shouldThrow<IllegalStateException> {
+            USER.callWhere("alice") { throw IllegalStateException("biz") }
+        }.message shouldBe "biz"
+        USER.isBound shouldBe false
+    }
+
+    @Test
+    fun test_transmit() {
+        USER.runWhere("alice") {
+            TENANT.runWhere(42) {
+                executorService.submit<String> {
+                    TENANT.get() shouldBe 42
+                    USER.get()
+                }.getForTest() shouldBe "alice"
+            }
+
+            // the bound value of the current thread takes precedence over the transmitted value
+            executorService.submit<String> {
+                TENANT.isBound shouldBe false
+                USER.callWhere("bob") { USER.get() }
+            }.getForTest() shouldBe "bob"
+
+            // the captured value is the value at the capture
+            val captured = Transmitter.capture()
+            USER.callWhere("carol") {
+                Transmitter.runSupplierWithCaptured(captured) { USER.get() }
+            } shouldBe "carol"
+            // the clear of transmitted values does not unbind the value bound in the current thread
+            Transmitter.runSupplierWithClear { USER.get() } shouldBe "alice"
+            USER.get() shouldBe "alice"
+        }
+
+        // the transmitted values are restored after the task
+        Transmitter.runSupplierWithClear {
+            executorService.submit<Boolean> { USER.isBound || TENANT.isBound }.getForTest() shouldBe false
+        }
+    }
+
+    @Test
+    fun test_replay_in_runSupplierWithCaptured() {
+        val captured = USER.callWhere("alice") { Transmitter.capture() }
+        USER.isBound shouldBe false
+
+        Transmitter.runSupplierWithCaptured(captured) {
+            USER.get() shouldBe "alice"
+
+            // the nested replay/restore in the scope of runSupplierWithCaptured
+            val backup = Transmitter.clear()
+            USER.isBound shouldBe false
+            Transmitter.restore(backup)
+
+            USER.get()
+        } shouldBe "alice"
+        USER.isBound shouldBe false
+    }
+
+    private lateinit var executorService: ExecutorService
+
+    @BeforeAll
+    fun beforeAll() {
+        executorService = TtlExecutors.getTtlExecutorService(Executors.newFixedThreadPool(2))!!
+    }
+
+    @AfterAll
+    fun afterAll() {
+        executorService.shutdownForTest()
+    }
+
+    companion object {
+        private val USER = TransmittableScopedValue.newInstance<String>()
+        private val TENANT = TransmittableScopedValue.newInstance<Int>()
+    }
+}
@@ -1,5 +1,6 @@
 package com.alibaba.user_api_test.ttl3
 
+import com.alibaba.crr.composite.Capture
 import com.alibaba.expandThreadPool
 import com.alibaba.getForTest
 import com.alibaba.shutdownForTest
@@ -8,6 +9,7 @@ import com.alibaba.ttl3.transmitter.Transmitter
 import io.kotest.core.spec.style.AnnotationSpec
 import io.kotest.matchers.nulls.shouldBeNull
 import io.kotest.matchers.shouldBe
+import java.lang.ref.WeakReference
 import java.util.*
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.Executors
@@ -43,6 +45,55 @@ class TransmittableThreadLocal_Transmitter_UserTest : AnnotationSpec() {
         ttl.get() shouldBe parentValue
     }
 
+    @Test
+    fun test_cached_capture_not_prevent_ttl_from_collected() {
+        val ttlRef = newTtlAndCapture()
+
+        for (i in 0 until 100) {
+            if (ttlRef.get() == null) break
+            System.gc()
+            Thread.sleep(10)
+        }
+        ttlRef.get().shouldBeNull()
+    }
+
+    @Test
+    fun test_transmitteeValue_computed_per_capture() {
+        val copied = object : TransmittableThreadLocal<MutableList<String>>() {
+            override fun transmitteeValue(parentValue: MutableList<String>): MutableList<String> = parentValue.toMutableList()
+        }
+        val ttl = TransmittableThreadLocal<String>()
+        copied.set(mutableListOf(parentValue))
+        ttl.set(parentValue)
+
+        val capture1 = Transmitter.capture()
+        // modified in place, the context version is unchanged
+        copied.get().add(childValue)
+        val capture2 = Transmitter.capture()
+
+        val transmitted = { capture: Capture ->
+            executorService.submit<List<Any?>> {
+                Transmitter.runSupplierWithCaptured(capture) {
+                    listOf(copied.get(), ttl.get())
+                }
+            }.getForTest()
+        }
+        transmitted(capture1) shouldBe listOf(listOf(parentValue), parentValue)
+        transmitted(capture2) shouldBe listOf(listOf(parentValue, childValue), parentValue)
+
+        copied.remove()
+        ttl.remove()
+    }
+
+    private fun newTtlAndCapture(): WeakReference<TransmittableThreadLocal<String>> {
+        val ttl = TransmittableThreadLocal<String>()
+        ttl.set(parentValue)
+        // the capture is cached by the current thread
+        Transmitter.capture()
+        Transmitter.capture()
+        return WeakReference(ttl)
+    }
+
     @Test
     fun test_clear_restore() {
         val ttl = TransmittableThreadLocal<String>()
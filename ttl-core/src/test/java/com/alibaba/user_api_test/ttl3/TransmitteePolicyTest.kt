@@ -0,0 +1,151 @@
+package com.alibaba.user_api_test.ttl3
+
+import com.alibaba.getForTest
+import com.alibaba.shutdownForTest
+import com.alibaba.ttl3.TransmittableThreadLocal
+import com.alibaba.ttl3.TtlRunnable
+import com.alibaba.ttl3.executor.TtlExecutors
+import com.alibaba.ttl3.transmitter.ThreadLocalTransmitRegistry
+import com.alibaba.ttl3.transmitter.Transmittee
+import com.alibaba.ttl3.transmitter.TransmitteePolicy
+import com.alibaba.ttl3.transmitter.TransmitteeRegistry
+import com.alibaba.ttl3.transmitter.Transmitter
+import io.kotest.core.spec.style.AnnotationSpec
+import io.kotest.matchers.booleans.shouldBeFalse
+import io.kotest.matchers.booleans.shouldBeTrue
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class TransmitteePolicyTest : AnnotationSpec() {
+
+    @Test
+    fun test_policy_executor() {
+        val policyExecutorService = TtlExecutors.getTtlExecutorService(rawExecutorService, ttlOnly)!!
+        TtlExecutors.isTtlExecutor(policyExecutorService).shouldBeTrue()
+        TtlExecutors.unwrapTtlExecutor(policyExecutorService) shouldBeSameInstanceAs rawExecutorService
+        // the full TTL wrapper is replaced by the policy wrapper
+        TtlExecutors.getTtlExecutorService(executorService, ttlOnly) shouldBe policyExecutorService
+
+        ttl.set("ttl")
+        plainThreadLocal.set("plain")
+        mdc.set("mdc")
+
+        policyExecutorService.submit<List<String?>> { listOf(ttl.get(), plainThreadLocal.get(), mdc.get()) }
+            .getForTest() shouldBe listOf("ttl", null, null)
+        executorService.submit<List<String?>> { listOf(ttl.get(), plainThreadLocal.get(), mdc.get()) }
+            .getForTest() shouldBe listOf("ttl", "plain", "mdc")
+
+        ttl.remove()
+        plainThreadLocal.remove()
+        mdc.remove()
+    }
+
+    @Test
+    fun test_policy_leaves_excluded_untouched() {
+        ttl.set("ttl")
+        val captured = ttlOnly.capture()
+
+        plainThreadLocal.set("plain")
+        mdc.set("mdc")
+        ttl.set("ttl-2")
+        Transmitter.runSupplierWithCaptured(captured) {
+            ttl.get() shouldBe "ttl"
+            plainThreadLocal.get() shouldBe "plain"
+            mdc.get() shouldBe "mdc"
+        }
+        ttl.get() shouldBe "ttl-2"
+
+        TtlRunnable.get({ mdc.get() shouldBe "mdc" }, ttlOnly)!!.run()
+
+        ttl.remove()
+        plainThreadLocal.remove()
+        mdc.remove()
+    }
+
+    @Test
+    fun test_ttl_only_policy() {
+        TransmitteePolicy.ttlOnly() shouldBeSameInstanceAs ttlOnly
+        ttlOnly.isAccepted(mdcTransmittee).shouldBeFalse()
+
+        ttl.set("ttl")
+        plainThreadLocal.set("plain")
+        mdc.set("mdc")
+        val captured = ttlOnly.capture()
+
+        ttl.remove()
+        plainThreadLocal.remove()
+        mdc.remove()
+        Transmitter.runSupplierWithCaptured(captured) {
+            listOf(ttl.get(), plainThreadLocal.get(), mdc.get()) shouldBe listOf("ttl", null, null)
+        }
+        ttl.get() shouldBe null
+    }
+
+    @Test
+    fun test_policy_follows_registration() {
+        val policy = TransmitteePolicy.including(mdcTransmittee)
+        policy.isAccepted(mdcTransmittee).shouldBeTrue()
+        ttlOnly.isAccepted(mdcTransmittee).shouldBeFalse()
+
+        mdc.set("mdc")
+        val policyExecutorService = TtlExecutors.getTtlExecutorService(rawExecutorService, policy)!!
+        policyExecutorService.submit<String?> { mdc.get() }.getForTest() shouldBe "mdc"
+
+        // the unregistered transmittee is not transmitted even if accepted by the policy
+        TransmitteeRegistry.unregisterTransmittee(mdcTransmittee).shouldBeTrue()
+        try {
+            policyExecutorService.submit<String?> { mdc.get() }.getForTest() shouldBe null
+        } finally {
+            TransmitteeRegistry.registerTransmittee(mdcTransmittee).shouldBeTrue()
+        }
+        policyExecutorService.submit<String?> { mdc.get() }.getForTest() shouldBe "mdc"
+
+        mdc.remove()
+    }
+
+    private lateinit var rawExecutorService: ExecutorService
+    private lateinit var executorService: ExecutorService
+
+    @BeforeAll
+    fun beforeAll() {
+        ThreadLocalTransmitRegistry.registerThreadLocal(plainThreadLocal) { it }
+        TransmitteeRegistry.registerTransmittee(mdcTransmittee)
+        rawExecutorService = Executors.newFixedThreadPool(2)
+        executorService = TtlExecutors.getTtlExecutorService(rawExecutorService)!!
+    }
+
+    @AfterAll
+    fun afterAll() {
+        ThreadLocalTransmitRegistry.unregisterThreadLocal(plainThreadLocal)
+        TransmitteeRegistry.unregisterTransmittee(mdcTransmittee)
+        rawExecutorService.shutdownForTest()
+    }
+
+    private class MdcTransmittee : Transmittee<String, String> {
+        override fun capture(): String = mdc.get() ?: ""
+
+        override fun replay(captured: String): String {
+            val backup = mdc.get() ?: ""
+            if (captured.isEmpty()) mdc.remove() else mdc.set(captured)
+            return backup
+        }
+
+        override fun clear(): String = replay("")
+
+        override fun restore(backup: String) {
+            if (backup.isEmpty()) mdc.remove() else mdc.set(backup)
+        }
+    }
+
+    companion object {
+        private val ttl = TransmittableThreadLocal<String>()
+        private val plainThreadLocal = ThreadLocal<String>()
+        private val mdc = ThreadLocal<String>()
+
+        private val mdcTransmittee = MdcTransmittee()
+
+        private val ttlOnly = TransmitteePolicy.ttlOnly()
+    }
+}
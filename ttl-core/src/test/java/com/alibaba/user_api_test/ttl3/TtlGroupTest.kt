@@ -0,0 +1,131 @@
+package com.alibaba.user_api_test.ttl3
+
+import com.alibaba.getForTest
+import com.alibaba.shutdownForTest
+import com.alibaba.ttl3.TransmittableThreadLocal
+import com.alibaba.ttl3.TtlCallable
+import com.alibaba.ttl3.TtlGroup
+import com.alibaba.ttl3.TtlRunnable
+import com.alibaba.ttl3.executor.TtlExecutors
+import com.alibaba.ttl3.transmitter.ThreadLocalTransmitRegistry
+import com.alibaba.ttl3.transmitter.TransmitteePolicy
+import com.alibaba.ttl3.transmitter.Transmitter
+import io.kotest.assertions.throwables.shouldThrow
+import io.kotest.core.spec.style.AnnotationSpec
+import io.kotest.matchers.booleans.shouldBeFalse
+import io.kotest.matchers.booleans.shouldBeTrue
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.shouldNotBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class TtlGroupTest : AnnotationSpec() {
+
+    @Test
+    fun test_group_capture() {
+        traceId.set("trace-1")
+        tenantId.set("tenant-1")
+        bigContext.set("big")
+        plainThreadLocal.set("plain")
+
+        executorService.submit(TtlCallable.get({
+            listOf(traceId.get(), tenantId.get(), bigContext.get(), plainThreadLocal.get())
+        }, groupPolicy)!!).getForTest() shouldBe listOf("trace-1", "tenant-1", null, null)
+
+        // the values out of the group in the executing thread are cleared during the task, and restored after
+        Transmitter.runSupplierWithCaptured(Transmitter.capture()) {
+            TtlRunnable.get({
+                traceId.get() shouldBe "trace-1"
+                bigContext.get() shouldBe null
+                // the registered ThreadLocal is untouched
+                plainThreadLocal.get() shouldBe "plain"
+            }, groupPolicy)!!.run()
+            bigContext.get() shouldBe "big"
+        }
+
+        // the value set after the group capture is not transmitted
+        val captured = group.capture()
+        traceId.set("trace-2")
+        executorService.submit<String> {
+            Transmitter.runSupplierWithCaptured(captured) { traceId.get() }
+        }.getForTest() shouldBe "trace-1"
+
+        traceId.remove()
+        tenantId.remove()
+        bigContext.remove()
+        plainThreadLocal.remove()
+    }
+
+    @Test
+    fun test_group_executor() {
+        val groupExecutorService = TtlExecutors.getTtlExecutorService(rawExecutorService, groupPolicy)!!
+        TtlExecutors.isTtlExecutor(groupExecutorService).shouldBeTrue()
+        TtlExecutors.unwrapTtlExecutor(groupExecutorService) shouldBeSameInstanceAs rawExecutorService
+        // the full TTL wrapper is replaced by the group wrapper; the policies of the same group are equal
+        TtlExecutors.getTtlExecutorService(executorService, TransmitteePolicy.ofGroup(group)) shouldBe groupExecutorService
+
+        traceId.set("trace-1")
+        bigContext.set("big")
+        groupExecutorService.submit<List<String?>> { listOf(traceId.get(), bigContext.get()) }
+            .getForTest() shouldBe listOf("trace-1", null)
+
+        // out of the group, nothing to transmit
+        traceId.remove()
+        groupExecutorService.submit<Boolean> { traceId.get() == null && bigContext.get() == null }
+            .getForTest().shouldBeTrue()
+
+        bigContext.remove()
+    }
+
+    @Test
+    fun test_include() {
+        val ttl = TransmittableThreadLocal<String>()
+        group.contains(ttl).shouldBeFalse()
+        group.contains(traceId).shouldBeTrue()
+        group.include(traceId) shouldBeSameInstanceAs traceId
+        group.name shouldBe "trace"
+
+        val otherGroup = TtlGroup.newGroup("other")
+        otherGroup.include(ttl) shouldBeSameInstanceAs ttl
+        otherGroup.contains(ttl).shouldBeTrue()
+        otherGroup.contains(traceId).shouldBeFalse()
+    }
+
+    @Test
+    fun test_group_policy() {
+        TransmitteePolicy.ofGroup(group) shouldBe groupPolicy
+        TransmitteePolicy.ofGroup(TtlGroup.newGroup("trace")) shouldNotBe groupPolicy
+
+        // the group policy is not combined with other policies
+        shouldThrow<IllegalArgumentException> { groupPolicy.and(TransmitteePolicy.ttlOnly()) }
+        shouldThrow<IllegalArgumentException> { TransmitteePolicy.ttlOnly().and(groupPolicy) }
+    }
+
+    private lateinit var rawExecutorService: ExecutorService
+    private lateinit var executorService: ExecutorService
+
+    @BeforeAll
+    fun beforeAll() {
+        ThreadLocalTransmitRegistry.registerThreadLocal(plainThreadLocal) { it }
+        rawExecutorService = Executors.newFixedThreadPool(2)
+        executorService = TtlExecutors.getTtlExecutorService(rawExecutorService)!!
+    }
+
+    @AfterAll
+    fun afterAll() {
+        ThreadLocalTransmitRegistry.unregisterThreadLocal(plainThreadLocal)
+        rawExecutorService.shutdownForTest()
+    }
+
+    companion object {
+        private val group = TtlGroup.newGroup("trace")
+        private val groupPolicy = TransmitteePolicy.ofGroup(group)
+
+        private val traceId = TransmittableThreadLocal<String>(group)
+        private val tenantId = TransmittableThreadLocal<String>(group)
+        private val bigContext = TransmittableThreadLocal<String>()
+
+        private val plainThreadLocal = ThreadLocal<String>()
+    }
+}
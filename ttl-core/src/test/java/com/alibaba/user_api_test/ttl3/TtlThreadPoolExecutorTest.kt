@@ -0,0 +1,165 @@
+package com.alibaba.user_api_test.ttl3
+
+import com.alibaba.getForTest
+import com.alibaba.noTtlAgentRun
+import com.alibaba.shutdownForTest
+import com.alibaba.ttl3.TransmittableThreadLocal
+import com.alibaba.ttl3.executor.TtlExecutors
+import com.alibaba.ttl3.executor.TtlScheduledThreadPoolExecutor
+import com.alibaba.ttl3.executor.TtlThreadPoolExecutor
+import io.kotest.core.spec.style.AnnotationSpec
+import io.kotest.matchers.booleans.shouldBeTrue
+import io.kotest.matchers.collections.shouldContainExactlyInAnyOrder
+import io.kotest.matchers.shouldBe
+import io.kotest.matchers.types.shouldBeSameInstanceAs
+import java.util.Collections
+import java.util.concurrent.ArrayBlockingQueue
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.PriorityBlockingQueue
+import java.util.concurrent.TimeUnit
+
+class TtlThreadPoolExecutorTest : AnnotationSpec() {
+
+    @Test
+    fun test_transmit() {
+        val executor = TtlThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, LinkedBlockingQueue())
+        TtlExecutors.getTtlExecutorService(executor) shouldBeSameInstanceAs executor
+
+        ttl.set("parent")
+        executor.submit(Callable { ttl.get() }).getForTest() shouldBe "parent"
+        executor.invokeAll(listOf(Callable { ttl.get() })).single().getForTest() shouldBe "parent"
+
+        val executed = CompletableFuture<String?>()
+        executor.execute { executed.complete(ttl.get()) }
+        executed.getForTest() shouldBe "parent"
+
+        // the value set in the task is restored after the task
+        executor.submit { ttl.set("child") }.getForTest()
+        ttl.remove()
+        executor.submit(Callable { ttl.get() }).getForTest() shouldBe null
+
+        executor.shutdownForTest()
+    }
+
+    @Test
+    fun test_unwrapped_tasks() {
+        if (!noTtlAgentRun()) return
+
+        val executed = Collections.synchronizedList(mutableListOf<Int>())
+        val executor = TtlThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, PriorityBlockingQueue())
+        val blocker = CountDownLatch(1)
+        executor.execute { blocker.await() }
+
+        val tasks = listOf(3, 1, 2).map { PriorityTask(it, executed) }
+        tasks.forEach { executor.execute(it) }
+        executor.remove(tasks[2]).shouldBeTrue()
+        blocker.countDown()
+        executor.shutdown()
+        executor.awaitTermination(1, TimeUnit.SECONDS).shouldBeTrue()
+        // the natural ordering of the input tasks, without TtlRunnableUnwrapComparator
+        executed shouldBe listOf(1, 3)
+
+        val blocked = TtlThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, LinkedBlockingQueue())
+        val blocker2 = CountDownLatch(1)
+        blocked.execute { blocker2.await() }
+        tasks.forEach { blocked.execute(it) }
+        blocked.shutdownNow() shouldContainExactlyInAnyOrder tasks
+        blocker2.countDown()
+    }
+
+    @Test
+    fun test_execute_equal_tasks() {
+        val values = Collections.synchronizedList(mutableListOf<String?>())
+        // equal but distinct tasks keep their own captures
+        val task1 = EqualTask(values)
+        val task2 = EqualTask(values)
+        task1 shouldBe task2
+
+        val executor = TtlThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, LinkedBlockingQueue())
+        val blocker = CountDownLatch(1)
+        executor.execute { blocker.await() }
+        ttl.set("v1")
+        executor.execute(task1)
+        ttl.set("v2")
+        executor.execute(task2)
+        ttl.set("v3")
+        executor.execute(task1)
+        blocker.countDown()
+        executor.shutdown()
+        executor.awaitTermination(1, TimeUnit.SECONDS).shouldBeTrue()
+        values shouldBe listOf("v1", "v2", "v3")
+
+        ttl.remove()
+        if (!noTtlAgentRun()) return
+
+        // the rejection handler receives the input task
+        val rejected = CompletableFuture<Runnable>()
+        val rejecting = TtlThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, ArrayBlockingQueue(1)) { r, _ -> rejected.complete(r) }
+        val blocker2 = CountDownLatch(1)
+        rejecting.execute { blocker2.await() }
+        rejecting.execute {}
+        rejecting.execute(task2)
+        rejected.getForTest() shouldBeSameInstanceAs task2
+        blocker2.countDown()
+        rejecting.shutdownForTest()
+    }
+
+    @Test
+    fun test_scheduled_transmit() {
+        val executor = TtlScheduledThreadPoolExecutor(2)
+        TtlExecutors.getTtlScheduledExecutorService(executor) shouldBeSameInstanceAs executor
+
+        ttl.set("parent")
+        executor.schedule(Callable { ttl.get() }, 1, TimeUnit.MILLISECONDS).getForTest() shouldBe "parent"
+
+        val values = Collections.synchronizedSet(mutableSetOf<String?>())
+        val runs = CountDownLatch(10)
+        val future = executor.scheduleAtFixedRate({
+            values.add(ttl.get())
+            runs.countDown()
+        }, 0, 1, TimeUnit.MILLISECONDS)
+        // every run of the periodic task replays the capture of the submit time
+        ttl.set("changed")
+        runs.await(1, TimeUnit.SECONDS).shouldBeTrue()
+        future.cancel(false)
+        values shouldBe setOf("parent")
+
+        ttl.remove()
+        executor.submit(Callable { ttl.get() }).getForTest() shouldBe null
+
+        if (noTtlAgentRun()) {
+            executor.removeOnCancelPolicy = true
+            val delayed = executor.schedule({}, 1, TimeUnit.HOURS)
+            executor.queue.size shouldBe 1
+            delayed.cancel(false).shouldBeTrue()
+            executor.queue.size shouldBe 0
+        }
+
+        executor.shutdownForTest()
+    }
+
+    private class PriorityTask(val priority: Int, val executed: MutableList<Int>) : Runnable, Comparable<PriorityTask> {
+        override fun run() {
+            executed.add(priority)
+        }
+
+        override fun compareTo(other: PriorityTask): Int = priority.compareTo(other.priority)
+    }
+
+    private class EqualTask(val values: MutableList<String?>) : Runnable {
+        override fun run() {
+            values.add(ttl.get())
+        }
+
+        override fun equals(other: Any?): Boolean = other is EqualTask
+
+        override fun hashCode(): Int = 0
+    }
+
+    companion object {
+        private val ttl = TransmittableThreadLocal<String>()
+    }
+}
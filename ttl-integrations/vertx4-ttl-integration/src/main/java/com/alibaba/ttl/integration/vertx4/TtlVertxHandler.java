@@ -1,6 +1,5 @@
 package com.alibaba.ttl.integration.vertx4;
 
-import com.alibaba.ttl.spi.TtlAttachments;
 import com.alibaba.ttl.spi.TtlAttachmentsDelegate;
 import com.alibaba.ttl.spi.TtlEnhanced;
 import com.alibaba.ttl.spi.TtlWrapper;
@@ -12,7 +11,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 import static com.alibaba.ttl.TransmittableThreadLocal.Transmitter.*;
 
@@ -31,13 +30,19 @@ import static com.alibaba.ttl.TransmittableThreadLocal.Transmitter.*;
  * @see io.netty.channel.nio.NioEventLoop#run()
  * @see io.netty.channel.nio.NioEventLoop#processSelectedKeys()
  */
-public class TtlVertxHandler<E> implements Handler<E>, TtlWrapper<Handler<E>>, TtlEnhanced, TtlAttachments {
-    private final AtomicReference<Object> capturedRef;
+public class TtlVertxHandler<E> extends TtlAttachmentsDelegate implements Handler<E>, TtlWrapper<Handler<E>>, TtlEnhanced {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<TtlVertxHandler, Object> capturedUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(TtlVertxHandler.class, Object.class, "captured");
+
+    // compact layout(with the lazy attachments of TtlAttachmentsDelegate): no AtomicReference/attachments map per wrapper,
+    // since a wrapper is created for every handler.
+    private volatile Object captured;
     private final Handler<E> handler;
     private final boolean releaseTtlValueReferenceAfterRun;
 
     private TtlVertxHandler(@NonNull Handler<E> handler, boolean releaseTtlValueReferenceAfterRun) {
-        this.capturedRef = new AtomicReference<>(capture());
+        this.captured = capture();
         this.handler = handler;
         this.releaseTtlValueReferenceAfterRun = releaseTtlValueReferenceAfterRun;
     }
@@ -47,8 +52,8 @@ public class TtlVertxHandler<E> implements Handler<E>, TtlWrapper<Handler<E>>, T
      */
     @Override
     public void handle(E event) {
-        final Object captured = capturedRef.get();
-        if (captured == null || releaseTtlValueReferenceAfterRun && !capturedRef.compareAndSet(captured, null)) {
+        final Object captured = this.captured;
+        if (captured == null || releaseTtlValueReferenceAfterRun && !capturedUpdater.compareAndSet(this, captured, null)) {
             throw new IllegalStateException("TTL value reference is released after run!");
         }
 
@@ -252,22 +257,4 @@ public class TtlVertxHandler<E> implements Handler<E>, TtlWrapper<Handler<E>>, T
         }
         return copy;
     }
-
-    private final TtlAttachmentsDelegate ttlAttachment = new TtlAttachmentsDelegate();
-
-    /**
-     * see {@link TtlAttachments#setTtlAttachment(String, Object)}
-     */
-    @Override
-    public void setTtlAttachment(@NonNull String key, Object value) {
-        ttlAttachment.setTtlAttachment(key, value);
-    }
-
-    /**
-     * see {@link TtlAttachments#getTtlAttachment(String)}
-     */
-    @Override
-    public <T> T getTtlAttachment(@NonNull String key) {
-        return ttlAttachment.getTtlAttachment(key);
-    }
 }
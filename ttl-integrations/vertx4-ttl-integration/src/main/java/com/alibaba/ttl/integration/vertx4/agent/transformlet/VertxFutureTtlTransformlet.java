@@ -2,6 +2,7 @@ package com.alibaba.ttl.integration.vertx4.agent.transformlet;
 
 import com.alibaba.ttl.threadpool.agent.logging.Logger;
 import com.alibaba.ttl.threadpool.agent.transformlet.ClassInfo;
+import com.alibaba.ttl.threadpool.agent.transformlet.TransformletTarget;
 import com.alibaba.ttl.threadpool.agent.transformlet.TtlTransformlet;
 import com.alibaba.ttl.threadpool.agent.transformlet.javassist.CannotCompileException;
 import com.alibaba.ttl.threadpool.agent.transformlet.javassist.CtClass;
@@ -39,15 +40,23 @@ public class VertxFutureTtlTransformlet implements TtlTransformlet {
         TO_BE_TRANSFORMED_CLASS_NAMES.add(FUTURE_IMPL_CLASS_NAME);
     }
 
+    private static final TransformletTarget TARGET = TransformletTarget.classNames(FUTURE_CLASS_NAME, FUTURE_IMPL_CLASS_NAME);
+
+    @NonNull
+    @Override
+    public TransformletTarget getTarget() {
+        return TARGET;
+    }
+
     @Override
     public void doTransform(@NonNull ClassInfo classInfo) throws CannotCompileException, NotFoundException, IOException {
+        if (!TO_BE_TRANSFORMED_CLASS_NAMES.contains(classInfo.getClassName())) return;
+
         final CtClass clazz = classInfo.getCtClass();
-        if (TO_BE_TRANSFORMED_CLASS_NAMES.contains(classInfo.getClassName())) {
-            for (CtMethod method : clazz.getDeclaredMethods()) {
-                updateSetHandlerMethodsOfFutureClass_decorateToTtlWrapperAndSetAutoWrapperAttachment(method);
-            }
-            classInfo.setModified();
+        for (CtMethod method : clazz.getDeclaredMethods()) {
+            updateSetHandlerMethodsOfFutureClass_decorateToTtlWrapperAndSetAutoWrapperAttachment(method);
         }
+        classInfo.setModified();
     }
 
     private void updateSetHandlerMethodsOfFutureClass_decorateToTtlWrapperAndSetAutoWrapperAttachment(CtMethod method) throws NotFoundException, CannotCompileException {
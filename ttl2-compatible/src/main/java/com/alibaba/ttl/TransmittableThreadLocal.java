@@ -500,6 +500,8 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> imple
          */
         @NonNull
         public static Object capture() {
+            if (isEmptyContext()) return EMPTY_SNAPSHOT;
+
             final HashMap<Transmittee<Object, Object>, Object> transmittee2Value = new HashMap<>(transmitteeSet.size());
             for (Transmittee<Object, Object> transmittee : transmitteeSet) {
                 try {
@@ -525,6 +527,8 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> imple
          */
         @NonNull
         public static Object replay(@NonNull Object captured) {
+            if (captured == EMPTY_SNAPSHOT) return clear();
+
             final Snapshot capturedSnapshot = (Snapshot) captured;
 
             final HashMap<Transmittee<Object, Object>, Object> transmittee2Value = new HashMap<>(capturedSnapshot.transmittee2Value.size());
@@ -562,6 +566,9 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> imple
          */
         @NonNull
         public static Object clear() {
+            // both the context of current thread and the context to restore are empty, nothing to do
+            if (isEmptyContext()) return EMPTY_SNAPSHOT;
+
             final HashMap<Transmittee<Object, Object>, Object> transmittee2Value = new HashMap<>(transmitteeSet.size());
             for (Transmittee<Object, Object> transmittee : transmitteeSet) {
                 try {
@@ -586,6 +593,12 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> imple
          * @since 2.3.0
          */
         public static void restore(@NonNull Object backup) {
+            if (backup == EMPTY_SNAPSHOT) {
+                // the context is changed after replay(e.g. set by the task), clear the TTL values
+                if (!isEmptyContext()) ttlTransmittee.restore(new HashMap<>(0));
+                return;
+            }
+
             for (Map.Entry<Transmittee<Object, Object>, Object> entry : ((Snapshot) backup).transmittee2Value.entrySet()) {
                 Transmittee<Object, Object> transmittee = entry.getKey();
                 try {
@@ -608,6 +621,25 @@ public class TransmittableThreadLocal<T> extends InheritableThreadLocal<T> imple
             }
         }
 
+        /**
+         * the shared capture/backup of the empty context:
+         * no TTL value in the current thread, no registered {@link ThreadLocal}, and no other registered transmittee.
+         */
+        private static final Snapshot EMPTY_SNAPSHOT = new Snapshot(new HashMap<>(0));
+
+        private static boolean isEmptyContext() {
+            for (Transmittee<?, ?> transmittee : transmitteeSet) {
+                if (transmittee == ttlTransmittee) {
+                    if (!holder.get().isEmpty()) return false;
+                } else if (transmittee == threadLocalTransmittee) {
+                    if (!threadLocalHolder.isEmpty()) return false;
+                } else {
+                    return false;
+                }
+            }
+            return true;
+        }
+
         /**
          * Register the transmittee({@code CRR}), the extension point for other {@code ThreadLocal}.
          *
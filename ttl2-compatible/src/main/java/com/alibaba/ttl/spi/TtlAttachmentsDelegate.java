@@ -6,9 +6,15 @@ import edu.umd.cs.findbugs.annotations.Nullable;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * {@link TtlAttachments} delegate/implementation.
+ * <p>
+ * The layout is compact, since the TTL wrappers(e.g. {@code TtlVertxHandler}) extend this class
+ * and a wrapper is created for every task: the auto wrapper mark({@link Boolean#TRUE} of {@link #KEY_IS_AUTO_WRAPPER},
+ * almost the only attachment ever set) is a field, and the map of other attachments is created lazily on the first set;
+ * the attachment never set is {@code null}.
  *
  * @author Jerry Lee (oldratlee at gmail dot com)
  * @see com.alibaba.ttl.TtlRunnable
@@ -16,17 +22,43 @@ import java.util.concurrent.ConcurrentMap;
  * @since 2.11.0
  */
 public class TtlAttachmentsDelegate implements TtlAttachments {
-    private final ConcurrentMap<String, Object> attachments = new ConcurrentHashMap<>();
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<TtlAttachmentsDelegate, ConcurrentMap> attachmentsUpdater =
+            AtomicReferenceFieldUpdater.newUpdater(TtlAttachmentsDelegate.class, ConcurrentMap.class, "attachments");
+
+    // the attachment KEY_IS_AUTO_WRAPPER is Boolean.TRUE
+    private volatile boolean autoWrapper;
+    // other attachments, created lazily on the first set
+    @Nullable
+    private volatile ConcurrentMap<String, Object> attachments;
 
     @Override
     public void setTtlAttachment(@NonNull String key, Object value) {
-        attachments.put(key, value);
+        if (KEY_IS_AUTO_WRAPPER.equals(key)) {
+            autoWrapper = Boolean.TRUE.equals(value);
+            // other values of the key are kept in the map as is
+            if (autoWrapper || value == null) {
+                final ConcurrentMap<String, Object> map = attachments;
+                if (map != null) map.remove(key);
+                return;
+            }
+        }
+
+        ConcurrentMap<String, Object> map = attachments;
+        if (map == null) {
+            attachmentsUpdater.compareAndSet(this, null, new ConcurrentHashMap<>());
+            map = attachments;
+        }
+        map.put(key, value);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T> T getTtlAttachment(@NonNull String key) {
-        return (T) attachments.get(key);
+        if (autoWrapper && KEY_IS_AUTO_WRAPPER.equals(key)) return (T) Boolean.TRUE;
+
+        final ConcurrentMap<String, Object> map = attachments;
+        return map == null ? null : (T) map.get(key);
     }
 
     // ======== AutoWrapper Util Methods ========
@@ -38,10 +70,8 @@ public class TtlAttachmentsDelegate implements TtlAttachments {
     public static boolean isAutoWrapper(@Nullable Object ttlAttachments) {
         if (!(ttlAttachments instanceof TtlAttachments)) return false;
 
-        final Boolean value = ((TtlAttachments) ttlAttachments).getTtlAttachment(KEY_IS_AUTO_WRAPPER);
-        if (value == null) return false;
-
-        return value;
+        final Object value = ((TtlAttachments) ttlAttachments).getTtlAttachment(KEY_IS_AUTO_WRAPPER);
+        return Boolean.TRUE.equals(value);
     }
 
     /**
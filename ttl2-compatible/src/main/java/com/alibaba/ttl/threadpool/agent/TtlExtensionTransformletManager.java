@@ -38,6 +38,7 @@ final class TtlExtensionTransformletManager {
         for (Map.Entry<String, TtlTransformlet> entry : transformlets.entrySet()) {
             final String className = entry.getKey();
             final TtlTransformlet transformlet = entry.getValue();
+            if (!transformlet.getTarget().matches(classInfo.getClassName())) continue;
 
             transformlet.doTransform(classInfo);
             if (classInfo.isModified()) {
@@ -2,6 +2,7 @@ package com.alibaba.ttl.threadpool.agent;
 
 import com.alibaba.ttl.threadpool.agent.logging.Logger;
 import com.alibaba.ttl.threadpool.agent.transformlet.ClassInfo;
+import com.alibaba.ttl.threadpool.agent.transformlet.TransformletTarget;
 import com.alibaba.ttl.threadpool.agent.transformlet.TtlTransformlet;
 import edu.umd.cs.findbugs.annotations.NonNull;
 import edu.umd.cs.findbugs.annotations.Nullable;
@@ -37,6 +38,8 @@ public class TtlTransformer implements ClassFileTransformer {
 
     private final TtlExtensionTransformletManager extensionTransformletManager;
     private final List<TtlTransformlet> transformletList = new ArrayList<>();
+    // the targets of transformlets, in the same order of transformletList
+    private final List<TransformletTarget> targetList = new ArrayList<>();
     private final boolean logClassTransform;
 
     TtlTransformer(List<? extends TtlTransformlet> transformletList, boolean logClassTransform) {
@@ -45,6 +48,7 @@ public class TtlTransformer implements ClassFileTransformer {
         this.logClassTransform = logClassTransform;
         for (TtlTransformlet ttlTransformlet : transformletList) {
             this.transformletList.add(ttlTransformlet);
+            this.targetList.add(ttlTransformlet.getTarget());
             logger.info("[TtlTransformer] add Transformlet " + ttlTransformlet.getClass().getName());
         }
     }
@@ -72,7 +76,10 @@ public class TtlTransformer implements ClassFileTransformer {
 
             extensionTransformletManager.collectExtensionTransformlet(classInfo);
 
-            for (TtlTransformlet transformlet : transformletList) {
+            for (int i = 0; i < transformletList.size(); i++) {
+                if (!targetList.get(i).matches(classInfo.getClassName())) continue;
+
+                final TtlTransformlet transformlet = transformletList.get(i);
                 transformlet.doTransform(classInfo);
                 if (classInfo.isModified()) {
                     logger.info("[TtlTransformer] " + transformlet.getClass().getName() + " transformed " + classInfo.getClassName()
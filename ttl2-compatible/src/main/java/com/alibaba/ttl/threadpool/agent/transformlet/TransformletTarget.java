@@ -0,0 +1,134 @@
+package com.alibaba.ttl.threadpool.agent.transformlet;
+
+import edu.umd.cs.findbugs.annotations.NonNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static com.alibaba.ttl.threadpool.agent.transformlet.helper.TtlTransformletHelper.isClassUnderPackage;
+
+/**
+ * The target classes of {@link TtlTransformlet}, declared by {@link TtlTransformlet#getTarget()}.
+ * <p>
+ * The TTL agent invokes {@link TtlTransformlet#doTransform(ClassInfo)} only for the matched classes,
+ * the class not matched is skipped without Javassist parsing.
+ * <p>
+ * A class is matched if any of the conditions is satisfied:
+ * <ul>
+ * <li>the class name is one of {@link #classNames(String...)}</li>
+ * <li>the class is under one of {@link #packagePrefixes(String...)}, include the sub packages</li>
+ * </ul>
+ * Example:
+ * <pre>{@code
+ * public TransformletTarget getTarget() {
+ *     return TransformletTarget.classNames("io.vertx.core.impl.future.FutureImpl");
+ * }
+ * }</pre>
+ * The {@link TtlTransformlet#doTransform(ClassInfo)} still checks the class,
+ * the target is only used to skip the classes early.
+ *
+ * @author Jerry Lee (oldratlee at gmail dot com)
+ * @see TtlTransformlet#getTarget()
+ * @since 3.0.0
+ */
+public final class TransformletTarget {
+    private static final TransformletTarget ANY_CLASS = new TransformletTarget(
+            true, Collections.emptySet(), Collections.emptySet());
+
+    private final boolean anyClass;
+    private final Set<String> classNames;
+    private final Set<String> packagePrefixes;
+
+    private TransformletTarget(boolean anyClass, Set<String> classNames, Set<String> packagePrefixes) {
+        this.anyClass = anyClass;
+        this.classNames = Collections.unmodifiableSet(classNames);
+        this.packagePrefixes = Collections.unmodifiableSet(packagePrefixes);
+    }
+
+    /**
+     * all classes, the transformlet is invoked for every class.
+     * This is the default target of {@link TtlTransformlet}.
+     */
+    @NonNull
+    public static TransformletTarget anyClass() {
+        return ANY_CLASS;
+    }
+
+    /**
+     * @param classNames the class names, e.g. {@code io.vertx.core.Future}
+     */
+    @NonNull
+    public static TransformletTarget classNames(@NonNull String... classNames) {
+        return new TransformletTarget(false, merge(Collections.emptySet(), classNames), Collections.emptySet());
+    }
+
+    /**
+     * @param packagePrefixes the packages, e.g. {@code io.netty.util.concurrent}
+     */
+    @NonNull
+    public static TransformletTarget packagePrefixes(@NonNull String... packagePrefixes) {
+        return new TransformletTarget(false, Collections.emptySet(), merge(Collections.emptySet(), packagePrefixes));
+    }
+
+    /**
+     * add the class names to match.
+     *
+     * @return a new {@link TransformletTarget}
+     */
+    @NonNull
+    public TransformletTarget andClassNames(@NonNull String... classNames) {
+        if (anyClass) return this;
+        return new TransformletTarget(false, merge(this.classNames, classNames), packagePrefixes);
+    }
+
+    /**
+     * add the packages to match.
+     *
+     * @return a new {@link TransformletTarget}
+     */
+    @NonNull
+    public TransformletTarget andPackagePrefixes(@NonNull String... packagePrefixes) {
+        if (anyClass) return this;
+        return new TransformletTarget(false, classNames, merge(this.packagePrefixes, packagePrefixes));
+    }
+
+    /**
+     * whether the class is matched by this target.
+     */
+    public boolean matches(@NonNull String className) {
+        if (anyClass || classNames.contains(className)) return true;
+
+        for (String packagePrefix : packagePrefixes) {
+            if (isClassUnderPackage(className, packagePrefix)) return true;
+        }
+        return false;
+    }
+
+    public boolean isAnyClass() {
+        return anyClass;
+    }
+
+    @NonNull
+    public Set<String> getClassNames() {
+        return classNames;
+    }
+
+    @NonNull
+    public Set<String> getPackagePrefixes() {
+        return packagePrefixes;
+    }
+
+    @Override
+    public String toString() {
+        if (anyClass) return "TransformletTarget{anyClass}";
+        return "TransformletTarget{classNames=" + classNames + ", packagePrefixes=" + packagePrefixes + "}";
+    }
+
+    private static Set<String> merge(Set<String> set, String[] added) {
+        final Set<String> merged = new LinkedHashSet<>(set);
+        merged.addAll(Arrays.asList(added));
+        return merged;
+    }
+}
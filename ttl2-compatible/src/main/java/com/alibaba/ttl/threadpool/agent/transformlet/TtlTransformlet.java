@@ -22,4 +22,17 @@ public interface TtlTransformlet {
      * @see java.lang.instrument.ClassFileTransformer#transform
      */
     void doTransform(@NonNull ClassInfo classInfo) throws CannotCompileException, NotFoundException, IOException;
+
+    /**
+     * The target classes of this transformlet, {@link #doTransform(ClassInfo)} is invoked only for the matched classes.
+     * <p>
+     * Default is {@link TransformletTarget#anyClass()}, aka. invoked for every class.
+     * Return the same target on every invocation, e.g. a constant.
+     *
+     * @see TransformletTarget
+     */
+    @NonNull
+    default TransformletTarget getTarget() {
+        return TransformletTarget.anyClass();
+    }
 }